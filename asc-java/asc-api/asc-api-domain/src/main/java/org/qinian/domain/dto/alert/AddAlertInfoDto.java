@@ -17,4 +17,10 @@ public class AddAlertInfoDto {
     private AlertLevels alertLevel;
 
     private String alertedMessage;
+
+    private String rule;  // 触发的规则名，同一类型、等级下区分不同规则的告警，可为空
+
+    public AddAlertInfoDto(Long fishRaftId, AlertTypes alertTypeId, AlertLevels alertLevel, String alertedMessage) {
+        this(fishRaftId, alertTypeId, alertLevel, alertedMessage, null);
+    }
 }
@@ -0,0 +1,30 @@
+package org.qinian.domain.dto.alert;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.qinian.enums.AlertLevels;
+
+import java.time.LocalDateTime;
+
+/**
+ * 新告警推送事件，经 alert.fanout 广播到所有告警服务实例
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlertEventDto {
+    private Long id;
+
+    private Long fishRaftId;
+
+    private Long alertTypeId;
+
+    private String alertTypeMessage;  // 告警类型说明
+
+    private AlertLevels alertLevel;
+
+    private String alertedMessage;
+
+    private LocalDateTime alertedTime;
+}
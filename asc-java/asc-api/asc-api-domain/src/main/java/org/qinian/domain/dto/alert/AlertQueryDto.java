@@ -0,0 +1,38 @@
+package org.qinian.domain.dto.alert;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.qinian.enums.AlertLevels;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * 告警分页查询条件，按告警时间倒序；
+ * 翻页时传入上一页最后一条的 alertedTime 与 nextCursor（Id）；
+ * 时间参数格式与响应中的 alertedTime 一致（yyyy-MM-dd HH:mm:ss），可原样回传
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlertQueryDto {
+    private Long fishRaftId;
+
+    private Long alertTypeId;
+
+    private AlertLevels alertLevel;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime from;  // 告警时间下界（含）
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime to;  // 告警时间上界（不含）
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime beforeTime;  // 游标：上一页最后一条的告警时间
+
+    private Long beforeId;  // 游标：上一页最后一条的 Id
+
+    private Integer size;
+}
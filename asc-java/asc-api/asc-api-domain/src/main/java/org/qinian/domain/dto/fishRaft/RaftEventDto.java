@@ -0,0 +1,43 @@
+package org.qinian.domain.dto.fishRaft;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 渔排点生命周期事件，经 raft.topic 交换机广播
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaftEventDto {
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+
+    private Long eventId;  // outbox 自增 id，同一渔排点的事件按此排序，消费端据此去重
+
+    private String type;  // created / updated / deleted，同时作为路由键后缀
+
+    private Long fishRaftId;
+
+    private Long fishermenId;
+
+    private Long locationId;
+
+    private Double longitude;
+
+    private Double latitude;
+
+    private String name;
+
+    private Integer zoom;
+
+    private BigDecimal size;
+
+    private String message;
+
+    private String mask;
+}
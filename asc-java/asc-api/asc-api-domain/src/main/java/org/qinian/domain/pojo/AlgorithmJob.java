@@ -0,0 +1,50 @@
+package org.qinian.domain.pojo;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+import org.qinian.enums.JobStatus;
+import org.qinian.enums.JobTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 算法任务，由算法服务的调度器分发给已登记的算法实例
+ * </p>
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("algorithm_job")
+public class AlgorithmJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "Id", type = IdType.AUTO)
+    private Long Id;
+
+    private JobTypes jobType;
+
+    private Long fishRaftId;
+
+    private String payload;  // 发给算法实例的请求体 json
+
+    private JobStatus status;
+
+    private Integer attempts;  // 已尝试次数
+
+    private Long workerId;  // 执行成功的算法实例 id，删除任务按此路由
+
+    private String lastError;
+
+    private LocalDateTime nextRunTime;  // 最早可执行时间，重试时按退避推迟
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime updateTime;
+}
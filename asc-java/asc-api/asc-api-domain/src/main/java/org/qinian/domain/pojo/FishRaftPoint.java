@@ -1,8 +1,10 @@
 package org.qinian.domain.pojo;
 
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.Accessors;
@@ -42,8 +44,15 @@ public class FishRaftPoint implements Serializable {
 
     private String message;
 
+    // 旧版文本渔排掩码，新数据写入 maskData；两列都不参与列表查询，按 id 单独读取
+    @TableField(select = false)
     private String mask;
 
+    // 紧凑编码的渔排掩码，见 MaskCodec
+    @JsonIgnore
+    @TableField(select = false)
+    private byte[] maskData;
+
     private LocalDateTime createTime;
 
     private LocalDateTime updateTime;
@@ -0,0 +1,38 @@
+package org.qinian.domain.pojo;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 渔排点事件发件箱，与业务数据同事务写入，由后台任务投递到 MQ
+ * </p>
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("raft_event_outbox")
+public class RaftEventOutbox implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "Id", type = IdType.AUTO)
+    private Long Id;
+
+    private Long fishRaftId;
+
+    private String eventType;
+
+    private String payload;  // RaftEventDto 的 json
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime sentTime;  // 为空表示未投递
+}
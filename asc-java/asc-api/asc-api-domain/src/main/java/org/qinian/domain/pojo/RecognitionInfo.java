@@ -1,8 +1,10 @@
 package org.qinian.domain.pojo;
 
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.Accessors;
@@ -35,8 +37,15 @@ public class RecognitionInfo implements Serializable {
 
     private Long fishRaftId;
 
+    // 旧版文本分割结果掩码，新数据写入 segMaskData；两列都不参与列表查询，按 id 单独读取
+    @TableField(select = false)
     private String segPredictMask;
 
+    // 紧凑编码的分割结果掩码，见 MaskCodec
+    @JsonIgnore
+    @TableField(select = false)
+    private byte[] segMaskData;
+
     private Integer Number;
 
     private LocalDateTime createTime;
@@ -0,0 +1,57 @@
+package org.qinian.domain.pojo;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 天气数据汇总（小时 / 天 / 月），主键 (fish_raft_id, granularity, bucket_start)
+ * </p>
+ * 只存 sum / min / max / count，平均值在查询时计算，便于增量累加
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("weather_rollup")
+public class WeatherRollup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long fishRaftId;
+
+    private String granularity;  // hour / day / month
+
+    private LocalDateTime bucketStart;
+
+    private Integer tempCount;
+
+    private BigDecimal tempSum;
+
+    private BigDecimal tempMin;
+
+    private BigDecimal tempMax;
+
+    private Integer humidityCount;
+
+    private Long humiditySum;
+
+    private Integer humidityMin;
+
+    private Integer humidityMax;
+
+    private Integer windCount;
+
+    private Long windSum;
+
+    private Integer windMin;
+
+    private Integer windMax;
+
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,20 @@
+package org.qinian.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.qinian.domain.pojo.AlertInfo;
+
+import java.util.List;
+
+/**
+ * 批量创建告警的结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertBatchVo {
+    private List<AlertInfo> accepted;  // 实际写入的告警
+
+    private Integer suppressed;  // 处于抑制窗口内被合并的告警数
+}
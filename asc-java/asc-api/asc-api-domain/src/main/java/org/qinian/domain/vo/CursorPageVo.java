@@ -0,0 +1,23 @@
+package org.qinian.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标（keyset）分页结果，不做 count 查询
+ *
+ * @param <T> 记录类型
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageVo<T> {
+    private List<T> records;
+
+    private Long nextCursor;  // 下一页起始游标，没有更多数据时为 null
+
+    private Boolean hasMore;
+}
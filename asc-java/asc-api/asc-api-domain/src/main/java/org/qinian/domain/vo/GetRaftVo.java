@@ -17,6 +17,8 @@ public class GetRaftVo {
 
     private Long raftId;
 
+    private Long fishermenId;
+
     private Long locationId;
 
     private String name;
@@ -0,0 +1,17 @@
+package org.qinian.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 最近渔排点查询结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearestRaftVo {
+    private GetRaftVo raft;
+
+    private Double distance;  // 与查询点的球面距离，单位 km
+}
@@ -0,0 +1,19 @@
+package org.qinian.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 渔排检测数据批量导入结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaftMonitorIngestVo {
+    private Integer saved;  // 写入条数
+
+    private Integer rejected;  // 格式错误或缺少渔排点 id 而跳过的条数
+
+    private Integer alerts;  // 触发的告警数
+}
@@ -0,0 +1,23 @@
+package org.qinian.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 渔排点状态快照，全量或自某个版本以来的增量
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaftStateSnapshotVo {
+    private Long version;  // 下次增量拉取时作为 since 传回
+
+    private Boolean full;  // true 时客户端应丢弃本地状态，以 states 替换
+
+    private List<RaftStateVo> states;
+
+    private List<Long> removed;  // 增量期间删除的渔排点
+}
@@ -0,0 +1,43 @@
+package org.qinian.domain.vo;
+
+import lombok.Data;
+import org.qinian.enums.AlertLevels;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 渔排点最新状态，字段由各服务在写入时分别更新，尚未上报的部分为 null
+ */
+@Data
+public class RaftStateVo {
+    private Long fishRaftId;
+
+    private Double raftArea;  // 最新识别面积
+
+    private Integer raftNumber;  // 最新识别数量
+
+    private LocalDateTime monitorTime;  // 最新识别时间
+
+    private String weather;
+
+    private BigDecimal temperature;
+
+    private Integer humidity;
+
+    private String windDirection;
+
+    private String windPower;
+
+    private LocalDateTime weatherTime;  // 天气实况发布时间
+
+    private Long alertCount;  // 累计告警数
+
+    private AlertLevels lastAlertLevel;
+
+    private String lastAlertMessage;
+
+    private LocalDateTime lastAlertTime;
+
+    private Long version;  // 最后一次变更的版本号
+}
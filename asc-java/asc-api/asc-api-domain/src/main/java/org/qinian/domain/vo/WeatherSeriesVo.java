@@ -0,0 +1,38 @@
+package org.qinian.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 天气时间序列中的一个点，原始采样时 min / max / avg 相同
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeatherSeriesVo {
+    private LocalDateTime time;  // 桶起点，原始采样时为上报时间
+
+    private Integer count;  // 样本数
+
+    private BigDecimal temperatureAvg;
+
+    private BigDecimal temperatureMin;
+
+    private BigDecimal temperatureMax;
+
+    private BigDecimal humidityAvg;
+
+    private Integer humidityMin;
+
+    private Integer humidityMax;
+
+    private BigDecimal windPowerAvg;  // 风力等级
+
+    private Integer windPowerMin;
+
+    private Integer windPowerMax;
+}
@@ -0,0 +1,47 @@
+package org.qinian.config;
+
+import org.junit.jupiter.api.Test;
+import org.qinian.domain.dto.EmailDto;
+import org.qinian.domain.dto.alert.AlertEventDto;
+import org.qinian.domain.dto.fishRaft.RaftEventDto;
+import org.qinian.enums.AlertLevels;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 共享消息转换器的序列化往返：dto 子包中的消息必须能被消费端还原
+ */
+class RabbitMQConfigTest {
+    private final MessageConverter converter = new RabbitMQConfig().jsonToMapMessageConverter();
+
+    @Test
+    void raftEventRoundTrip() {
+        RaftEventDto event = new RaftEventDto(1L, RaftEventDto.CREATED, 2L, 3L, 4L,
+                120.5, 26.1, "raft", 12, new BigDecimal("3.50"), "message", "mask");
+        assertEquals(event, roundTrip(event));
+    }
+
+    @Test
+    void alertEventRoundTrip() {
+        AlertEventDto event = new AlertEventDto(1L, 2L, 3L, "type", AlertLevels.HEAT,
+                "alerted", LocalDateTime.of(2024, 5, 1, 8, 30, 0));
+        assertEquals(event, roundTrip(event));
+    }
+
+    @Test
+    void rootPackageRoundTrip() {
+        EmailDto email = new EmailDto("someone@example.com");
+        assertEquals(email, roundTrip(email));
+    }
+
+    private Object roundTrip(Object payload) {
+        Message message = converter.toMessage(payload, new MessageProperties());
+        return converter.fromMessage(message);
+    }
+}
@@ -6,9 +6,14 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+
 @FeignClient("alert-service")
 public interface RemoteAlertService {
 
     @PostMapping("/alert-info")
     Result createAlertInfo(@RequestBody AddAlertInfoDto addAlertInfoDto);
+
+    @PostMapping("/alert-info/batch")
+    Result createAlertInfos(@RequestBody List<AddAlertInfoDto> addAlertInfoDtos);
 }
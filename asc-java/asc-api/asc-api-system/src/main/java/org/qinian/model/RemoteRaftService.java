@@ -3,9 +3,27 @@ package org.qinian.model;
 import org.qinian.domain.Result;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient("fishRaft-service")
 public interface RemoteRaftService {
     @GetMapping("/fish-raft-point")
     Result getAllFishRafts();
+
+    /**
+     * 增量同步渔排点
+     *
+     * @param since  上一页最后一条的 updateTime（ISO 格式），首页传 null
+     * @param lastId 上一页最后一条的 raftId
+     * @param size   每页条数
+     */
+    @GetMapping("/fish-raft-point/changes")
+    Result getChangedFishRafts(@RequestParam(value = "since", required = false) String since,
+                               @RequestParam("lastId") Long lastId,
+                               @RequestParam("size") Integer size);
+
+    @GetMapping("/fish-raft-point/ids")
+    Result getFishRaftIdsByFishermen(@RequestParam("fishermenIds") List<Long> fishermenIds);
 }
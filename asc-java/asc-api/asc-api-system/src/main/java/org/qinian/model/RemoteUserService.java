@@ -0,0 +1,13 @@
+package org.qinian.model;
+
+import org.qinian.domain.Result;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@FeignClient("user-service")
+public interface RemoteUserService {
+
+    @GetMapping("/fishing-platoon/{id}/fishermen-ids")
+    Result getFishermenIds(@PathVariable("id") Long fishingPlatoonId);
+}
@@ -8,11 +8,25 @@ import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class RabbitMQConfig {
+    static final String[] TRUSTED_PACKAGES = {
+            "org.qinian.domain.dto",
+            "org.qinian.domain.dto.admin",
+            "org.qinian.domain.dto.alert",
+            "org.qinian.domain.dto.businessLicense",
+            "org.qinian.domain.dto.email",
+            "org.qinian.domain.dto.fishRaft",
+            "org.qinian.domain.dto.fishermen",
+            "org.qinian.domain.dto.fishingPlatoon",
+            "org.qinian.domain.dto.identityCard",
+            "org.qinian.domain.dto.raftMonitor",
+            "org.qinian.domain.dto.weather"
+    };
 
     @Bean
     public MessageConverter jsonToMapMessageConverter() {
         DefaultClassMapper defaultClassMapper = new DefaultClassMapper();
-        defaultClassMapper.setTrustedPackages("org.qinian.domain.dto"); // trusted packages
+        // trusted packages，DefaultClassMapper 按包名精确匹配，dto 子包需逐个列出
+        defaultClassMapper.setTrustedPackages(TRUSTED_PACKAGES);
         Jackson2JsonMessageConverter jackson2JsonMessageConverter = new Jackson2JsonMessageConverter();
         jackson2JsonMessageConverter.setClassMapper(defaultClassMapper);
         return jackson2JsonMessageConverter;
@@ -1,5 +1,6 @@
 package org.qinian.config;
 
+import org.qinian.properties.CredentialProperties;
 import org.qinian.properties.JwtProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,8 +14,8 @@ import java.security.KeyPair;
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(CredentialProperties properties) {
+        return new BCryptPasswordEncoder(properties.getBcryptStrength());
     }
 
     @Bean
@@ -50,7 +50,7 @@ public class WeatherInfo {
         private Integer humidity;
 
         @JsonProperty("reporttime")
-        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")  // 高德返回北京时间
         private Date reportTime;
     }
 }
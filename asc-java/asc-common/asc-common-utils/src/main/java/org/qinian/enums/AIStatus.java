@@ -1,4 +1,20 @@
 package org.qinian.enums;
 
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import lombok.Getter;
+
+@Getter
 public enum AIStatus {
+    OFFLINE(0, "离线"),
+    ONLINE(1, "在线"),
+    ;
+    @EnumValue
+    final
+    int value;
+    final String desc;
+
+    AIStatus(int value, String desc) {
+        this.value = value;
+        this.desc = desc;
+    }
 }
@@ -1,7 +1,9 @@
 package org.qinian.enums;
 
 import com.baomidou.mybatisplus.annotation.EnumValue;
+import lombok.Getter;
 
+@Getter
 public enum AlertTypes {
     AI_ALERT(1L, "算法警告"),
     WEATHER_ALERT(2L, "天气警告"),
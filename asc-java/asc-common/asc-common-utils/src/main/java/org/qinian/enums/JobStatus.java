@@ -0,0 +1,26 @@
+package org.qinian.enums;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import lombok.Getter;
+
+/**
+ * 算法任务状态
+ */
+@Getter
+public enum JobStatus {
+    PENDING(0, "等待执行"),
+    RUNNING(1, "执行中"),
+    SUCCEEDED(2, "执行成功"),
+    FAILED(3, "重试耗尽"),
+    CANCELLED(4, "已取消"),
+    ;
+    @EnumValue
+    final
+    int value;
+    final String desc;
+
+    JobStatus(int value, String desc) {
+        this.value = value;
+        this.desc = desc;
+    }
+}
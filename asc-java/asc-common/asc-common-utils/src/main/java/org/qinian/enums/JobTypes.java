@@ -0,0 +1,25 @@
+package org.qinian.enums;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import lombok.Getter;
+
+/**
+ * 算法任务类型，path 为相对算法服务渔排接口的路径
+ */
+@Getter
+public enum JobTypes {
+    RAFT_ADD("raft.add", "/add", "登记渔排点"),
+    RAFT_DELETE("raft.delete", "/delete", "删除渔排点"),
+    ;
+    @EnumValue
+    final
+    String value;
+    final String path;
+    final String desc;
+
+    JobTypes(String value, String path, String desc) {
+        this.value = value;
+        this.path = path;
+        this.desc = desc;
+    }
+}
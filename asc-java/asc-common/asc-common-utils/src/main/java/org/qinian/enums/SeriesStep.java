@@ -0,0 +1,64 @@
+package org.qinian.enums;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import lombok.Getter;
+import org.qinian.exception.BadRequestException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+public enum SeriesStep {
+    RAW("raw", "原始采样"),
+    HOUR("hour", "按小时汇总"),
+    DAY("day", "按天汇总"),
+    MONTH("month", "按月汇总"),
+    ;
+    @EnumValue
+    String value;
+    String desc;
+
+    SeriesStep(String value, String desc) {
+        this.value = value;
+        this.desc = desc;
+    }
+
+    public static SeriesStep of(String value) {
+        for (SeriesStep step : values()) {
+            if (step.value.equalsIgnoreCase(value)) {
+                return step;
+            }
+        }
+        throw new BadRequestException("不支持的时间粒度: " + value);
+    }
+
+    /**
+     * 按时间跨度自动选择粒度，使返回点数保持在数百个以内
+     */
+    public static SeriesStep auto(LocalDateTime from, LocalDateTime to) {
+        Duration span = Duration.between(from, to);
+        if (span.compareTo(Duration.ofDays(2)) <= 0) {
+            return RAW;
+        }
+        if (span.compareTo(Duration.ofDays(31)) <= 0) {
+            return HOUR;
+        }
+        if (span.compareTo(Duration.ofDays(731)) <= 0) {
+            return DAY;
+        }
+        return MONTH;
+    }
+
+    /**
+     * 时间所在桶的起点
+     */
+    public LocalDateTime truncate(LocalDateTime time) {
+        return switch (this) {
+            case RAW -> time;
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package org.qinian.enums;
+
+import lombok.Getter;
+
+/**
+ * 登录用户类型，写入 token 的 type 声明，网关经 user-type 请求头传给下游服务
+ */
+@Getter
+public enum UserTypes {
+    ADMIN("admin", "管理员"),
+    FISHERMEN("fishermen", "渔民"),
+    FISHING_PLATOON("fishing-platoon", "渔排队"),
+    ;
+    String value;
+    String desc;
+
+    UserTypes(String value, String desc) {
+        this.value = value;
+        this.desc = desc;
+    }
+
+    /**
+     * 按声明值查找，未知或为空时返回 null
+     */
+    public static UserTypes of(String value) {
+        for (UserTypes type : values()) {
+            if (type.value.equals(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
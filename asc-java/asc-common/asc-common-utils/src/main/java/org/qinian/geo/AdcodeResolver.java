@@ -0,0 +1,200 @@
+package org.qinian.geo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.properties.GeoProperties;
+import org.qinian.utils.LocationUtil;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * <p>
+ * 本地逆地理编码：经纬度 -> adcode
+ * </p>
+ * 从行政区划边界文件加载多边形，按网格建立索引后做点在多边形内判断；
+ * 本地未命中（或未配置边界文件）时按配置回退到百度接口
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdcodeResolver {
+    private static final double CELL_DEGREES = 0.5;  // 网格边长（度）
+
+    private final GeoProperties geoProperties;
+
+    private volatile Index index = Index.EMPTY;
+
+    @PostConstruct
+    public void load() {
+        Resource file = geoProperties.getDistrictFile();
+        if (file == null || !file.exists()) {
+            log.warn("未配置行政区划边界文件（asc.geo.district-file），adcode 将{}",
+                    geoProperties.isFallbackEnabled() ? "全部走百度接口" : "无法解析");
+            return;
+        }
+        try (InputStream in = file.getInputStream()) {
+            index = Index.build(new ObjectMapper().readTree(in));
+            log.info("行政区划边界加载完成，共 {} 个多边形", index.polygons.size());
+        } catch (IOException e) {
+            log.error("行政区划边界文件加载失败: {}", file, e);
+        }
+    }
+
+    /**
+     * 返回adcode
+     *
+     * @param lon 经度
+     * @param lat 纬度
+     * @return adcode，无法解析时为 null
+     */
+    public String resolve(Double lon, Double lat) {
+        String adcode = resolveLocal(lon, lat);
+        return adcode != null ? adcode : resolveRemote(lon, lat);
+    }
+
+    /**
+     * 仅查本地边界索引，不产生网络请求
+     */
+    public String resolveLocal(Double lon, Double lat) {
+        if (lon == null || lat == null) {
+            return null;
+        }
+        return index.lookup(lon, lat);
+    }
+
+    /**
+     * 百度逆地理编码兜底，未开启回退时返回 null
+     */
+    public String resolveRemote(Double lon, Double lat) {
+        if (lon == null || lat == null || !geoProperties.isFallbackEnabled()) {
+            return null;
+        }
+        return LocationUtil.getAdcodeByLocation(lon, lat);
+    }
+
+    // 多边形：外环 + 内环（洞），坐标按 x0,y0,x1,y1... 平铺
+    private record Polygon(String adcode, double[] outer, List<double[]> holes,
+                           double minX, double minY, double maxX, double maxY) {
+
+        static Polygon of(String adcode, JsonNode rings) {
+            double[] outer = toRing(rings.get(0));
+            List<double[]> holes = new ArrayList<>();
+            for (int i = 1; i < rings.size(); i++) {
+                holes.add(toRing(rings.get(i)));
+            }
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < outer.length; i += 2) {
+                minX = Math.min(minX, outer[i]);
+                maxX = Math.max(maxX, outer[i]);
+                minY = Math.min(minY, outer[i + 1]);
+                maxY = Math.max(maxY, outer[i + 1]);
+            }
+            return new Polygon(adcode, outer, holes, minX, minY, maxX, maxY);
+        }
+
+        boolean contains(double x, double y) {
+            if (x < minX || x > maxX || y < minY || y > maxY || !inRing(outer, x, y)) {
+                return false;
+            }
+            for (double[] hole : holes) {
+                if (inRing(hole, x, y)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double area() {
+            return (maxX - minX) * (maxY - minY);
+        }
+
+        // 射线法
+        private static boolean inRing(double[] ring, double x, double y) {
+            boolean inside = false;
+            for (int i = 0, j = ring.length - 2; i < ring.length; j = i, i += 2) {
+                double xi = ring[i], yi = ring[i + 1], xj = ring[j], yj = ring[j + 1];
+                if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        private static double[] toRing(JsonNode coordinates) {
+            double[] ring = new double[coordinates.size() * 2];
+            for (int i = 0; i < coordinates.size(); i++) {
+                ring[2 * i] = coordinates.get(i).get(0).asDouble();
+                ring[2 * i + 1] = coordinates.get(i).get(1).asDouble();
+            }
+            return ring;
+        }
+    }
+
+    // 加载后只读，整体替换
+    private record Index(List<Polygon> polygons, Map<Long, int[]> cells) {
+        static final Index EMPTY = new Index(List.of(), Map.of());
+
+        static Index build(JsonNode featureCollection) {
+            List<Polygon> polygons = new ArrayList<>();
+            for (JsonNode feature : featureCollection.path("features")) {
+                String adcode = feature.path("properties").path("adcode").asText(null);
+                JsonNode geometry = feature.path("geometry");
+                if (adcode == null || geometry.isMissingNode()) {
+                    continue;
+                }
+                switch (geometry.path("type").asText()) {
+                    case "Polygon" -> polygons.add(Polygon.of(adcode, geometry.get("coordinates")));
+                    case "MultiPolygon" -> geometry.get("coordinates")
+                            .forEach(rings -> polygons.add(Polygon.of(adcode, rings)));
+                    default -> {
+                    }
+                }
+            }
+
+            Map<Long, List<Integer>> grid = new HashMap<>();
+            for (int p = 0; p < polygons.size(); p++) {
+                Polygon polygon = polygons.get(p);
+                for (long y = cell(polygon.minY, 90); y <= cell(polygon.maxY, 90); y++) {
+                    for (long x = cell(polygon.minX, 180); x <= cell(polygon.maxX, 180); x++) {
+                        grid.computeIfAbsent(key(x, y), k -> new ArrayList<>()).add(p);
+                    }
+                }
+            }
+            Map<Long, int[]> cells = new HashMap<>(grid.size() * 2);
+            grid.forEach((k, ids) -> cells.put(k, ids.stream().mapToInt(Integer::intValue).toArray()));
+            return new Index(polygons, cells);
+        }
+
+        // 同一文件含省/市/区多级边界时，取外包矩形最小的（即最细一级）
+        String lookup(double x, double y) {
+            int[] candidates = cells.get(key(cell(x, 180), cell(y, 90)));
+            if (candidates == null) {
+                return null;
+            }
+            Polygon best = null;
+            for (int p : candidates) {
+                Polygon polygon = polygons.get(p);
+                if (polygon.contains(x, y) && (best == null || polygon.area() < best.area())) {
+                    best = polygon;
+                }
+            }
+            return best == null ? null : best.adcode;
+        }
+
+        private static long cell(double value, int offset) {
+            return (long) Math.floor((value + offset) / CELL_DEGREES);
+        }
+
+        private static long key(long x, long y) {
+            return (y << 32) | (x & 0xffffffffL);
+        }
+    }
+}
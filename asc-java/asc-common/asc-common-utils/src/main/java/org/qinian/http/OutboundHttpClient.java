@@ -0,0 +1,142 @@
+package org.qinian.http;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.qinian.properties.HttpClientProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * 共享的出站 HTTP 客户端
+ * </p>
+ * 基于 JDK HttpClient：连接池与 keep-alive 由客户端自行维护，支持 HTTP/2；
+ * 按目标 host 记录耗时指标 asc.http.client.requests。
+ * 静态工具类通过 {@link #get()} 获取，Spring 启动后使用配置（asc.http.*）创建的实例
+ */
+@Component
+public class OutboundHttpClient {
+    private static final String METRIC_NAME = "asc.http.client.requests";
+
+    private static volatile OutboundHttpClient instance;
+
+    private final HttpClient client;
+
+    private final Duration requestTimeout;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 按标签缓存已注册的 Timer，每次请求只做一次 map 查找，不再经 registry 查重
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private record TimerKey(String host, String method, String status) {
+    }
+
+    public OutboundHttpClient(HttpClientProperties properties) {
+        this.client = HttpClient.newBuilder()
+                .version(properties.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.requestTimeout = properties.getRequestTimeout();
+        instance = this;
+    }
+
+    /**
+     * 获取共享实例，非 Spring 环境（如工具类 main 方法）下使用默认配置
+     */
+    public static OutboundHttpClient get() {
+        OutboundHttpClient current = instance;
+        if (current == null) {
+            synchronized (OutboundHttpClient.class) {
+                current = instance;
+                if (current == null) {
+                    current = new OutboundHttpClient(new HttpClientProperties());
+                }
+            }
+        }
+        return current;
+    }
+
+    public ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * GET 请求
+     *
+     * @param url     完整 url（参数需已编码）
+     * @param headers 请求头，可为 null
+     */
+    public HttpResponse<String> get(String url, Map<String, String> headers) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).GET();
+        if (headers != null) {
+            headers.forEach(builder::header);
+        }
+        return execute(builder);
+    }
+
+    /**
+     * 以 JSON 格式 POST 请求体
+     */
+    public HttpResponse<String> postJson(String url, Object body) throws IOException {
+        String json = body instanceof String s ? s : toJson(body);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8));
+        return execute(builder);
+    }
+
+    /**
+     * GET 请求并将响应反序列化为指定类型
+     */
+    public <T> T getJson(String url, Class<T> type) throws IOException {
+        return objectMapper.readValue(get(url, null).body(), type);
+    }
+
+    public HttpResponse<String> execute(HttpRequest.Builder builder) throws IOException {
+        HttpRequest request = builder.timeout(requestTimeout).build();
+        String host = request.uri().getHost();
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        String status = "IO_ERROR";
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            status = String.valueOf(response.statusCode());
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = "CANCELLED";
+            throw new InterruptedIOException("请求被中断: " + host);
+        } finally {
+            sample.stop(timer(host == null ? "none" : host, request.method(), status));
+        }
+    }
+
+    private Timer timer(String host, String method, String status) {
+        return timers.computeIfAbsent(new TimerKey(host, method, status), key -> Timer.builder(METRIC_NAME)
+                .tag("host", key.host())
+                .tag("method", key.method())
+                .tag("status", key.status())
+                .register(Metrics.globalRegistry));
+    }
+
+    private String toJson(Object body) throws IOException {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IOException("请求体序列化失败", e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.qinian.interceptor;
 import cn.hutool.core.util.StrUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.qinian.enums.UserTypes;
 import org.qinian.utils.UserContext;
 import org.springframework.web.servlet.HandlerInterceptor;
 
@@ -16,6 +17,7 @@ public class UserInfoInterceptor implements HandlerInterceptor {
         if (StrUtil.isNotBlank(userInfo)) {
             // 不为空，保存到 ThreadLocal
             UserContext.setUser(Long.valueOf(userInfo));
+            UserContext.setUserType(UserTypes.of(request.getHeader("user-type")));
         }
 
         // 3.放⾏
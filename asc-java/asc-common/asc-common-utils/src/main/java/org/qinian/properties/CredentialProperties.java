@@ -0,0 +1,13 @@
+package org.qinian.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "asc.credential")
+public class CredentialProperties {
+    // BCrypt 强度（4~31），每加 1 计算量翻倍；调高后旧哈希在下次登录时自动升级
+    private int bcryptStrength = 10;
+}
@@ -0,0 +1,17 @@
+package org.qinian.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "asc.geo")
+public class GeoProperties {
+    // 行政区划边界 GeoJSON（FeatureCollection，properties 中含 adcode），如 classpath:geo/district.json
+    private Resource districtFile;
+
+    // 本地未命中时是否回退到百度逆地理编码接口
+    private boolean fallbackEnabled = true;
+}
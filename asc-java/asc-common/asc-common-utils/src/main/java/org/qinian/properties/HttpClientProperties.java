@@ -0,0 +1,21 @@
+package org.qinian.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "asc.http")
+public class HttpClientProperties {
+    // 建立连接超时
+    private Duration connectTimeout = Duration.ofSeconds(3);
+
+    // 单次请求超时（从发出请求到收到响应）
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    // 优先使用 HTTP/2，对端不支持时自动降级为 HTTP/1.1
+    private boolean http2 = true;
+}
@@ -0,0 +1,107 @@
+package org.qinian.revocation;
+
+import lombok.RequiredArgsConstructor;
+import org.qinian.enums.UserTypes;
+import org.qinian.properties.JwtProperties;
+import org.qinian.utils.JwtTool;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * token 吊销记录（Redis 为准）
+ * </p>
+ * 单个 token 按 jti 记入 zset，分值为 token 过期时间，过期后清理；
+ * 按用户吊销记录吊销时间，此前签发的 token 全部失效，保留一个 token 有效期后清理；
+ * 不同类型用户的 id 各自独立，按用户吊销以 {类型}:{id} 为成员。
+ * 每次吊销同时在频道上广播，网关据此即时更新本地副本
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationStore {
+    public static final String TOKEN_KEY = "token_revoked";
+    public static final String USER_KEY = "token_revoked_user";
+    public static final String CHANNEL = "token_revocation";
+    // 频道消息：token:{jti}:{过期时间} 或 user:{类型}:{用户 id}:{吊销时间}
+    public static final String TOKEN_PREFIX = "token:";
+    public static final String USER_PREFIX = "user:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final JwtTool jwtTool;
+
+    private final JwtProperties jwtProperties;
+
+    /**
+     * 吊销当前 token（登出），无效或没有 jti 的旧 token 忽略
+     */
+    public void revoke(String token) {
+        JwtTool.ParseResult result = jwtTool.verify(token);
+        if (result.isValid() && result.info().tokenId() != null) {
+            revokeToken(result.info().tokenId(), result.info().expiresAt());
+        }
+    }
+
+    /**
+     * 吊销单个 token
+     *
+     * @param expiresAt token 过期时间（毫秒时间戳），过期后记录自动清理
+     */
+    public void revokeToken(String tokenId, long expiresAt) {
+        long now = System.currentTimeMillis();
+        stringRedisTemplate.opsForZSet().add(TOKEN_KEY, tokenId, expiresAt);
+        stringRedisTemplate.opsForZSet().removeRangeByScore(TOKEN_KEY, Double.NEGATIVE_INFINITY, now);
+        stringRedisTemplate.convertAndSend(CHANNEL, TOKEN_PREFIX + tokenId + ":" + expiresAt);
+    }
+
+    /**
+     * 吊销用户此前签发的全部 token（冻结、修改密码）
+     */
+    public void revokeUser(UserTypes userType, Long userId) {
+        long now = System.currentTimeMillis();
+        String user = userKey(userType, userId);
+        stringRedisTemplate.opsForZSet().add(USER_KEY, user, now);
+        stringRedisTemplate.opsForZSet().removeRangeByScore(USER_KEY, Double.NEGATIVE_INFINITY,
+                now - jwtProperties.getTokenTTL().toMillis());
+        stringRedisTemplate.convertAndSend(CHANNEL, USER_PREFIX + user + ":" + now);
+    }
+
+    /**
+     * 按用户吊销的成员：{类型}:{用户 id}
+     */
+    public static String userKey(UserTypes userType, Long userId) {
+        return userType.getValue() + ":" + userId;
+    }
+
+    /**
+     * 未过期的已吊销 jti
+     */
+    public Set<String> revokedTokens() {
+        Set<String> ids = stringRedisTemplate.opsForZSet()
+                .rangeByScore(TOKEN_KEY, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        return ids == null ? Set.of() : ids;
+    }
+
+    /**
+     * {类型}:{用户 id} -> 吊销时间（毫秒时间戳）
+     */
+    public Map<String, Long> revokedUsers() {
+        Set<ZSetOperations.TypedTuple<String>> users = stringRedisTemplate.opsForZSet()
+                .rangeByScoreWithScores(USER_KEY, System.currentTimeMillis() - jwtProperties.getTokenTTL().toMillis(),
+                        Double.POSITIVE_INFINITY);
+        Map<String, Long> revoked = new HashMap<>();
+        if (users != null) {
+            for (ZSetOperations.TypedTuple<String> user : users) {
+                if (user.getValue() != null && user.getScore() != null) {
+                    revoked.put(user.getValue(), user.getScore().longValue());
+                }
+            }
+        }
+        return revoked;
+    }
+}
@@ -0,0 +1,236 @@
+package org.qinian.state;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * <p>
+ * 渔排点最新状态投影（看板用）
+ * </p>
+ * 每个渔排点一个 Redis hash，由识别、天气、告警服务在写入时各自更新自己的字段；
+ * 每次更新递增全局版本号，并在 zset 中记录渔排点最后变更的版本，读取方据此做 ETag 和增量拉取。
+ * 渔排点 id 不复用，删除后留下墓碑，迟到的更新不会让已删除的渔排点复活；
+ * 墓碑只保留最近 {@value #MAX_REMOVED} 个，早于最旧墓碑的增量拉取改为返回全量
+ */
+@Component
+@RequiredArgsConstructor
+public class RaftStateStore {
+    public static final String RAFT_AREA = "raftArea";
+    public static final String RAFT_NUMBER = "raftNumber";
+    public static final String MONITOR_TIME = "monitorTime";
+    public static final String WEATHER = "weather";
+    public static final String TEMPERATURE = "temperature";
+    public static final String HUMIDITY = "humidity";
+    public static final String WIND_DIRECTION = "windDirection";
+    public static final String WIND_POWER = "windPower";
+    public static final String WEATHER_TIME = "weatherTime";
+    public static final String ALERT_COUNT = "alertCount";
+    public static final String ALERT_LEVEL = "lastAlertLevel";
+    public static final String ALERT_MESSAGE = "lastAlertMessage";
+    public static final String ALERT_TIME = "lastAlertTime";
+    public static final String VERSION = "version";
+
+    private static final String STATE_KEY = "raft_state:";
+    private static final String VERSION_KEY = "raft_state_version";
+    private static final String CHANGES_KEY = "raft_state_changes";
+    private static final String REMOVED_KEY = "raft_state_removed";
+    private static final String REMOVED_FLOOR_KEY = "raft_state_removed_floor";  // 已裁剪墓碑的最大版本号
+    private static final int MAX_REMOVED = 10000;
+    // 与 JacksonConfig 的 LocalDateTime 格式一致，读取方可直接反序列化
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // ARGV: 前缀, 然后每个渔排点依次为 id, set 字段数, incr 字段数, set 键值对..., incr 键值对...
+    private static final RedisScript<Long> UPDATE_SCRIPT = new DefaultRedisScript<>("""
+            local i = 2
+            local version = 0
+            while i <= #ARGV do
+                local id = ARGV[i]
+                local nset = tonumber(ARGV[i + 1])
+                local nincr = tonumber(ARGV[i + 2])
+                i = i + 3
+                if redis.call('ZSCORE', KEYS[3], id) then
+                    i = i + 2 * (nset + nincr)
+                else
+                    local key = ARGV[1] .. id
+                    for _ = 1, nset do
+                        redis.call('HSET', key, ARGV[i], ARGV[i + 1])
+                        i = i + 2
+                    end
+                    for _ = 1, nincr do
+                        redis.call('HINCRBY', key, ARGV[i], ARGV[i + 1])
+                        i = i + 2
+                    end
+                    version = redis.call('INCR', KEYS[1])
+                    redis.call('HSET', key, 'version', version)
+                    redis.call('ZADD', KEYS[2], version, id)
+                end
+            end
+            return version
+            """, Long.class);
+
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>("""
+            local version = redis.call('INCR', KEYS[1])
+            redis.call('DEL', ARGV[1] .. ARGV[2])
+            redis.call('ZREM', KEYS[2], ARGV[2])
+            redis.call('ZADD', KEYS[3], version, ARGV[2])
+            local excess = redis.call('ZCARD', KEYS[3]) - tonumber(ARGV[3])
+            if excess > 0 then
+                local trimmed = redis.call('ZRANGE', KEYS[3], excess - 1, excess - 1, 'WITHSCORES')
+                redis.call('ZREMRANGEBYRANK', KEYS[3], 0, excess - 1)
+                redis.call('SET', KEYS[4], trimmed[2])
+            end
+            return version
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 一个渔排点的字段更新，null 值忽略
+     */
+    public static final class Update {
+        private final Long raftId;
+        private final Map<String, String> sets = new LinkedHashMap<>();
+        private final Map<String, Long> increments = new LinkedHashMap<>();
+
+        public Update(Long raftId) {
+            this.raftId = raftId;
+        }
+
+        public Update set(String field, Object value) {
+            if (value instanceof LocalDateTime time) {
+                sets.put(field, time.format(TIME_FORMAT));
+            } else if (value != null) {
+                sets.put(field, value.toString());
+            }
+            return this;
+        }
+
+        public Update increment(String field, long delta) {
+            increments.merge(field, delta, Long::sum);
+            return this;
+        }
+    }
+
+    /**
+     * 某个版本的状态快照
+     *
+     * @param version 读取时的全局版本号，作为 ETag 和下次增量拉取的起点
+     * @param full    是否为全量
+     * @param states  渔排点 id -> 字段
+     * @param removed 该版本之后删除的渔排点 id，全量时为空
+     */
+    public record Snapshot(long version, boolean full, Map<Long, Map<String, String>> states, List<Long> removed) {
+    }
+
+    public void apply(Update update) {
+        apply(List.of(update));
+    }
+
+    /**
+     * 批量更新，整批一次脚本调用
+     */
+    public void apply(Collection<Update> updates) {
+        List<String> args = new ArrayList<>();
+        args.add(STATE_KEY);
+        for (Update update : updates) {
+            if (update.raftId == null || (update.sets.isEmpty() && update.increments.isEmpty())) {
+                continue;
+            }
+            args.add(String.valueOf(update.raftId));
+            args.add(String.valueOf(update.sets.size()));
+            args.add(String.valueOf(update.increments.size()));
+            update.sets.forEach((field, value) -> {
+                args.add(field);
+                args.add(value);
+            });
+            update.increments.forEach((field, delta) -> {
+                args.add(field);
+                args.add(String.valueOf(delta));
+            });
+        }
+        if (args.size() == 1) {
+            return;
+        }
+        stringRedisTemplate.execute(UPDATE_SCRIPT, List.of(VERSION_KEY, CHANGES_KEY, REMOVED_KEY), args.toArray());
+    }
+
+    /**
+     * 渔排点删除，超出上限时裁剪最旧的墓碑
+     */
+    public void remove(Long raftId) {
+        stringRedisTemplate.execute(REMOVE_SCRIPT, List.of(VERSION_KEY, CHANGES_KEY, REMOVED_KEY, REMOVED_FLOOR_KEY),
+                STATE_KEY, String.valueOf(raftId), String.valueOf(MAX_REMOVED));
+    }
+
+    /**
+     * 当前全局版本号
+     */
+    public long version() {
+        String version = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+        return version == null ? 0 : Long.parseLong(version);
+    }
+
+    /**
+     * 读取快照
+     *
+     * @param since 上次拉取时的版本号，为 null 或已失效（含其后的墓碑已被裁剪）时返回全量
+     */
+    public Snapshot snapshot(Long since) {
+        // 先读版本号再读数据：之后的变更可能被一并读到，下次增量会再返回一次，不会遗漏
+        long version = version();
+        String floor = stringRedisTemplate.opsForValue().get(REMOVED_FLOOR_KEY);
+        boolean full = since == null || since <= 0 || since > version
+                || (floor != null && since < Long.parseLong(floor));
+        double min = full ? Double.NEGATIVE_INFINITY : since;
+
+        Set<ZSetOperations.TypedTuple<String>> changed = stringRedisTemplate.opsForZSet()
+                .rangeByScoreWithScores(CHANGES_KEY, min, Double.POSITIVE_INFINITY);
+        List<Long> removed = List.of();
+        if (!full) {
+            Set<String> ids = stringRedisTemplate.opsForZSet()
+                    .rangeByScore(REMOVED_KEY, min, Double.POSITIVE_INFINITY);
+            removed = ids == null ? List.of() : ids.stream().map(Long::valueOf).toList();
+        }
+        if (changed == null || changed.isEmpty()) {
+            return new Snapshot(version, full, Map.of(), removed);
+        }
+
+        // rangeByScore 为闭区间，剔除恰好等于 since 的那条
+        List<Long> raftIds = new ArrayList<>(changed.size());
+        for (ZSetOperations.TypedTuple<String> tuple : changed) {
+            if (full || tuple.getScore() == null || tuple.getScore() > since) {
+                raftIds.add(Long.valueOf(tuple.getValue()));
+            }
+        }
+        List<Object> hashes = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (Long raftId : raftIds) {
+                    operations.opsForHash().entries(STATE_KEY + raftId);
+                }
+                return null;
+            }
+        });
+
+        Map<Long, Map<String, String>> states = new LinkedHashMap<>(raftIds.size() * 2);
+        for (int i = 0; i < raftIds.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> fields = (Map<String, String>) hashes.get(i);
+            if (fields != null && !fields.isEmpty()) {
+                states.put(raftIds.get(i), fields);
+            }
+        }
+        return new Snapshot(version, full, states, removed);
+    }
+}
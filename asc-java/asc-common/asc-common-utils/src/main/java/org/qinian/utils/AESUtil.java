@@ -3,14 +3,40 @@ package org.qinian.utils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
 import java.security.Security;
 
 
 public class AESUtil {
     private static String appsecret = MD5.md5("mashuo@dzu@12");
 
+    // 算法库只注册一次，Cipher 直接持有 Provider 对象，不再每次按名称查找全局 Provider 列表
+    private static final Provider PROVIDER;
+
+    static {
+        Provider registered = Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+        if (registered == null) {
+            registered = new BouncyCastleProvider();
+            Security.addProvider(registered);
+        }
+        PROVIDER = registered;
+    }
+
+    private static final SecretKeySpec KEY = new SecretKeySpec(appsecret.getBytes(StandardCharsets.UTF_8), "AES");
+
+    // Cipher 非线程安全，每个线程复用一个实例，每次使用前重新 init
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/ECB/PKCS7Padding", PROVIDER);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     /****
      * AES加密/解密
      * @param buffer:密文/明文
@@ -18,19 +44,11 @@ public class AESUtil {
      * @return
      */
     public static byte[] encryptAndDecrypt(byte[] buffer, Integer mode) throws Exception {
-        //1:加载加密解密算法处理对象（包含算法、秘钥管理）
-        Security.addProvider(new BouncyCastleProvider());
-
-        //2:根据不同算法创建秘钥   1）秘钥的字节数组   2）加密算法
-        SecretKeySpec secretKeySpec = new SecretKeySpec(appsecret.getBytes(StandardCharsets.UTF_8), "AES");
-
-        //3:设置加密模式（无论是加密还是解析，模式一致）
-        // 1): AES/ECB/KPS7Padding 设置算法
-        // 2):指定算法库对象
-        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS7Padding", "BC");
-        //4:初始化加密配置
-        cipher.init(mode, secretKeySpec);
-        //5:执行加密/解密
+        // AES/ECB/PKCS7Padding，秘钥固定
+        Cipher cipher = CIPHER.get();
+        //初始化加密配置
+        cipher.init(mode, KEY);
+        //执行加密/解密
         return cipher.doFinal(buffer);
     }
 
@@ -0,0 +1,67 @@
+package org.qinian.utils;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * <p>
+ * 用户密码的哈希与校验
+ * </p>
+ * 新密码使用 BCrypt（强度见 asc.credential.bcrypt-strength）。
+ * 历史数据中的密码为 AES 加密后的 Base64，校验时兼容，登录成功后由调用方用 encode 的结果覆盖，逐步迁移
+ */
+@Component
+@RequiredArgsConstructor
+public class CredentialTool {
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * 校验结果
+     *
+     * @param matched 密码是否正确
+     * @param upgrade 密码正确且存储格式过时（AES 或 BCrypt 强度低于当前配置），应重新 encode 后保存
+     */
+    public record Verification(boolean matched, boolean upgrade) {
+    }
+
+    /**
+     * 生成待保存的密码哈希
+     */
+    public String encode(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
+    }
+
+    /**
+     * 校验密码
+     *
+     * @param rawPassword    用户输入的密码
+     * @param storedPassword 数据库中保存的密码
+     */
+    public Verification verify(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return new Verification(false, false);
+        }
+        if (isBCrypt(storedPassword)) {
+            boolean matched = passwordEncoder.matches(rawPassword, storedPassword);
+            return new Verification(matched, matched && passwordEncoder.upgradeEncoding(storedPassword));
+        }
+        // 历史 AES 密码，常量时间比较
+        boolean matched;
+        try {
+            String legacy = Base64Util.encode(AESUtil.encryptAndDecrypt(rawPassword.getBytes(StandardCharsets.UTF_8), 1));
+            matched = MessageDigest.isEqual(legacy.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException("密码校验失败", e);
+        }
+        return new Verification(matched, matched);
+    }
+
+    private static boolean isBCrypt(String storedPassword) {
+        return storedPassword.startsWith("$2a$") || storedPassword.startsWith("$2b$") || storedPassword.startsWith("$2y$");
+    }
+}
@@ -1,22 +1,39 @@
 package org.qinian.utils;
 
-import cn.hutool.core.exceptions.ValidateException;
+import cn.hutool.core.util.IdUtil;
 import cn.hutool.jwt.JWT;
-import cn.hutool.jwt.JWTValidator;
 import cn.hutool.jwt.signers.JWTSigner;
 import cn.hutool.jwt.signers.JWTSignerUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.qinian.enums.UserTypes;
 import org.qinian.exception.UnauthorizedException;
 import org.springframework.stereotype.Component;
 
 import java.security.KeyPair;
 import java.time.Duration;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * jwt不会保存到redis
  */
 @Component
 public class JwtTool {
+    private static final Map<Reason, Counter> REJECTED = new EnumMap<>(Reason.class);
+
+    static {
+        for (Reason reason : Reason.values()) {
+            REJECTED.put(reason, Metrics.counter("asc.auth.token.rejected", "reason", reason.name().toLowerCase()));
+        }
+    }
+
+    public static final String USER_TYPE = "type";
+
+    // 允许的时钟偏差（毫秒），签发方时钟略快时刚签发的 token 不会被判为未生效
+    static final long CLOCK_SKEW_MILLIS = 5_000;
+
     private final JWTSigner jwtSigner;
 
     public JwtTool(KeyPair keyPair) {
@@ -26,15 +43,62 @@ public class JwtTool {
     /**
      * 创建 access-token
      */
-    public String createToken(Long userId, Duration ttl) {
-        // 1.生成jws
+    public String createToken(Long userId, UserTypes userType, Duration ttl) {
+        // 1.生成jws，jti 供吊销单个 token，iat 供按用户吊销此前签发的全部 token，type 供下游做角色校验
+        long now = System.currentTimeMillis();
         return JWT.create()
                 .setPayload("user", userId)
-                .setExpiresAt(new Date(System.currentTimeMillis() + ttl.toMillis()))
+                .setPayload(USER_TYPE, userType.getValue())
+                .setJWTId(IdUtil.fastSimpleUUID())
+                .setIssuedAt(new Date(now))
+                .setExpiresAt(new Date(now + ttl.toMillis()))
                 .setSigner(jwtSigner)
                 .sign();
     }
 
+    /**
+     * 校验通过的 token 内容
+     *
+     * @param userId    用户 id
+     * @param userType  用户类型，旧 token 没有时为 null
+     * @param tokenId   jti，旧 token 没有时为 null
+     * @param issuedAt  签发时间（毫秒时间戳），未设置时为 0
+     * @param expiresAt 过期时间（毫秒时间戳），token 未设置过期时间时为 Long.MAX_VALUE
+     */
+    public record TokenInfo(Long userId, UserTypes userType, String tokenId, long issuedAt, long expiresAt) {
+    }
+
+    /**
+     * token 校验失败原因
+     */
+    public enum Reason {
+        MISSING("未登录"),
+        MALFORMED("无效的token"),
+        BAD_SIGNATURE("无效的token"),
+        EXPIRED("token已经过期"),
+        NOT_YET_VALID("token尚未生效"),
+        INVALID_PAYLOAD("无效的token");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * 不抛异常的校验结果，info 与 reason 有且只有一个不为 null
+     */
+    public record ParseResult(TokenInfo info, Reason reason) {
+        public boolean isValid() {
+            return info != null;
+        }
+    }
+
     /**
      * 解析token
      *
@@ -42,46 +106,98 @@ public class JwtTool {
      * @return 解析刷新token得到的用户信息
      */
     public Long parseToken(String token) {
+        return parseTokenInfo(token).userId();
+    }
+
+    /**
+     * 解析token，同时返回过期时间，供网关按 token 有效期缓存校验结果
+     *
+     * @param token token
+     * @return 用户信息与过期时间
+     */
+    public TokenInfo parseTokenInfo(String token) {
+        ParseResult result = verify(token);
+        if (!result.isValid()) {
+            throw new UnauthorizedException(result.reason().getMessage());
+        }
+        return result.info();
+    }
+
+    /**
+     * 校验并解析token，失败时返回原因而不抛异常，并按原因计数（asc.auth.token.rejected）
+     * <p>
+     * 网关等高频调用方应使用此方法：无效 token 不构造异常、不打印控制台，payload 只解析一次
+     *
+     * @param token token
+     * @return 校验结果
+     */
+    public ParseResult verify(String token) {
         // 1.校验token是否为空
         if (token == null) {
-            System.out.println("1未登录");
-            throw new UnauthorizedException("未登录");
+            return reject(Reason.MISSING);
+        }
+        // 2.格式校验：必须是 header.payload.signature 三段，不合格的不进入解析
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (first <= 0 || second <= first + 1 || second == token.length() - 1 || token.indexOf('.', second + 1) >= 0) {
+            return reject(Reason.MALFORMED);
         }
-        // 2.校验并解析jwt
         JWT jwt;
         try {
             jwt = JWT.of(token).setSigner(jwtSigner);
-        } catch (Exception e) {
-            System.out.println("2.1无效的token");
-            throw new UnauthorizedException("无效的token", e);
+        } catch (RuntimeException e) {
+            return reject(Reason.MALFORMED);
         }
-        // 2.校验jwt是否有效
+        // 3.校验签名
         if (!jwt.verify()) {
-            // 验证失败
-            System.out.println("2.2无效的token");
-            throw new UnauthorizedException("无效的token");
+            return reject(Reason.BAD_SIGNATURE);
         }
-        // 3.校验是否过期
-        try {
-            JWTValidator.of(jwt).validateDate();
-        } catch (ValidateException e) {
-            System.out.println("3.token已经过期");
-            throw new UnauthorizedException("token已经过期");
+        // 4.校验时间，与 JWTValidator.validateDate 一致：未到生效时间、签发时间晚于当前、已过期均不通过，nbf/iat 容忍时钟偏差
+        long now = System.currentTimeMillis();
+        Object nbf = jwt.getPayload(JWT.NOT_BEFORE), iat = jwt.getPayload(JWT.ISSUED_AT), exp = jwt.getPayload(JWT.EXPIRES_AT);
+        Long notBefore = parseLong(nbf), issuedAt = parseLong(iat), expiresAt = parseLong(exp);
+        if ((nbf != null && notBefore == null) || (iat != null && issuedAt == null) || (exp != null && expiresAt == null)) {
+            return reject(Reason.INVALID_PAYLOAD);
         }
-        // 4.数据格式校验
-        Object userPayload = jwt.getPayload("user");
-        if (userPayload == null) {
-            // 数据为空
-            System.out.println("4.无效的token");
-            throw new UnauthorizedException("无效的token");
+        if ((notBefore != null && notBefore * 1000 > now + CLOCK_SKEW_MILLIS)
+                || (issuedAt != null && issuedAt * 1000 > now + CLOCK_SKEW_MILLIS)) {
+            return reject(Reason.NOT_YET_VALID);
+        }
+        if (expiresAt != null && expiresAt * 1000 < now) {
+            return reject(Reason.EXPIRED);
         }
-
         // 5.数据解析
+        Long userId = parseLong(jwt.getPayload("user"));
+        if (userId == null) {
+            return reject(Reason.INVALID_PAYLOAD);
+        }
+        Object type = jwt.getPayload(USER_TYPE);
+        UserTypes userType = type == null ? null : UserTypes.of(type.toString());
+        if (type != null && userType == null) {
+            return reject(Reason.INVALID_PAYLOAD);
+        }
+        Object jti = jwt.getPayload(JWT.JWT_ID);
+        return new ParseResult(new TokenInfo(userId, userType, jti == null ? null : jti.toString(),
+                issuedAt == null ? 0 : issuedAt * 1000, expiresAt == null ? Long.MAX_VALUE : expiresAt * 1000), null);
+    }
+
+    private static ParseResult reject(Reason reason) {
+        REJECTED.get(reason).increment();
+        return new ParseResult(null, reason);
+    }
+
+    // 数值型声明，格式不对时返回 null
+    private static Long parseLong(Object value) {
+        if (value instanceof Number n) {
+            return n.longValue();
+        }
+        if (value == null) {
+            return null;
+        }
         try {
-            return Long.valueOf(userPayload.toString());
-        } catch (RuntimeException e) {
-            // 数据格式有误
-            throw new UnauthorizedException("无效的token");
+            return Long.valueOf(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
-}
\ No newline at end of file
+}
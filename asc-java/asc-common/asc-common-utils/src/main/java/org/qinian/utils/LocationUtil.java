@@ -2,12 +2,9 @@ package org.qinian.utils;
 
 import com.alibaba.fastjson.JSONObject;
 import feign.template.UriUtils;
+import org.qinian.http.OutboundHttpClient;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
-import java.net.URL;
-import java.net.URLConnection;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
@@ -25,10 +22,6 @@ public class LocationUtil {
      * @return adcode
      */
     public static String getAdcodeByLocation(Double lon, Double lat) {
-        // request
-        BufferedReader reader;
-        StringBuilder sbf = new StringBuilder();
-
         String location = UriUtils.encode(lat + "," + lon);
         // sn
 //        String httpUrl = "https://api.map.baidu.com/reverse_geocoding/v3?ak=" + AK + "&output=json&coordtype=wgs84ll&extensions_poi=0&location="+location + "&sn=" + caculateSn(location);
@@ -36,21 +29,10 @@ public class LocationUtil {
         String httpUrl = "https://api.map.baidu.com/reverse_geocoding/v3?ak=" + AK + "&output=json&coordtype=wgs84ll&extensions_poi=0&location=" + location;
         try {
             // 1.请求
-            URL url = new URL(httpUrl);
-            URLConnection httpConnection = url.openConnection();
-            httpConnection.connect();
-
-            InputStreamReader isr = new InputStreamReader(httpConnection.getInputStream());
-            reader = new BufferedReader(isr);
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sbf.append(line);
-            }
-            reader.close();
-            isr.close();
+            String body = OutboundHttpClient.get().get(httpUrl, null).body();
 
             // 2.解析数据
-            JSONObject object = JSONObject.parseObject(sbf.toString());
+            JSONObject object = JSONObject.parseObject(body);
             String status = object.get("status").toString();
             if (status.equals("0")) {
                 JSONObject resultResponse = (JSONObject) object.get("result");
@@ -0,0 +1,216 @@
+package org.qinian.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 分割掩码的紧凑二进制编码
+ * <p>
+ * 0/1 二维数组（如 [[0,1,1],[0,0,1]]）按行优先做游程编码：首字节 'R'，随后是 varint 的高、宽，
+ * 再依次是交替的 0 / 1 游程长度（从 0 开始，首段可为 0）。其它格式的掩码（多边形坐标、base64 图片等）
+ * 以首字节 'Z' + deflate 压缩保存。解码还原为等价的文本，接口对外表现不变
+ */
+public class MaskCodec {
+    private static final byte RLE = 'R';
+    private static final byte DEFLATE = 'Z';
+
+    /**
+     * 编码掩码
+     *
+     * @param mask 掩码文本，为 null 时返回 null
+     */
+    public static byte[] encode(String mask) {
+        if (mask == null) {
+            return null;
+        }
+        byte[] rle = encodeGrid(mask);
+        return rle != null ? rle : deflate(mask.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码为掩码文本
+     *
+     * @param data encode 的结果，为 null 时返回 null
+     */
+    public static String decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        return switch (data[0]) {
+            case RLE -> decodeGrid(data);
+            case DEFLATE -> new String(inflate(data), StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("未知的掩码编码: " + data[0]);
+        };
+    }
+
+    // 解析 0/1 二维数组并游程编码，不是规整的 0/1 矩阵时返回 null
+    private static byte[] encodeGrid(String mask) {
+        ByteArrayOutputStream runs = new ByteArrayOutputStream();
+        int pos = skipSpace(mask, 0);
+        if (pos >= mask.length() || mask.charAt(pos) != '[') {
+            return null;
+        }
+        pos = skipSpace(mask, pos + 1);
+
+        int height = 0, width = -1;
+        int current = 0, run = 0;
+        boolean closed = false;
+        while (pos < mask.length()) {
+            char c = mask.charAt(pos);
+            if (c == ']') {
+                closed = true;
+                pos++;
+                break;
+            }
+            if (c != '[') {
+                return null;
+            }
+            // 一行
+            pos = skipSpace(mask, pos + 1);
+            int cols = 0;
+            while (pos < mask.length() && mask.charAt(pos) != ']') {
+                int value = mask.charAt(pos) - '0';
+                if (value != 0 && value != 1) {
+                    return null;
+                }
+                if (value == current) {
+                    run++;
+                } else {
+                    writeVarint(runs, run);
+                    current = value;
+                    run = 1;
+                }
+                cols++;
+                pos = skipSpace(mask, pos + 1);
+                if (pos < mask.length() && mask.charAt(pos) == ',') {
+                    pos = skipSpace(mask, pos + 1);
+                } else if (pos < mask.length() && mask.charAt(pos) != ']') {
+                    return null;
+                }
+            }
+            if (pos >= mask.length() || (width >= 0 && cols != width)) {
+                return null;
+            }
+            width = cols;
+            height++;
+            pos = skipSpace(mask, pos + 1);
+            if (pos < mask.length() && mask.charAt(pos) == ',') {
+                pos = skipSpace(mask, pos + 1);
+            } else if (pos < mask.length() && mask.charAt(pos) != ']') {
+                return null;
+            }
+        }
+        if (!closed || skipSpace(mask, pos) != mask.length()) {
+            return null;
+        }
+        writeVarint(runs, run);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(runs.size() + 11);
+        out.write(RLE);
+        writeVarint(out, height);
+        writeVarint(out, Math.max(width, 0));
+        out.writeBytes(runs.toByteArray());
+        return out.toByteArray();
+    }
+
+    private static String decodeGrid(byte[] data) {
+        int[] pos = {1};
+        int height = readVarint(data, pos);
+        int width = readVarint(data, pos);
+
+        StringBuilder mask = new StringBuilder(height * (width * 2 + 2) + 2).append('[');
+        int value = 0;
+        int remaining = readVarint(data, pos);
+        for (int row = 0; row < height; row++) {
+            if (row > 0) {
+                mask.append(',');
+            }
+            mask.append('[');
+            for (int col = 0; col < width; col++) {
+                while (remaining == 0) {
+                    value ^= 1;
+                    remaining = readVarint(data, pos);
+                }
+                if (col > 0) {
+                    mask.append(',');
+                }
+                mask.append((char) ('0' + value));
+                remaining--;
+            }
+            mask.append(']');
+        }
+        return mask.append(']').toString();
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 16);
+            out.write(DEFLATE);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, 1, data.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                // 输出为空时最后一次调用即结束，此时也会报告 needsInput
+                if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("掩码数据不完整");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("掩码数据损坏", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int skipSpace(String s, int pos) {
+        while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] data, int[] pos) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (pos[0] >= data.length) {
+                throw new IllegalArgumentException("掩码数据不完整");
+            }
+            byte b = data[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("掩码数据损坏");
+    }
+}
@@ -1,18 +1,15 @@
 package org.qinian.utils;
 
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.qinian.entity.BusinessLicInfo;
+import org.qinian.http.OutboundHttpClient;
 
-import java.io.IOException;
 import java.net.URI;
+import java.net.http.HttpResponse;
 import java.util.Date;
+import java.util.Map;
 
 public class QCCUtil {
     private static final String key = "570131fb14a543ab96ca08f61891e169";
@@ -30,39 +27,20 @@ public class QCCUtil {
         int timestamp = DateUtil.getSecondTimestamp(new Date());
         String token = MD5.md5(key + timestamp + secret);
 
-        // 创建Httpclient对象
-        CloseableHttpClient httpclient = HttpClients.createDefault();
-
         String resultString = "";
-        CloseableHttpResponse response = null;
         try {
             // 创建uri
-            URIBuilder builder = new URIBuilder(url);
-
-
-            URI uri = builder.build();
-            // 创建http GET请求
-            HttpGet httpGet = new HttpGet(uri);
-            //添加header 头
-            httpGet.setHeader("Token", token);
-            httpGet.setHeader("Timespan", String.valueOf(timestamp));
-            // 执行请求
-            response = httpclient.execute(httpGet);
+            URI uri = new URIBuilder(url).build();
+            // 执行请求，添加header 头
+            HttpResponse<String> response = OutboundHttpClient.get().get(uri.toASCIIString(), Map.of(
+                    "Token", token,
+                    "Timespan", String.valueOf(timestamp)));
             // 判断返回状态是否为200
-            if (response.getStatusLine().getStatusCode() == 200) {
-                resultString = EntityUtils.toString(response.getEntity(), "UTF-8");
+            if (response.statusCode() == 200) {
+                resultString = response.body();
             }
         } catch (Exception e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (response != null) {
-                    response.close();
-                }
-                httpclient.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
         return resultString;
     }
@@ -1,8 +1,13 @@
 package org.qinian.utils;
 
+import org.qinian.enums.UserTypes;
+import org.qinian.exception.ForbiddenException;
+
 public class UserContext {
     private static final ThreadLocal<Long> tl = new ThreadLocal<>();
 
+    private static final ThreadLocal<UserTypes> typeTl = new ThreadLocal<>();
+
     /**
      * 获取当前登录用户信息
      *
@@ -21,10 +26,34 @@ public class UserContext {
         tl.set(userId);
     }
 
+    /**
+     * 获取当前登录用户类型，旧 token 没有类型时为 null
+     */
+    public static UserTypes getUserType() {
+        return typeTl.get();
+    }
+
+    /**
+     * 保存当前登录用户类型到ThreadLocal
+     */
+    public static void setUserType(UserTypes userType) {
+        typeTl.set(userType);
+    }
+
+    /**
+     * 校验当前用户为管理员，否则抛出 403
+     */
+    public static void checkAdmin() {
+        if (typeTl.get() != UserTypes.ADMIN) {
+            throw new ForbiddenException("需要管理员权限");
+        }
+    }
+
     /**
      * 移除当前登录用户信息
      */
     public static void removeUser() {
         tl.remove();
+        typeTl.remove();
     }
 }
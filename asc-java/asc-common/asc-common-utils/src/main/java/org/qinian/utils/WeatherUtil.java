@@ -1,12 +1,7 @@
 package org.qinian.utils;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
 import org.qinian.entity.WeatherInfo;
+import org.qinian.http.OutboundHttpClient;
 
 /**
  * 基于高德地图的api
@@ -17,20 +12,29 @@ public class WeatherUtil {
     private static final String KEY = "c306b59b0342eb1190612f0584aa1f56";
 
     public static WeatherInfo getWeatherInfo(String adcode) throws Exception {
-        // 创建HttpClient实例
-        CloseableHttpClient httpClient = HttpClients.createDefault();
-        // 创建HttpGet对象
-        HttpGet request = new HttpGet(WEATHER_API_URL + "?city=" + adcode + "&key=" + KEY);
-        // 发送请求并获取响应
-        HttpResponse response = httpClient.execute(request);
-        // 读取响应内容
-        String result = EntityUtils.toString(response.getEntity());
-//        System.out.println(result);
-        // 关闭HttpClient连接
-        httpClient.close();
+        // 共享连接池发送请求并解析
+        return OutboundHttpClient.get().getJson(WEATHER_API_URL + "?city=" + adcode + "&key=" + KEY, WeatherInfo.class);
+    }
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(result, WeatherInfo.class);
+    /**
+     * 解析高德风力描述中的等级，取第一个数字，如 "≤3" -> 3，"4-5" -> 4
+     *
+     * @return 风力等级，无法解析时为 -1
+     */
+    public static int windLevel(String windPower) {
+        if (windPower == null) {
+            return -1;
+        }
+        int level = -1;
+        for (int i = 0; i < windPower.length(); i++) {
+            char c = windPower.charAt(i);
+            if (c >= '0' && c <= '9') {
+                level = (level < 0 ? 0 : level * 10) + (c - '0');
+            } else if (level >= 0) {
+                break;
+            }
+        }
+        return level;
     }
 
     public static void main(String[] args) throws Exception {
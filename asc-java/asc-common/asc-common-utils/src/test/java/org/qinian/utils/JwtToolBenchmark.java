@@ -0,0 +1,131 @@
+package org.qinian.utils;
+
+import cn.hutool.core.exceptions.ValidateException;
+import cn.hutool.jwt.JWT;
+import cn.hutool.jwt.JWTValidator;
+import cn.hutool.jwt.signers.JWTSigner;
+import cn.hutool.jwt.signers.JWTSignerUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.qinian.enums.UserTypes;
+import org.qinian.exception.UnauthorizedException;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTool.verify 与改造前解析路径（异常 + JWTValidator）的对比基准
+ * <p>
+ * 运行：在 IDE 中执行 main，或 mvn test-compile 后以 org.openjdk.jmh.Main 启动
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtToolBenchmark {
+    private JwtTool jwtTool;
+
+    private JWTSigner jwtSigner;
+
+    private String validToken;
+
+    private String expiredToken;
+
+    private String badSignatureToken;
+
+    private String malformedToken;
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        jwtTool = new JwtTool(keyPair);
+        jwtSigner = JWTSignerUtil.createSigner("rs256", keyPair);
+
+        validToken = jwtTool.createToken(1L, UserTypes.FISHERMEN, Duration.ofHours(1));
+        expiredToken = jwtTool.createToken(1L, UserTypes.FISHERMEN, Duration.ofHours(-1));
+        // 另一把密钥签发，签名校验不通过
+        badSignatureToken = new JwtTool(generator.generateKeyPair())
+                .createToken(1L, UserTypes.FISHERMEN, Duration.ofHours(1));
+        malformedToken = "not-a-jwt";
+    }
+
+    @Benchmark
+    public Object verifyValid() {
+        return jwtTool.verify(validToken);
+    }
+
+    @Benchmark
+    public Object legacyValid() {
+        return legacyParse(validToken);
+    }
+
+    @Benchmark
+    public Object verifyExpired() {
+        return jwtTool.verify(expiredToken);
+    }
+
+    @Benchmark
+    public Object legacyExpired() {
+        return legacyParse(expiredToken);
+    }
+
+    @Benchmark
+    public Object verifyBadSignature() {
+        return jwtTool.verify(badSignatureToken);
+    }
+
+    @Benchmark
+    public Object legacyBadSignature() {
+        return legacyParse(badSignatureToken);
+    }
+
+    @Benchmark
+    public Object verifyMalformed() {
+        return jwtTool.verify(malformedToken);
+    }
+
+    @Benchmark
+    public Object legacyMalformed() {
+        return legacyParse(malformedToken);
+    }
+
+    // 改造前的 parseTokenInfo：失败即抛异常，时间校验另建 JWTValidator（控制台打印已去掉，避免干扰计时）
+    private Object legacyParse(String token) {
+        try {
+            JWT jwt;
+            try {
+                jwt = JWT.of(token).setSigner(jwtSigner);
+            } catch (Exception e) {
+                throw new UnauthorizedException("无效的token", e);
+            }
+            if (!jwt.verify()) {
+                throw new UnauthorizedException("无效的token");
+            }
+            try {
+                JWTValidator.of(jwt).validateDate();
+            } catch (ValidateException e) {
+                throw new UnauthorizedException("token已经过期");
+            }
+            Object userPayload = jwt.getPayload("user");
+            if (userPayload == null) {
+                throw new UnauthorizedException("无效的token");
+            }
+            return Long.valueOf(userPayload.toString());
+        } catch (UnauthorizedException e) {
+            return e;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtToolBenchmark.class.getSimpleName()).build()).run();
+    }
+}
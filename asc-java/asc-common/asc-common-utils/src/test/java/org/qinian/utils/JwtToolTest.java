@@ -0,0 +1,163 @@
+package org.qinian.utils;
+
+import cn.hutool.jwt.JWT;
+import cn.hutool.jwt.signers.JWTSigner;
+import cn.hutool.jwt.signers.JWTSignerUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qinian.enums.UserTypes;
+import org.qinian.exception.UnauthorizedException;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * token 校验的各失败原因与时钟偏差容忍
+ */
+class JwtToolTest {
+    private static KeyPairGenerator generator;
+
+    private static KeyPair keyPair;
+
+    private JwtTool jwtTool;
+
+    private JWTSigner signer;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        if (keyPair == null) {
+            generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            keyPair = generator.generateKeyPair();
+        }
+        jwtTool = new JwtTool(keyPair);
+        signer = JWTSignerUtil.createSigner("rs256", keyPair);
+    }
+
+    @Test
+    void validTokenIsParsed() {
+        long before = System.currentTimeMillis() / 1000 * 1000;
+        JwtTool.ParseResult result = jwtTool.verify(jwtTool.createToken(7L, UserTypes.ADMIN, Duration.ofHours(1)));
+
+        assertTrue(result.isValid());
+        assertNull(result.reason());
+        assertEquals(7L, result.info().userId());
+        assertEquals(UserTypes.ADMIN, result.info().userType());
+        assertNotNull(result.info().tokenId());
+        assertTrue(result.info().issuedAt() >= before);
+        assertTrue(result.info().expiresAt() > System.currentTimeMillis());
+    }
+
+    @Test
+    void missingToken() {
+        assertEquals(JwtTool.Reason.MISSING, jwtTool.verify(null).reason());
+    }
+
+    @Test
+    void malformedTokens() {
+        for (String token : new String[]{"", "not-a-jwt", "a.b", ".b.c", "a..c", "a.b.", "a.b.c.d", "%%%.%%%.%%%"}) {
+            JwtTool.ParseResult result = jwtTool.verify(token);
+            assertFalse(result.isValid(), token);
+            assertEquals(JwtTool.Reason.MALFORMED, result.reason(), token);
+        }
+    }
+
+    @Test
+    void tokenSignedByAnotherKeyHasBadSignature() {
+        String token = new JwtTool(generator.generateKeyPair()).createToken(1L, UserTypes.FISHERMEN, Duration.ofHours(1));
+
+        assertEquals(JwtTool.Reason.BAD_SIGNATURE, jwtTool.verify(token).reason());
+    }
+
+    @Test
+    void tamperedPayloadHasBadSignature() {
+        String token = jwtTool.createToken(1L, UserTypes.FISHERMEN, Duration.ofHours(1));
+        String[] parts = token.split("\\.");
+        String forged = JWT.create().setPayload("user", 2L).setPayload(JwtTool.USER_TYPE, "admin")
+                .setSigner(signer).sign().split("\\.")[1];
+
+        assertEquals(JwtTool.Reason.BAD_SIGNATURE, jwtTool.verify(parts[0] + "." + forged + "." + parts[2]).reason());
+    }
+
+    @Test
+    void expiredToken() {
+        assertEquals(JwtTool.Reason.EXPIRED,
+                jwtTool.verify(jwtTool.createToken(1L, UserTypes.FISHERMEN, Duration.ofSeconds(-2))).reason());
+    }
+
+    @Test
+    void invalidPayloads() {
+        assertEquals(JwtTool.Reason.INVALID_PAYLOAD, jwtTool.verify(sign(JWT.create())).reason());
+        assertEquals(JwtTool.Reason.INVALID_PAYLOAD, jwtTool.verify(sign(JWT.create().setPayload("user", "abc"))).reason());
+        assertEquals(JwtTool.Reason.INVALID_PAYLOAD, jwtTool.verify(sign(JWT.create()
+                .setPayload("user", 1L).setPayload(JwtTool.USER_TYPE, "unknown"))).reason());
+        assertEquals(JwtTool.Reason.INVALID_PAYLOAD, jwtTool.verify(sign(JWT.create()
+                .setPayload("user", 1L).setPayload(JWT.EXPIRES_AT, "tomorrow"))).reason());
+    }
+
+    @Test
+    void legacyTokenWithoutTypeAndJtiIsValid() {
+        JwtTool.ParseResult result = jwtTool.verify(sign(JWT.create().setPayload("user", 3L)));
+
+        assertTrue(result.isValid());
+        assertNull(result.info().userType());
+        assertNull(result.info().tokenId());
+        assertEquals(0L, result.info().issuedAt());
+        assertEquals(Long.MAX_VALUE, result.info().expiresAt());
+    }
+
+    @Test
+    void futureIssuedAtWithinSkewIsAccepted() {
+        long now = System.currentTimeMillis();
+        String token = sign(JWT.create().setPayload("user", 1L)
+                .setIssuedAt(new Date(now + JwtTool.CLOCK_SKEW_MILLIS - 2_000))
+                .setNotBefore(new Date(now + JwtTool.CLOCK_SKEW_MILLIS - 2_000)));
+
+        assertTrue(jwtTool.verify(token).isValid());
+    }
+
+    @Test
+    void futureIssuedAtBeyondSkewIsNotYetValid() {
+        long now = System.currentTimeMillis();
+        String token = sign(JWT.create().setPayload("user", 1L)
+                .setIssuedAt(new Date(now + JwtTool.CLOCK_SKEW_MILLIS + 5_000)));
+
+        JwtTool.ParseResult result = jwtTool.verify(token);
+        assertEquals(JwtTool.Reason.NOT_YET_VALID, result.reason());
+        assertEquals("token尚未生效", result.reason().getMessage());
+    }
+
+    @Test
+    void futureNotBeforeBeyondSkewIsNotYetValid() {
+        long now = System.currentTimeMillis();
+        String token = sign(JWT.create().setPayload("user", 1L)
+                .setNotBefore(new Date(now + JwtTool.CLOCK_SKEW_MILLIS + 5_000))
+                .setExpiresAt(new Date(now + 60_000)));
+
+        assertEquals(JwtTool.Reason.NOT_YET_VALID, jwtTool.verify(token).reason());
+    }
+
+    @Test
+    void expiryHasNoSkewTolerance() {
+        long now = System.currentTimeMillis();
+        String token = sign(JWT.create().setPayload("user", 1L).setExpiresAt(new Date(now - 1_000)));
+
+        assertEquals(JwtTool.Reason.EXPIRED, jwtTool.verify(token).reason());
+    }
+
+    @Test
+    void parseTokenInfoThrowsWithReasonMessage() {
+        UnauthorizedException e = assertThrows(UnauthorizedException.class,
+                () -> jwtTool.parseTokenInfo(jwtTool.createToken(1L, UserTypes.FISHERMEN, Duration.ofSeconds(-2))));
+        assertEquals("token已经过期", e.getMessage());
+    }
+
+    private String sign(JWT jwt) {
+        return jwt.setSigner(signer).sign();
+    }
+}
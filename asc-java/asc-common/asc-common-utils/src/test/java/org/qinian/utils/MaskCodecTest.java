@@ -0,0 +1,100 @@
+package org.qinian.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 掩码编码的往返与回退
+ */
+class MaskCodecTest {
+
+    @Test
+    void nullStaysNull() {
+        assertNull(MaskCodec.encode(null));
+        assertNull(MaskCodec.decode(null));
+        assertNull(MaskCodec.decode(new byte[0]));
+    }
+
+    @Test
+    void gridRoundTrips() {
+        String mask = "[[0,1,1],[0,0,1],[1,1,1]]";
+
+        byte[] data = MaskCodec.encode(mask);
+        assertEquals('R', data[0]);
+        assertEquals(mask, MaskCodec.decode(data));
+    }
+
+    @Test
+    void gridStartingWithOnesRoundTrips() {
+        // 首段 0 游程长度为 0
+        String mask = "[[1,1,0],[0,1,1]]";
+
+        byte[] data = MaskCodec.encode(mask);
+        assertEquals('R', data[0]);
+        assertEquals(mask, MaskCodec.decode(data));
+    }
+
+    @Test
+    void uniformGridsRoundTrip() {
+        assertEquals("[[0,0],[0,0]]", MaskCodec.decode(MaskCodec.encode("[[0,0],[0,0]]")));
+        assertEquals("[[1,1],[1,1]]", MaskCodec.decode(MaskCodec.encode("[[1,1],[1,1]]")));
+    }
+
+    @Test
+    void emptyGridsRoundTrip() {
+        assertEquals('R', MaskCodec.encode("[]")[0]);
+        assertEquals("[]", MaskCodec.decode(MaskCodec.encode("[]")));
+        assertEquals("[[]]", MaskCodec.decode(MaskCodec.encode("[[]]")));
+    }
+
+    @Test
+    void longRunsUseMultiByteVarints() {
+        StringBuilder mask = new StringBuilder("[[");
+        for (int i = 0; i < 300; i++) {
+            mask.append(i > 0 ? "," : "").append(i < 200 ? '1' : '0');
+        }
+        String text = mask.append("]]").toString();
+
+        byte[] data = MaskCodec.encode(text);
+        assertTrue(data.length < 16);
+        assertEquals(text, MaskCodec.decode(data));
+    }
+
+    @Test
+    void whitespaceIsNormalized() {
+        byte[] data = MaskCodec.encode(" [ [0, 1] ,\n  [1 ,0] ] ");
+
+        assertEquals('R', data[0]);
+        assertEquals("[[0,1],[1,0]]", MaskCodec.decode(data));
+    }
+
+    @Test
+    void otherValuesFallBackToDeflate() {
+        String mask = "[[0,2,1],[1,0,0]]";
+
+        byte[] data = MaskCodec.encode(mask);
+        assertEquals('Z', data[0]);
+        assertEquals(mask, MaskCodec.decode(data));
+    }
+
+    @Test
+    void irregularOrNonGridTextFallsBackToDeflate() {
+        for (String mask : new String[]{"[[0,1],[1]]", "[[0,1],[1,0]", "[[0,1]]x", "[[10,1]]", "", "data:image/png;base64,iVBORw0KGgo="}) {
+            byte[] data = MaskCodec.encode(mask);
+            assertEquals('Z', data[0], mask);
+            assertEquals(mask, MaskCodec.decode(data), mask);
+        }
+    }
+
+    @Test
+    void corruptDataIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> MaskCodec.decode(new byte[]{'X', 1}));
+        assertThrows(IllegalArgumentException.class, () -> MaskCodec.decode(new byte[]{'R', 2, 2}));
+        byte[] deflated = MaskCodec.encode("[[0,2]]");
+        assertThrows(IllegalArgumentException.class,
+                () -> MaskCodec.decode(Arrays.copyOf(deflated, deflated.length - 2)));
+    }
+}
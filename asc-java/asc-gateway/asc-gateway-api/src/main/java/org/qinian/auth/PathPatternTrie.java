@@ -0,0 +1,126 @@
+package org.qinian.auth;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 预编译的路径匹配树
+ * </p>
+ * 启动时把一组 Ant 风格路径按 "/" 拆段建成前缀树，匹配时按请求路径逐段下行，
+ * 开销只与路径段数有关、与规则条数无关。支持整段的字面量、"*"（一段）和 "**"（任意段）；
+ * 段内带通配符或 {变量} 的规则交给 AntPathMatcher 逐条匹配，语义与原先逐条 match 一致
+ */
+public class PathPatternTrie {
+    private final Node root = new Node();
+
+    private final Node relativeRoot = new Node();  // 不以 "/" 开头的规则，与 AntPathMatcher 一样只匹配不以 "/" 开头的路径
+
+    private final List<String> fallback = new ArrayList<>();
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    private final Timer matchedTimer;
+
+    private final Timer unmatchedTimer;
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node star;
+        private Node doubleStar;
+        private boolean terminal;
+    }
+
+    /**
+     * @param name     指标标签，区分不同用途的规则组
+     * @param patterns Ant 风格路径
+     */
+    public PathPatternTrie(String name, Collection<String> patterns) {
+        for (String pattern : patterns) {
+            if (!add(pattern)) {
+                fallback.add(pattern);
+            }
+        }
+        this.matchedTimer = Metrics.timer("asc.gateway.path.match", "name", name, "result", "matched");
+        this.unmatchedTimer = Metrics.timer("asc.gateway.path.match", "name", name, "result", "unmatched");
+    }
+
+    public boolean matches(String path) {
+        long start = System.nanoTime();
+        boolean matched = match(rootOf(path), split(path), 0) || matchFallback(path);
+        (matched ? matchedTimer : unmatchedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matched;
+    }
+
+    // 段内含通配符的规则无法放进树中，返回 false
+    private boolean add(String pattern) {
+        Node node = rootOf(pattern);
+        for (String segment : split(pattern)) {
+            if ("**".equals(segment)) {
+                node = node.doubleStar == null ? (node.doubleStar = new Node()) : node.doubleStar;
+            } else if ("*".equals(segment)) {
+                node = node.star == null ? (node.star = new Node()) : node.star;
+            } else if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0) {
+                return false;
+            } else {
+                node = node.literals.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        node.terminal = true;
+        return true;
+    }
+
+    private Node rootOf(String path) {
+        return path.startsWith("/") ? root : relativeRoot;
+    }
+
+    private static boolean match(Node node, String[] segments, int index) {
+        if (node.doubleStar != null) {
+            // "**" 可匹配 0 到剩余全部段
+            for (int i = index; i <= segments.length; i++) {
+                if (match(node.doubleStar, segments, i)) {
+                    return true;
+                }
+            }
+        }
+        if (index == segments.length) {
+            return node.terminal;
+        }
+        Node literal = node.literals.get(segments[index]);
+        if (literal != null && match(literal, segments, index + 1)) {
+            return true;
+        }
+        return node.star != null && match(node.star, segments, index + 1);
+    }
+
+    private boolean matchFallback(String path) {
+        for (String pattern : fallback) {
+            if (antPathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 与 AntPathMatcher 一致：忽略空段，结尾的 "/" 记为一个空段，只能被 "*"、"**" 或结尾同样带 "/" 的规则匹配
+    private static String[] split(String path) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        if (path.length() > 1 && path.endsWith("/")) {
+            segments.add("");
+        }
+        return segments.toArray(new String[0]);
+    }
+}
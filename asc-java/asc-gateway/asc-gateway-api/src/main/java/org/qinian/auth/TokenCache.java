@@ -0,0 +1,79 @@
+package org.qinian.auth;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.qinian.properties.AuthProperties;
+import org.qinian.utils.JwtTool;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 已校验 token 缓存
+ * </p>
+ * 以 token 的 SHA-256 为键缓存 RS256 校验结果，命中且未到 token 的 exp 时直接返回用户信息，不再做 RSA 验签；
+ * 缓存总量和最长保留时间有上限，到期的缓存项在读取时剔除并重新校验。校验失败的 token 不缓存
+ */
+@Component
+public class TokenCache {
+    private final JwtTool jwtTool;
+
+    private final Cache<HashCode, JwtTool.TokenInfo> cache;
+
+    private final Counter hits = Metrics.counter("asc.gateway.token.cache", "result", "hit");
+
+    private final Counter misses = Metrics.counter("asc.gateway.token.cache", "result", "miss");
+
+    private final Timer verifyTimer = Metrics.timer("asc.gateway.token.verify");
+
+    public TokenCache(JwtTool jwtTool, AuthProperties properties) {
+        this.jwtTool = jwtTool;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getTokenCacheSize())
+                .expireAfterWrite(properties.getTokenCacheTtl())
+                .build();
+    }
+
+    /**
+     * 校验 token，失败时返回原因而不抛异常
+     */
+    public JwtTool.ParseResult verify(String token) {
+        if (token == null) {
+            return jwtTool.verify(null);
+        }
+        HashCode key = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        JwtTool.TokenInfo info = cache.getIfPresent(key);
+        if (info != null) {
+            if (info.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return new JwtTool.ParseResult(info, null);
+            }
+            cache.invalidate(key);
+        }
+        misses.increment();
+
+        long start = System.nanoTime();
+        JwtTool.ParseResult result = jwtTool.verify(token);
+        verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (result.isValid()) {
+            cache.put(key, result.info());
+        }
+        return result;
+    }
+
+    /**
+     * 移除缓存的校验结果
+     */
+    public void invalidate(String token) {
+        if (token != null) {
+            cache.invalidate(Hashing.sha256().hashString(token, StandardCharsets.UTF_8));
+        }
+    }
+}
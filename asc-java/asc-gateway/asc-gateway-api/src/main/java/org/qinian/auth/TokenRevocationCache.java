@@ -0,0 +1,181 @@
+package org.qinian.auth;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.enums.UserTypes;
+import org.qinian.properties.AuthProperties;
+import org.qinian.properties.JwtProperties;
+import org.qinian.revocation.TokenRevocationStore;
+import org.qinian.utils.JwtTool;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * token 吊销的本地副本
+ * </p>
+ * 已吊销的 jti 放入布隆过滤器，最近确认吊销的放入 LRU，按用户吊销的时间全量保存在本地；
+ * 未吊销的 token（绝大多数请求）布隆过滤器判否即放行，不访问 Redis。
+ * LRU 先于布隆过滤器检查，布隆过滤器命中但 LRU 未命中时才查询 Redis 确认。吊销通过 Redis 频道即时同步，另有定时全量重建兜底
+ */
+@Slf4j
+@Component
+public class TokenRevocationCache implements MessageListener {
+    private final TokenRevocationStore revocationStore;
+
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    private final AuthProperties properties;
+
+    private final JwtProperties jwtProperties;
+
+    private final Cache<String, Boolean> revoked;  // 确认已吊销的 jti
+
+    private final Map<String, Long> revokedUsers = new ConcurrentHashMap<>();  // {类型}:{用户 id} -> 吊销时间
+
+    private volatile BloomFilter<CharSequence> bloom;
+
+    private final Counter clear = Metrics.counter("asc.gateway.token.revocation", "result", "clear");
+
+    private final Counter revokedHit = Metrics.counter("asc.gateway.token.revocation", "result", "revoked");
+
+    private final Counter falsePositive = Metrics.counter("asc.gateway.token.revocation", "result", "false_positive");
+
+    public TokenRevocationCache(TokenRevocationStore revocationStore,
+                                ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                AuthProperties properties,
+                                JwtProperties jwtProperties) {
+        this.revocationStore = revocationStore;
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.properties = properties;
+        this.jwtProperties = jwtProperties;
+        this.revoked = CacheBuilder.newBuilder()
+                .maximumSize(properties.getRevokedCacheSize())
+                .expireAfterWrite(jwtProperties.getTokenTTL())
+                .build();
+        this.bloom = newBloom(0);
+    }
+
+    /**
+     * 从 Redis 重建本地副本
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${asc.gateway.auth.revocation-sync-interval:PT5M}",
+            fixedDelayString = "${asc.gateway.auth.revocation-sync-interval:PT5M}")
+    public void sync() {
+        Set<String> tokens;
+        Map<String, Long> users;
+        try {
+            tokens = revocationStore.revokedTokens();
+            users = revocationStore.revokedUsers();
+        } catch (RuntimeException e) {
+            // Redis 不可用时保留现有副本
+            log.warn("token 吊销记录同步失败: {}", e.toString());
+            return;
+        }
+        BloomFilter<CharSequence> rebuilt = newBloom(tokens.size() + revoked.size());
+        tokens.forEach(rebuilt::put);
+        bloom = rebuilt;
+        // 重建期间经频道收到的吊销可能只写进了旧过滤器，替换后从 LRU 补入
+        revoked.asMap().keySet().forEach(rebuilt::put);
+
+        long expired = System.currentTimeMillis() - jwtProperties.getTokenTTL().toMillis();
+        users.forEach((user, time) -> revokedUsers.merge(user, time, Math::max));
+        revokedUsers.values().removeIf(time -> time < expired);
+        log.debug("token 吊销记录已同步，jti {} 个，用户 {} 个", tokens.size(), users.size());
+    }
+
+    /**
+     * token 是否已被吊销，未吊销时不访问 Redis
+     */
+    public Mono<Boolean> isRevoked(JwtTool.TokenInfo info) {
+        if (isUserRevoked(info)) {
+            revokedHit.increment();
+            return Mono.just(true);
+        }
+        String tokenId = info.tokenId();
+        if (tokenId == null) {
+            clear.increment();
+            return Mono.just(false);
+        }
+        if (revoked.getIfPresent(tokenId) != null) {
+            revokedHit.increment();
+            return Mono.just(true);
+        }
+        if (!bloom.mightContain(tokenId)) {
+            clear.increment();
+            return Mono.just(false);
+        }
+        // 布隆过滤器命中，向 Redis 确认
+        return reactiveStringRedisTemplate.opsForZSet().score(TokenRevocationStore.TOKEN_KEY, tokenId)
+                .map(score -> {
+                    revoked.put(tokenId, Boolean.TRUE);
+                    revokedHit.increment();
+                    return true;
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    falsePositive.increment();
+                    return false;
+                }));
+    }
+
+    // 没有类型的旧 token 无法区分用户表，任一类型下同 id 被吊销都视为吊销
+    private boolean isUserRevoked(JwtTool.TokenInfo info) {
+        if (revokedUsers.isEmpty()) {
+            return false;
+        }
+        if (info.userType() != null) {
+            return isRevokedBefore(info, revokedUsers.get(TokenRevocationStore.userKey(info.userType(), info.userId())));
+        }
+        for (UserTypes type : UserTypes.values()) {
+            if (isRevokedBefore(info, revokedUsers.get(TokenRevocationStore.userKey(type, info.userId())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // iat 只精确到秒，吊销时间按秒截断后严格比较：吊销同一秒内重新登录拿到的新 token 不会被误判为吊销
+    private static boolean isRevokedBefore(JwtTool.TokenInfo info, Long revokedAt) {
+        return revokedAt != null && info.issuedAt() / 1000 < revokedAt / 1000;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            if (body.startsWith(TokenRevocationStore.TOKEN_PREFIX)) {
+                String tokenId = body.substring(TokenRevocationStore.TOKEN_PREFIX.length(), body.lastIndexOf(':'));
+                revoked.put(tokenId, Boolean.TRUE);
+                bloom.put(tokenId);
+            } else if (body.startsWith(TokenRevocationStore.USER_PREFIX)) {
+                int timeIndex = body.lastIndexOf(':');
+                String user = body.substring(TokenRevocationStore.USER_PREFIX.length(), timeIndex);
+                revokedUsers.merge(user, Long.valueOf(body.substring(timeIndex + 1)), Math::max);
+            }
+        } catch (RuntimeException e) {
+            log.warn("无法解析 token 吊销消息 {}: {}", body, e.toString());
+        }
+    }
+
+    private BloomFilter<CharSequence> newBloom(long revokedCount) {
+        long expected = Math.max(properties.getRevocationExpectedSize(), revokedCount * 2);
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expected, properties.getRevocationFpp());
+    }
+}
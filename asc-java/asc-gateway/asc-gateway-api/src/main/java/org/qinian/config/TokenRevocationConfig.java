@@ -0,0 +1,25 @@
+package org.qinian.config;
+
+import org.qinian.auth.TokenRevocationCache;
+import org.qinian.revocation.TokenRevocationStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class TokenRevocationConfig {
+
+    /**
+     * 订阅 token 吊销通知
+     */
+    @Bean
+    public RedisMessageListenerContainer tokenRevocationListenerContainer(RedisConnectionFactory factory,
+                                                                          TokenRevocationCache tokenRevocationCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(tokenRevocationCache, new ChannelTopic(TokenRevocationStore.CHANNEL));
+        return container;
+    }
+}
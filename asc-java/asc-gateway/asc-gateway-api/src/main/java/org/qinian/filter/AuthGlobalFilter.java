@@ -1,7 +1,10 @@
 package org.qinian.filter;
 
 import lombok.RequiredArgsConstructor;
-import org.qinian.exception.UnauthorizedException;
+import org.qinian.auth.PathPatternTrie;
+import org.qinian.auth.TokenCache;
+import org.qinian.auth.TokenRevocationCache;
+import org.qinian.enums.UserTypes;
 import org.qinian.utils.CollUtils;
 import org.qinian.utils.JwtTool;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -10,10 +13,11 @@ import org.springframework.core.Ordered;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
 
@@ -22,6 +26,10 @@ import java.util.List;
 public class AuthGlobalFilter implements GlobalFilter, Ordered {
     public final String prefixPath = "";
 
+    private static final String USER_INFO = "user-info";
+
+    private static final String USER_TYPE = "user-type";
+
     public static final List<String> excludePaths = Arrays.asList(
             "/code/*",
             "/email/*",
@@ -36,51 +44,109 @@ public class AuthGlobalFilter implements GlobalFilter, Ordered {
             "/fishing-platoon/select-by-ik"
     );
 
-    private final JwtTool jwtTool;
-    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+    // 允许通过查询参数携带 token 的路径（SSE）
+    public static final List<String> queryTokenPaths = List.of(
+            "/alert-info/subscribe"
+    );
+
+    // 仅供服务间调用（Feign 直连服务，不经网关）的接口，网关一律拒绝
+    public static final List<String> internalPaths = List.of(
+            "/fish-raft-point/ids",
+            "/fishing-platoon/*/fishermen-ids"
+    );
+
+    private final TokenCache tokenCache;
+    private final TokenRevocationCache tokenRevocationCache;
+    // 规则启动时编译成路径树，匹配开销与规则条数无关
+    private final PathPatternTrie excludeMatcher = new PathPatternTrie("exclude", prefixed(excludePaths));
+    private final PathPatternTrie queryTokenMatcher = new PathPatternTrie("query-token", prefixed(queryTokenPaths));
+    private final PathPatternTrie internalMatcher = new PathPatternTrie("internal", prefixed(internalPaths));
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        // 1. 获取 Request
+        // 1. 获取 Request，服务间接口不对外开放
         ServerHttpRequest request = exchange.getRequest();
+        if (internalMatcher.matches(request.getPath().toString())) {
+            return forbidden(exchange);
+        }
         // 2. 判断是否不需要拦截
         if (isExclude(request.getPath().toString())) {
-            //  ⽆需拦截，直接放⾏
-            return chain.filter(exchange);
+            //  ⽆需拦截，去掉客户端伪造的用户信息请求头后放⾏
+            return chain.filter(exchange.mutate().request(b -> b.headers(h -> {
+                h.remove(USER_INFO);
+                h.remove(USER_TYPE);
+            })).build());
         }
         // 3. 获取请求头中的 token
         String token = null;
         List<String> headers = request.getHeaders().get("token");
         if (!CollUtils.isEmpty(headers)) {
             token = headers.get(0);
+        } else if (isQueryTokenAllowed(request.getPath().toString())) {
+            // EventSource 无法设置请求头，SSE 订阅允许通过查询参数携带 token
+            token = request.getQueryParams().getFirst("token");
         }
-        // 4. 校验并解析 token
-        Long userId = null;
-        try {
-            userId = jwtTool.parseToken(token);
-        } catch (UnauthorizedException e) {
-            // 如果⽆效，拦截
-            ServerHttpResponse response = exchange.getResponse();
-            response.setRawStatusCode(401);
-            return response.setComplete();
+        // 4. 校验并解析 token，已校验过且未过期的 token 直接命中缓存，跳过 RSA 验签
+        JwtTool.ParseResult result = tokenCache.verify(token);
+        if (!result.isValid()) {
+            // 如果⽆效，拦截（失败原因已按类型计数，不构造异常）
+            return unauthorized(exchange);
         }
 
-        // 5. 如果有效，传递⽤⼾信息
-        String userInfo = userId.toString();
-        ServerWebExchange ex = exchange.mutate()
-                .request(b -> b.header("user-info", userInfo)).build();
+        // 5. 校验是否已吊销（登出、冻结），未吊销时只查本地副本
+        return tokenRevocationCache.isRevoked(result.info()).flatMap(revoked -> {
+            if (revoked) {
+                return unauthorized(exchange);
+            }
+            // 6. 如果有效，传递⽤⼾信息与用户类型，覆盖客户端携带的同名请求头（旧 token 没有类型，下游按非管理员处理）
+            String userInfo = result.info().userId().toString();
+            UserTypes userType = result.info().userType();
+            ServerWebExchange ex = exchange.mutate()
+                    .request(b -> {
+                        b.headers(h -> {
+                            h.set(USER_INFO, userInfo);
+                            h.remove(USER_TYPE);
+                            if (userType != null) {
+                                h.set(USER_TYPE, userType.getValue());
+                            }
+                        });
+                        // 查询参数中的 token 不再转发，避免出现在下游访问日志中
+                        if (request.getQueryParams().containsKey("token")) {
+                            b.uri(withoutQueryToken(request.getURI()));
+                        }
+                    }).build();
+
+            // 7. 放⾏
+            return chain.filter(ex);
+        });
+    }
+
+    static URI withoutQueryToken(URI uri) {
+        return UriComponentsBuilder.fromUri(uri).replaceQueryParam("token").build(true).toUri();
+    }
 
-        // 6. 放⾏
-        return chain.filter(ex);
+    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setRawStatusCode(401);
+        return response.setComplete();
+    }
+
+    private Mono<Void> forbidden(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setRawStatusCode(403);
+        return response.setComplete();
     }
 
     private boolean isExclude(String antPath) {
-        for (String pathPattern : excludePaths) {
-            if (antPathMatcher.match(prefixPath + pathPattern, antPath)) {
-                return true;
-            }
-        }
-        return false;
+        return excludeMatcher.matches(antPath);
+    }
+
+    private boolean isQueryTokenAllowed(String antPath) {
+        return queryTokenMatcher.matches(antPath);
+    }
+
+    private List<String> prefixed(List<String> pathPatterns) {
+        return pathPatterns.stream().map(pathPattern -> prefixPath + pathPattern).toList();
     }
 
     @Override
@@ -0,0 +1,27 @@
+package org.qinian.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 网关鉴权参数
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "asc.gateway.auth")
+public class AuthProperties {
+    private long tokenCacheSize = 100_000;  // 缓存的已校验 token 数上限
+
+    private Duration tokenCacheTtl = Duration.ofMinutes(30);  // 缓存项最长保留时间，token 先过期则以 exp 为准
+
+    private Duration revocationSyncInterval = Duration.ofMinutes(5);  // 吊销记录全量同步间隔，平时靠频道即时同步
+
+    private int revocationExpectedSize = 10_000;  // 布隆过滤器预估容量，实际吊销数更多时按 2 倍重建
+
+    private double revocationFpp = 0.001;  // 布隆过滤器误判率，误判时需查询一次 Redis
+
+    private long revokedCacheSize = 10_000;  // 确认已吊销 jti 的 LRU 容量
+}
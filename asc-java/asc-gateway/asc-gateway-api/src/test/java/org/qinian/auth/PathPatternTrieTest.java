@@ -0,0 +1,120 @@
+package org.qinian.auth;
+
+import org.junit.jupiter.api.Test;
+import org.qinian.filter.AuthGlobalFilter;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 路径树与 AntPathMatcher 逐条匹配的结果逐一对照
+ */
+class PathPatternTrieTest {
+    private static final AntPathMatcher ANT = new AntPathMatcher();
+
+    // 整段通配符与字面量走树，段内通配符与 {变量} 走逐条匹配；不以 "/" 开头的规则只匹配同样不以 "/" 开头的路径
+    private static final List<String> EXTRA_PATTERNS = List.of(
+            "/**",
+            "/static/**",
+            "/api/**/detail",
+            "/raft/*/",
+            "/fish*/login",
+            "/alert-?nfo/list",
+            "/raft/{id}/mask",
+            "code/*"
+    );
+
+    private static final List<String> PATHS = List.of(
+            "",
+            "/",
+            "//",
+            "/code",
+            "/code/",
+            "/code/123",
+            "/code/123/",
+            "/code/123/456",
+            "/code//123",
+            "/email/send",
+            "/email",
+            "/fishermen/login",
+            "/fishermen/login/",
+            "/fishermen/login/x",
+            "/fishermen//login",
+            "fishermen/login",
+            "/fishermen/logout",
+            "/fishermenlogin",
+            "/admin/login",
+            "/admin/register",
+            "/fishing-platoon/select-by-ik",
+            "/fishing-platoon/select-by-id",
+            "/fish-raft-point/ids",
+            "/fish-raft-point/ids/",
+            "/fish-raft-point/ids/1",
+            "/fishing-platoon/1/fishermen-ids",
+            "/fishing-platoon/1/fishermen-ids/",
+            "/fishing-platoon//fishermen-ids",
+            "/fishing-platoon/1/2/fishermen-ids",
+            "/fishing-platoon/fishermen-ids",
+            "/alert-info/subscribe",
+            "/alert-info/subscribe/",
+            "/alert-info/list",
+            "/alert-xnfo/list",
+            "/static",
+            "/static/",
+            "/static/a/b/c.js",
+            "/api/detail",
+            "/api/a/detail",
+            "/api/a/b/detail",
+            "/api/a/b/detail/",
+            "/api/a/b/details",
+            "/raft",
+            "/raft/1",
+            "/raft/1/",
+            "/raft/1/mask",
+            "/raft/1/mask/",
+            "/raft//mask",
+            "/fisherman/login",
+            "code/1",
+            "code/1/2"
+    );
+
+    @Test
+    void gatewayPatternGroupsAgreeWithAntPathMatcher() {
+        assertAgrees("exclude", AuthGlobalFilter.excludePaths);
+        assertAgrees("internal", AuthGlobalFilter.internalPaths);
+        assertAgrees("query-token", AuthGlobalFilter.queryTokenPaths);
+    }
+
+    @Test
+    void eachPatternAloneAgreesWithAntPathMatcher() {
+        Stream.of(AuthGlobalFilter.excludePaths, AuthGlobalFilter.internalPaths, EXTRA_PATTERNS)
+                .flatMap(List::stream)
+                .forEach(pattern -> assertAgrees(pattern, List.of(pattern)));
+    }
+
+    @Test
+    void mixedTreeAndFallbackPatternsAgreeWithAntPathMatcher() {
+        List<String> patterns = new ArrayList<>(EXTRA_PATTERNS.subList(1, EXTRA_PATTERNS.size()));
+        patterns.addAll(AuthGlobalFilter.excludePaths);
+        patterns.addAll(AuthGlobalFilter.internalPaths);
+        assertAgrees("mixed", patterns);
+    }
+
+    @Test
+    void emptyTreeMatchesNothing() {
+        PathPatternTrie trie = new PathPatternTrie("empty", List.of());
+        PATHS.forEach(path -> assertFalse(trie.matches(path), path));
+    }
+
+    private static void assertAgrees(String name, List<String> patterns) {
+        PathPatternTrie trie = new PathPatternTrie(name, patterns);
+        for (String path : PATHS) {
+            boolean expected = patterns.stream().anyMatch(pattern -> ANT.match(pattern, path));
+            assertEquals(expected, trie.matches(path), name + " " + path);
+        }
+    }
+}
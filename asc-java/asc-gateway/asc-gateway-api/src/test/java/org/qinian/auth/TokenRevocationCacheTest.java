@@ -0,0 +1,194 @@
+package org.qinian.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qinian.enums.UserTypes;
+import org.qinian.properties.AuthProperties;
+import org.qinian.properties.JwtProperties;
+import org.qinian.revocation.TokenRevocationStore;
+import org.qinian.utils.JwtTool;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 布隆过滤器、LRU 与按用户吊销的判定
+ */
+class TokenRevocationCacheTest {
+    private static final long NOW = System.currentTimeMillis();
+
+    private final JwtProperties jwtProperties = new JwtProperties();
+
+    private FakeStore store;
+
+    private FakeRedis redis;
+
+    private TokenRevocationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        store = new FakeStore(jwtProperties);
+        redis = new FakeRedis();
+        cache = new TokenRevocationCache(store, redis, new AuthProperties(), jwtProperties);
+    }
+
+    @Test
+    void unrevokedTokenIsClearedWithoutRedis() {
+        cache.sync();
+
+        assertFalse(revoked(token("a", NOW)));
+        assertEquals(0, redis.lookups);
+    }
+
+    @Test
+    void bloomHitIsConfirmedOnceThenServedFromLru() {
+        store.tokens.add("a");
+        redis.tokens.add("a");
+        cache.sync();
+
+        assertTrue(revoked(token("a", NOW)));
+        assertTrue(revoked(token("a", NOW)));
+        assertEquals(1, redis.lookups);
+    }
+
+    @Test
+    void bloomFalsePositiveIsRejectedByRedis() {
+        // 同步后记录已在 Redis 中过期清理，布隆过滤器仍命中
+        store.tokens.add("a");
+        cache.sync();
+
+        assertFalse(revoked(token("a", NOW)));
+        assertEquals(1, redis.lookups);
+    }
+
+    @Test
+    void channelRevocationTakesEffectImmediately() {
+        cache.sync();
+        cache.onMessage(message(TokenRevocationStore.TOKEN_PREFIX + "a:" + (NOW + 60_000)), null);
+
+        assertTrue(revoked(token("a", NOW)));
+        assertEquals(0, redis.lookups);
+    }
+
+    @Test
+    void revocationDuringRebuildIsNotLost() {
+        // 全量读取之后、新过滤器替换之前经频道收到吊销，只写进了旧过滤器
+        store.onRead = () -> cache.onMessage(message(TokenRevocationStore.TOKEN_PREFIX + "a:" + (NOW + 60_000)), null);
+        cache.sync();
+
+        assertTrue(revoked(token("a", NOW)));
+        assertEquals(0, redis.lookups);
+    }
+
+    @Test
+    void userRevocationAppliesToTokensIssuedEarlierSecond() {
+        long revokedAt = NOW / 1000 * 1000 + 500;
+        cache.onMessage(message(TokenRevocationStore.USER_PREFIX
+                + TokenRevocationStore.userKey(UserTypes.FISHERMEN, 1L) + ":" + revokedAt), null);
+
+        assertTrue(revoked(new JwtTool.TokenInfo(1L, UserTypes.FISHERMEN, null, revokedAt - 1000, NOW + 60_000)));
+        // 同一秒内重新登录拿到的 token 不受影响
+        assertFalse(revoked(new JwtTool.TokenInfo(1L, UserTypes.FISHERMEN, null, revokedAt - 500, NOW + 60_000)));
+        // 类型不同的同 id 用户不受影响
+        assertFalse(revoked(new JwtTool.TokenInfo(1L, UserTypes.ADMIN, null, revokedAt - 1000, NOW + 60_000)));
+        // 没有类型的旧 token 按任一类型判断
+        assertTrue(revoked(new JwtTool.TokenInfo(1L, null, null, revokedAt - 1000, NOW + 60_000)));
+    }
+
+    @Test
+    void expiredUserRevocationsArePrunedOnSync() {
+        String user = TokenRevocationStore.userKey(UserTypes.ADMIN, 2L);
+        long expired = NOW - jwtProperties.getTokenTTL().toMillis() - 1000;
+        cache.onMessage(message(TokenRevocationStore.USER_PREFIX + user + ":" + expired), null);
+        assertTrue(revoked(new JwtTool.TokenInfo(2L, UserTypes.ADMIN, null, expired - 1000, NOW + 60_000)));
+
+        cache.sync();
+        assertFalse(revoked(new JwtTool.TokenInfo(2L, UserTypes.ADMIN, null, expired - 1000, NOW + 60_000)));
+    }
+
+    @Test
+    void malformedMessageIsIgnored() {
+        assertDoesNotThrow(() -> cache.onMessage(message(TokenRevocationStore.USER_PREFIX + "admin"), null));
+        assertFalse(revoked(token("a", NOW)));
+    }
+
+    private boolean revoked(JwtTool.TokenInfo info) {
+        return Boolean.TRUE.equals(cache.isRevoked(info).block());
+    }
+
+    private static JwtTool.TokenInfo token(String tokenId, long issuedAt) {
+        return new JwtTool.TokenInfo(1L, UserTypes.FISHERMEN, tokenId, issuedAt, issuedAt + 60_000);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TokenRevocationStore.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 内存中的全量吊销记录，onRead 在读取后、返回前执行
+     */
+    static class FakeStore extends TokenRevocationStore {
+        final Set<String> tokens = new HashSet<>();
+
+        final Map<String, Long> users = new HashMap<>();
+
+        Runnable onRead;
+
+        FakeStore(JwtProperties jwtProperties) {
+            super(null, null, jwtProperties);
+        }
+
+        @Override
+        public Set<String> revokedTokens() {
+            return new HashSet<>(tokens);
+        }
+
+        @Override
+        public Map<String, Long> revokedUsers() {
+            Map<String, Long> copy = new HashMap<>(users);
+            if (onRead != null) {
+                onRead.run();
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * 只实现 zset 的 score，记录查询次数
+     */
+    static class FakeRedis extends ReactiveStringRedisTemplate {
+        final Set<String> tokens = new HashSet<>();
+
+        int lookups;
+
+        FakeRedis() {
+            super((ReactiveRedisConnectionFactory) Proxy.newProxyInstance(FakeRedis.class.getClassLoader(),
+                    new Class<?>[]{ReactiveRedisConnectionFactory.class}, (proxy, method, args) -> null));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ReactiveZSetOperations<String, String> opsForZSet() {
+            return (ReactiveZSetOperations<String, String>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{ReactiveZSetOperations.class}, (proxy, method, args) -> {
+                        if (!method.getName().equals("score") || args.length != 2) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        lookups++;
+                        return tokens.contains(args[1]) ? Mono.just(1.0) : Mono.empty();
+                    });
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.qinian.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 转发前去掉查询参数中的 token
+ */
+class AuthGlobalFilterTest {
+
+    @Test
+    void tokenIsRemovedAndOtherParamsKeptEncoded() {
+        URI uri = URI.create("http://gateway/alert-info/subscribe?raftId=1&token=a.b.c&name=%E6%B8%94%20%E6%8E%92");
+
+        assertEquals("http://gateway/alert-info/subscribe?raftId=1&name=%E6%B8%94%20%E6%8E%92",
+                AuthGlobalFilter.withoutQueryToken(uri).toString());
+    }
+
+    @Test
+    void repeatedTokenParamsAreAllRemoved() {
+        URI uri = URI.create("http://gateway/alert-info/subscribe?token=a&token=b");
+
+        assertEquals("http://gateway/alert-info/subscribe", AuthGlobalFilter.withoutQueryToken(uri).toString());
+    }
+}
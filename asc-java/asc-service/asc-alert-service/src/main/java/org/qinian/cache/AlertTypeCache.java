@@ -0,0 +1,81 @@
+package org.qinian.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.dao.AlertTypeMapper;
+import org.qinian.domain.pojo.AlertType;
+import org.qinian.enums.AlertTypes;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * 告警类型本地缓存
+ * </p>
+ * Bean 初始化时全量加载（早于 MQ 监听等启动即开始处理的入口），增删改后通过 Redis 频道 alert_type_changed 通知所有实例重新加载；
+ * 另有定时全量刷新兜底，防止断线期间漏掉通知
+ */
+@Slf4j
+@Component
+public class AlertTypeCache implements MessageListener {
+    public static final String CHANNEL = "alert_type_changed";
+
+    private final AlertTypeMapper alertTypeMapper;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private volatile Map<Long, AlertType> byId = Map.of();
+
+    private volatile List<AlertType> all = List.of();
+
+    public AlertTypeCache(AlertTypeMapper alertTypeMapper, RedisTemplate<String, Object> redisTemplate) {
+        this.alertTypeMapper = alertTypeMapper;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${asc.alert.type-refresh-interval:PT10M}",
+            fixedDelayString = "${asc.alert.type-refresh-interval:PT10M}")
+    public void reload() {
+        List<AlertType> types = alertTypeMapper.selectList(null).stream()
+                .sorted(Comparator.comparing(AlertType::getId))
+                .toList();
+        byId = types.stream().collect(Collectors.toUnmodifiableMap(AlertType::getId, Function.identity()));
+        all = types;
+        log.debug("告警类型缓存已加载，共 {} 个", types.size());
+    }
+
+    public AlertType get(Long id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    public AlertType get(AlertTypes type) {
+        return type == null ? null : byId.get(type.getValue());
+    }
+
+    public List<AlertType> list() {
+        return all;
+    }
+
+    /**
+     * 本实例立即重新加载，并通知其他实例
+     */
+    public void invalidate(Long id) {
+        reload();
+        redisTemplate.convertAndSend(CHANNEL, String.valueOf(id));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        reload();
+    }
+}
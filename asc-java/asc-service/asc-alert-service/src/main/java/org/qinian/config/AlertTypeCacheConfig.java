@@ -0,0 +1,24 @@
+package org.qinian.config;
+
+import org.qinian.cache.AlertTypeCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class AlertTypeCacheConfig {
+
+    /**
+     * 订阅告警类型变更通知
+     */
+    @Bean
+    public RedisMessageListenerContainer alertTypeListenerContainer(RedisConnectionFactory factory,
+                                                                    AlertTypeCache alertTypeCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(alertTypeCache, new ChannelTopic(AlertTypeCache.CHANNEL));
+        return container;
+    }
+}
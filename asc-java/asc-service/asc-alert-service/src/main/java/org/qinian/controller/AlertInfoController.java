@@ -1,15 +1,22 @@
 package org.qinian.controller;
 
-import cn.hutool.core.bean.BeanUtil;
 import lombok.RequiredArgsConstructor;
 import org.qinian.domain.Result;
 import org.qinian.domain.dto.alert.AddAlertInfoDto;
+import org.qinian.domain.dto.alert.AlertQueryDto;
 import org.qinian.domain.pojo.AlertInfo;
+import org.qinian.domain.vo.AlertBatchVo;
+import org.qinian.domain.vo.CursorPageVo;
+import org.qinian.push.AlertHub;
+import org.qinian.push.SubscriptionResolver;
 import org.qinian.service.IAlertInfoService;
+import org.qinian.utils.UserContext;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * <p>
@@ -27,18 +34,28 @@ import java.util.List;
 public class AlertInfoController {
     private final IAlertInfoService alertInfoService;
 
-    // 创建告警信息
+    private final AlertHub alertHub;
+
+    private final SubscriptionResolver subscriptionResolver;
+
+    // 创建告警信息，抑制窗口内的重复告警会被合并
     @PostMapping
     public Result createAlertInfo(@RequestBody AddAlertInfoDto addAlertInfoDto) {
-        AlertInfo alertInfo = BeanUtil.copyProperties(addAlertInfoDto, AlertInfo.class);
-        alertInfo.setAlertedTime(LocalDateTime.now());
+        AlertBatchVo batch = alertInfoService.accept(List.of(addAlertInfoDto));
+        if (batch.getAccepted().isEmpty()) {
+            return Result.success(200, "告警处于抑制窗口内，已合并", null);
+        }
+        return Result.success(200, "告警信息创建成功", batch.getAccepted().get(0));
+    }
 
-        boolean isSuccess = alertInfoService.save(alertInfo);
-        if (isSuccess) {
-            return Result.success(200, "告警信息创建成功", alertInfo);
-        } else {
-            return Result.fail(500, "创建告警信息失败", null);
+    // 批量创建告警信息
+    @PostMapping("/batch")
+    public Result createAlertInfos(@RequestBody List<AddAlertInfoDto> addAlertInfoDtos) {
+        if (addAlertInfoDtos == null || addAlertInfoDtos.isEmpty()) {
+            return Result.success(200, "告警信息批量创建成功", new AlertBatchVo(List.of(), 0));
         }
+        AlertBatchVo batch = alertInfoService.accept(addAlertInfoDtos);
+        return Result.success(200, "告警信息批量创建成功", batch);
     }
 
     // 根据 ID 获取告警信息
@@ -59,6 +76,25 @@ public class AlertInfoController {
         return Result.success(200, "所有告警信息获取成功", alertInfos);
     }
 
+    // 分页查询告警信息，可按渔排点、类型、等级、时间范围过滤，按告警时间倒序
+    // 翻页时传 beforeTime（上一页最后一条的 alertedTime）和 beforeId（nextCursor）
+    @GetMapping("/page")
+    public Result pageAlertInfos(AlertQueryDto query) {
+        CursorPageVo<AlertInfo> page = alertInfoService.pageAlerts(query);
+        return Result.success(200, "告警信息获取成功", page);
+    }
+
+    // 订阅新告警（SSE），可指定渔排点、渔民或渔民管理者，均不指定时订阅当前登录用户名下的渔排点
+    // 只能订阅属于当前用户的对象，管理员不限；浏览器 EventSource 无法设置请求头，经网关访问时 token 可放在查询参数中
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(required = false) List<Long> raftIds,
+                                @RequestParam(required = false) Long fishermenId,
+                                @RequestParam(required = false) Long fishingPlatoonId) {
+        Set<Long> subscribed = subscriptionResolver.resolve(UserContext.getUser(), UserContext.getUserType(),
+                raftIds, fishermenId, fishingPlatoonId);
+        return alertHub.subscribe(subscribed);
+    }
+
     // 根据渔排点id获取所有告警信息
     @GetMapping("/raft/{id}")
     public Result getAllByRaftId(@PathVariable Long id) {
@@ -33,7 +33,7 @@ public class AlertTypeController {
     public Result createAlertType(@RequestBody AddAlertTypeDto addAlertTypeDto) {
         AlertType alertType = BeanUtil.copyProperties(addAlertTypeDto, AlertType.class);
 
-        boolean isSuccess = alertTypeService.save(alertType);
+        boolean isSuccess = alertTypeService.createType(alertType);
         if (isSuccess) {
             return Result.success(200, "告警类型创建成功", alertType);
         } else {
@@ -44,7 +44,7 @@ public class AlertTypeController {
     // 根据 ID 获取告警类型
     @GetMapping("/{id}")
     public Result getAlertTypeById(@PathVariable Long id) {
-        AlertType alertType = alertTypeService.getById(id);
+        AlertType alertType = alertTypeService.getCached(id);
         if (alertType != null) {
             return Result.success(200, "告警类型获取成功", alertType);
         } else {
@@ -55,7 +55,7 @@ public class AlertTypeController {
     // 获取所有告警类型
     @GetMapping
     public Result getAllAlertTypes() {
-        List<AlertType> alertTypes = alertTypeService.list();
+        List<AlertType> alertTypes = alertTypeService.listCached();
         return Result.success(200, "所有告警类型获取成功", alertTypes);
     }
 
@@ -63,7 +63,7 @@ public class AlertTypeController {
     @PutMapping("/{id}")
     public Result updateAlertType(@PathVariable Long id, @RequestBody AlertType alertType) {
         alertType.setId(id); // 设置ID以更新对应的记录
-        boolean isSuccess = alertTypeService.updateById(alertType);
+        boolean isSuccess = alertTypeService.updateType(alertType);
         if (isSuccess) {
             return Result.success(200, "告警类型更新成功", alertType);
         } else {
@@ -74,7 +74,7 @@ public class AlertTypeController {
     // 根据 ID 删除告警类型
     @DeleteMapping("/{id}")
     public Result deleteAlertType(@PathVariable Long id) {
-        boolean isSuccess = alertTypeService.removeById(id);
+        boolean isSuccess = alertTypeService.deleteType(id);
         if (isSuccess) {
             return Result.success(200, "告警类型删除成功", null);
         } else {
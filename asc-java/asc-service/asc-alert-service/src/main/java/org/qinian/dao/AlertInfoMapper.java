@@ -5,7 +5,9 @@ package org.qinian.dao;
 /**/
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.qinian.domain.dto.alert.AlertQueryDto;
 import org.qinian.domain.pojo.AlertInfo;
 
 import java.util.List;
@@ -22,5 +24,24 @@ public interface AlertInfoMapper extends BaseMapper<AlertInfo> {
 
     @Select("select * from alert_info where Fish_raft_id = #{id}")
     List<AlertInfo> getAllByRaftId(Long id);
+
+    /**
+     * 按告警时间倒序的游标分页，走 (fish_raft_id, alerted_time) 或 (alert_type_id, alert_level, alerted_time) 索引
+     */
+    @Select("<script>" +
+            "select * from alert_info" +
+            "<where>" +
+            "<if test='q.fishRaftId != null'> and fish_raft_id = #{q.fishRaftId}</if>" +
+            "<if test='q.alertTypeId != null'> and alert_type_id = #{q.alertTypeId}</if>" +
+            "<if test='q.alertLevel != null'> and alert_level = #{q.alertLevel}</if>" +
+            "<if test='q.from != null'> and alerted_time &gt;= #{q.from}</if>" +
+            "<if test='q.to != null'> and alerted_time &lt; #{q.to}</if>" +
+            "<if test='q.beforeTime != null'>" +
+            " and (alerted_time &lt; #{q.beforeTime} or (alerted_time = #{q.beforeTime} and Id &lt; #{q.beforeId}))" +
+            "</if>" +
+            "</where>" +
+            " order by alerted_time desc, Id desc limit #{limit}" +
+            "</script>")
+    List<AlertInfo> selectPage(@Param("q") AlertQueryDto query, @Param("limit") int limit);
 }
 
@@ -0,0 +1,33 @@
+package org.qinian.listener;
+
+import lombok.RequiredArgsConstructor;
+import org.qinian.domain.dto.alert.AlertEventDto;
+import org.qinian.push.AlertHub;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>
+ * 接收任一实例写入的新告警，推送给本实例上的订阅连接
+ * </p>
+ * 每个实例绑定一个匿名临时队列，实例下线后队列自动删除
+ */
+@Component
+@RequiredArgsConstructor
+public class AlertPushListener {
+    public static final String EXCHANGE = "alert.fanout";
+
+    private final AlertHub alertHub;
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue(exclusive = "true", autoDelete = "true"),
+            exchange = @Exchange(name = EXCHANGE, type = ExchangeTypes.FANOUT)
+    ), messageConverter = "jsonToMapMessageConverter")
+    public void listenAlert(AlertEventDto alert) {
+        alertHub.publish(alert);
+    }
+}
@@ -0,0 +1,42 @@
+package org.qinian.properties;
+
+import lombok.Data;
+import org.qinian.enums.AlertTypes;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "asc.alert")
+public class AlertProperties {
+    // 同一渔排点、同类型、同等级的告警在窗口内只记录一次，0 表示不抑制
+    private Duration suppressWindow = Duration.ofMinutes(30);
+
+    // 按告警类型覆盖抑制窗口
+    private Map<AlertTypes, Duration> suppressWindows = new HashMap<>();
+
+    // 单次批量写入的最大条数
+    private int batchSize = 500;
+
+    // 实时推送（SSE）
+    private Push push = new Push();
+
+    public Duration windowOf(AlertTypes type) {
+        return suppressWindows.getOrDefault(type, suppressWindow);
+    }
+
+    @Data
+    public static class Push {
+        private int bufferSize = 64;  // 每个连接最多缓存的未发送告警，超出时丢弃最旧的
+
+        private int dispatchThreads = 4;  // 发送线程数，与连接数无关
+
+        private Duration timeout = Duration.ofMinutes(30);  // 连接最长保持时间，到期后由客户端重连
+
+        private Duration heartbeat = Duration.ofSeconds(25);  // 心跳间隔，用于穿透代理超时并发现断开的连接
+    }
+}
@@ -0,0 +1,214 @@
+package org.qinian.push;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.domain.dto.alert.AlertEventDto;
+import org.qinian.properties.AlertProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>
+ * 本实例的告警推送中心，按渔排点 id 分发到 SSE 连接
+ * </p>
+ * 每个连接有一个有界缓冲，满了丢弃最旧的告警并通知客户端（lagged 事件）；
+ * 所有写出（ready、心跳、告警）都由专用发送线程完成，MQ 监听线程、定时线程和请求线程只入队不阻塞；
+ * 只有缓冲非空的连接才占用发送线程，空闲连接只占一个 SseEmitter 和索引项
+ */
+@Slf4j
+@Component
+public class AlertHub {
+    private final AlertProperties.Push properties;
+
+    private final Map<Long, Set<Subscriber>> byRaftId = new ConcurrentHashMap<>();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService dispatcher;
+
+    public AlertHub(AlertProperties alertProperties) {
+        this.properties = alertProperties.getPush();
+        this.dispatcher = Executors.newFixedThreadPool(properties.getDispatchThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "alert-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 订阅指定渔排点的告警
+     */
+    public SseEmitter subscribe(Set<Long> raftIds) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(raftIds));
+
+        subscribers.add(subscriber);
+        for (Long raftId : subscriber.raftIds) {
+            byRaftId.computeIfAbsent(raftId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        // 首个事件让代理立即转发响应头
+        subscriber.schedule();
+        return emitter;
+    }
+
+    /**
+     * 推送一条告警给订阅了该渔排点的连接，不阻塞调用方
+     */
+    public void publish(AlertEventDto alert) {
+        Set<Subscriber> targets = byRaftId.get(alert.getFishRaftId());
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(alert);
+        }
+    }
+
+    public int size() {
+        return subscribers.size();
+    }
+
+    // 只标记待发心跳，由发送线程写出，慢连接不会拖住定时线程
+    @Scheduled(fixedDelayString = "${asc.alert.push.heartbeat:PT25S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.ping();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (Long raftId : subscriber.raftIds) {
+            byRaftId.computeIfPresent(raftId, (id, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> raftIds;
+        private final ArrayDeque<AlertEventDto> buffer = new ArrayDeque<>();  // 受 this 保护
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private boolean ready = true;  // 待发 ready 事件，受 this 保护
+        private boolean ping;  // 待发心跳，多次心跳只发一次，受 this 保护
+        private int dropped;  // 受 this 保护
+
+        Subscriber(SseEmitter emitter, Set<Long> raftIds) {
+            this.emitter = emitter;
+            this.raftIds = raftIds;
+        }
+
+        void offer(AlertEventDto alert) {
+            synchronized (this) {
+                if (buffer.size() >= properties.getBufferSize()) {
+                    buffer.pollFirst();
+                    dropped++;
+                }
+                buffer.addLast(alert);
+            }
+            schedule();
+        }
+
+        void ping() {
+            synchronized (this) {
+                ping = true;
+            }
+            schedule();
+        }
+
+        // 每个连接同一时间最多一个发送任务，因此 emitter 只会被一个线程写
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // 服务关闭中，连接随后统一结束
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                AlertEventDto alert;
+                boolean sendReady, sendPing;
+                int lagged;
+                synchronized (this) {
+                    alert = buffer.pollFirst();
+                    sendReady = ready;
+                    sendPing = ping;
+                    lagged = dropped;
+                    ready = false;
+                    ping = false;
+                    dropped = 0;
+                }
+                if (sendReady && !send(SseEmitter.event().name("ready").data(raftIds))) {
+                    return;
+                }
+                if (lagged > 0 && !send(SseEmitter.event().name("lagged").data(lagged))) {
+                    return;
+                }
+                if (sendPing && !send(SseEmitter.event().comment("ping"))) {
+                    return;
+                }
+                if (alert == null) {
+                    if (sendReady || sendPing || lagged > 0) {
+                        continue;
+                    }
+                    scheduled.set(false);
+                    // 释放标记后再检查一次，避免与 offer / ping 竞争时漏发
+                    synchronized (this) {
+                        if (buffer.isEmpty() && !ping && dropped == 0) {
+                            return;
+                        }
+                    }
+                    if (!scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (!send(SseEmitter.event().name("alert").id(String.valueOf(alert.getId())).data(alert))) {
+                    return;
+                }
+            }
+        }
+
+        // 只在发送线程中调用
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // 客户端已断开
+                unsubscribe(this);
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
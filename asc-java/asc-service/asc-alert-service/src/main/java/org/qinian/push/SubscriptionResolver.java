@@ -0,0 +1,122 @@
+package org.qinian.push;
+
+import lombok.RequiredArgsConstructor;
+import org.qinian.domain.Result;
+import org.qinian.enums.UserTypes;
+import org.qinian.exception.BadRequestException;
+import org.qinian.exception.ForbiddenException;
+import org.qinian.exception.UnauthorizedException;
+import org.qinian.model.RemoteRaftService;
+import org.qinian.model.RemoteUserService;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * <p>
+ * 把订阅对象（渔排点 / 渔民 / 渔民管理者）解析为渔排点 id
+ * </p>
+ * 订阅范围以当前登录用户为准：渔民只能订阅自己的渔排点，渔民管理者只能订阅名下渔民的渔排点，管理员不限；
+ * 只在建立连接时解析一次，之后新增的渔排点需重新连接才会收到告警
+ */
+@Component
+@RequiredArgsConstructor
+public class SubscriptionResolver {
+    private static final int MAX_RAFTS = 5000;  // 单个连接最多订阅的渔排点数
+
+    private final RemoteRaftService remoteRaftService;
+
+    private final RemoteUserService remoteUserService;
+
+    /**
+     * 解析当前用户可订阅的渔排点，均不指定时订阅自己（渔民管理者为名下全部渔民）的渔排点
+     *
+     * @param userId   当前登录用户 id
+     * @param userType 当前登录用户类型，旧 token 没有类型时按渔民处理
+     */
+    public Set<Long> resolve(Long userId, UserTypes userType,
+                             List<Long> raftIds, Long fishermenId, Long fishingPlatoonId) {
+        if (userId == null) {
+            throw new UnauthorizedException("未登录");
+        }
+        boolean unspecified = (raftIds == null || raftIds.isEmpty()) && fishermenId == null && fishingPlatoonId == null;
+        if (userType == UserTypes.ADMIN) {
+            if (unspecified) {
+                throw new BadRequestException("请指定订阅的渔排点、渔民或渔民管理者");
+            }
+            return limit(collect(raftIds, fishermenId, fishingPlatoonId));
+        }
+
+        // 1.当前用户名下的渔民
+        List<Long> ownFishermen;
+        if (userType == UserTypes.FISHING_PLATOON) {
+            if (fishingPlatoonId != null && !fishingPlatoonId.equals(userId)) {
+                throw new ForbiddenException("无权订阅其他渔民管理者的告警");
+            }
+            ownFishermen = toIds(remoteUserService.getFishermenIds(userId));
+        } else {
+            if (fishingPlatoonId != null) {
+                throw new ForbiddenException("无权订阅渔民管理者的告警");
+            }
+            ownFishermen = List.of(userId);
+        }
+        if (fishermenId != null && !ownFishermen.contains(fishermenId)) {
+            throw new ForbiddenException("无权订阅该渔民的告警");
+        }
+
+        // 2.未指定或订阅整个管理者时取名下全部渔排点，否则逐项校验归属
+        Set<Long> owned = ownFishermen.isEmpty()
+                ? Set.of() : new HashSet<>(toIds(remoteRaftService.getFishRaftIdsByFishermen(ownFishermen)));
+        if (unspecified || fishingPlatoonId != null) {
+            return limit(owned);
+        }
+        Set<Long> result = new HashSet<>();
+        if (raftIds != null) {
+            if (!owned.containsAll(raftIds)) {
+                throw new ForbiddenException("无权订阅不属于自己的渔排点");
+            }
+            result.addAll(raftIds);
+        }
+        if (fishermenId != null) {
+            result.addAll(ownFishermen.size() == 1
+                    ? owned : toIds(remoteRaftService.getFishRaftIdsByFishermen(List.of(fishermenId))));
+        }
+        return limit(result);
+    }
+
+    private Set<Long> collect(List<Long> raftIds, Long fishermenId, Long fishingPlatoonId) {
+        Set<Long> result = new HashSet<>();
+        if (raftIds != null) {
+            result.addAll(raftIds);
+        }
+
+        List<Long> fishermenIds = new ArrayList<>();
+        if (fishermenId != null) {
+            fishermenIds.add(fishermenId);
+        }
+        if (fishingPlatoonId != null) {
+            fishermenIds.addAll(toIds(remoteUserService.getFishermenIds(fishingPlatoonId)));
+        }
+        if (!fishermenIds.isEmpty()) {
+            result.addAll(toIds(remoteRaftService.getFishRaftIdsByFishermen(fishermenIds)));
+        }
+        return result;
+    }
+
+    private static Set<Long> limit(Set<Long> raftIds) {
+        if (raftIds.size() > MAX_RAFTS) {
+            throw new BadRequestException("订阅的渔排点过多，最多 " + MAX_RAFTS + " 个");
+        }
+        return raftIds;
+    }
+
+    private static List<Long> toIds(Result result) {
+        if (result == null || !(result.getData() instanceof Collection<?> data)) {
+            return List.of();
+        }
+        return data.stream()
+                .filter(Number.class::isInstance)
+                .map(id -> ((Number) id).longValue())
+                .toList();
+    }
+}
@@ -1,7 +1,11 @@
 package org.qinian.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import org.qinian.domain.dto.alert.AddAlertInfoDto;
+import org.qinian.domain.dto.alert.AlertQueryDto;
 import org.qinian.domain.pojo.AlertInfo;
+import org.qinian.domain.vo.AlertBatchVo;
+import org.qinian.domain.vo.CursorPageVo;
 
 import java.util.List;
 
@@ -16,4 +20,14 @@ import java.util.List;
 public interface IAlertInfoService extends IService<AlertInfo> {
 
     List<AlertInfo> getAllByRaftId(Long id);
+
+    /**
+     * 去重后批量写入告警，(渔排点, 类型, 等级) 相同的告警在抑制窗口内只记录一次
+     */
+    AlertBatchVo accept(List<AddAlertInfoDto> alerts);
+
+    /**
+     * 按条件游标分页查询告警，不做 count
+     */
+    CursorPageVo<AlertInfo> pageAlerts(AlertQueryDto query);
 }
@@ -3,6 +3,8 @@ package org.qinian.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import org.qinian.domain.pojo.AlertType;
 
+import java.util.List;
+
 /**
  * <p>
  * 服务类
@@ -13,4 +15,19 @@ import org.qinian.domain.pojo.AlertType;
  */
 public interface IAlertTypeService extends IService<AlertType> {
 
+    /**
+     * 从本地缓存获取告警类型，不查库
+     */
+    AlertType getCached(Long id);
+
+    List<AlertType> listCached();
+
+    /**
+     * 增删改后通知所有实例刷新缓存
+     */
+    boolean createType(AlertType alertType);
+
+    boolean updateType(AlertType alertType);
+
+    boolean deleteType(Long id);
 }
@@ -1,12 +1,37 @@
 package org.qinian.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.cache.AlertTypeCache;
 import org.qinian.dao.AlertInfoMapper;
+import org.qinian.domain.dto.alert.AddAlertInfoDto;
+import org.qinian.domain.dto.alert.AlertEventDto;
+import org.qinian.domain.dto.alert.AlertQueryDto;
 import org.qinian.domain.pojo.AlertInfo;
+import org.qinian.domain.pojo.AlertType;
+import org.qinian.domain.vo.AlertBatchVo;
+import org.qinian.domain.vo.CursorPageVo;
+import org.qinian.listener.AlertPushListener;
+import org.qinian.properties.AlertProperties;
 import org.qinian.service.IAlertInfoService;
+import org.qinian.state.RaftStateStore;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -16,11 +41,185 @@ import java.util.List;
  * @author qinian
  * @since 2024-07-29
  */
+@Slf4j
 @Service
 public class AlertInfoServiceImpl extends ServiceImpl<AlertInfoMapper, AlertInfo> implements IAlertInfoService {
+    private static final String SUPPRESS_KEY = "alert_suppress_";
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final AlertProperties alertProperties;
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final MessageConverter messageConverter;
+
+    private final AlertTypeCache alertTypeCache;
+
+    private final RaftStateStore raftStateStore;
+
+    public AlertInfoServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                                AlertProperties alertProperties,
+                                RabbitTemplate rabbitTemplate,
+                                @Qualifier("jsonToMapMessageConverter") MessageConverter messageConverter,
+                                AlertTypeCache alertTypeCache,
+                                RaftStateStore raftStateStore) {
+        this.redisTemplate = redisTemplate;
+        this.alertProperties = alertProperties;
+        this.rabbitTemplate = rabbitTemplate;
+        this.messageConverter = messageConverter;
+        this.alertTypeCache = alertTypeCache;
+        this.raftStateStore = raftStateStore;
+    }
 
     @Override
     public List<AlertInfo> getAllByRaftId(Long id) {
         return baseMapper.getAllByRaftId(id);
     }
-}
\ No newline at end of file
+
+    @Override
+    public AlertBatchVo accept(List<AddAlertInfoDto> alerts) {
+        // 1. 批次内先按 (渔排点, 类型, 等级, 规则) 合并，保留第一条
+        Map<String, AddAlertInfoDto> unique = new LinkedHashMap<>();
+        for (AddAlertInfoDto alert : alerts) {
+            unique.putIfAbsent(suppressKey(alert), alert);
+        }
+
+        // 2. 抑制窗口内已记录过的丢弃，窗口用 Redis SET NX EX 实现，多实例共享
+        List<String> keys = new ArrayList<>(unique.keySet());
+        boolean[] acquired = tryAcquire(keys, new ArrayList<>(unique.values()));
+
+        List<String> acceptedKeys = new ArrayList<>();
+        List<AlertInfo> accepted = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < keys.size(); i++) {
+            if (!acquired[i]) {
+                continue;
+            }
+            AddAlertInfoDto alert = unique.get(keys.get(i));
+            acceptedKeys.add(keys.get(i));
+            accepted.add(new AlertInfo()
+                    .setFishRaftId(alert.getFishRaftId())
+                    .setAlertTypeId(alert.getAlertTypeId() == null ? null : alert.getAlertTypeId().getValue())
+                    .setAlertLevel(alert.getAlertLevel())
+                    .setAlertedMessage(alert.getAlertedMessage())
+                    .setAlertedTime(now));
+        }
+
+        // 3. 批量写入，失败时释放窗口，避免告警被误抑制
+        if (!accepted.isEmpty()) {
+            try {
+                saveBatch(accepted, alertProperties.getBatchSize());
+            } catch (RuntimeException e) {
+                redisTemplate.delete(acceptedKeys);
+                throw e;
+            }
+            updateState(accepted);
+            broadcast(accepted);
+        }
+
+        int suppressed = alerts.size() - accepted.size();
+        if (suppressed > 0) {
+            log.debug("告警去重：收到 {} 条，写入 {} 条，抑制 {} 条", alerts.size(), accepted.size(), suppressed);
+        }
+        return new AlertBatchVo(accepted, suppressed);
+    }
+
+    @Override
+    public CursorPageVo<AlertInfo> pageAlerts(AlertQueryDto query) {
+        if (query.getBeforeTime() != null && query.getBeforeId() == null) {
+            query.setBeforeId(Long.MAX_VALUE);
+        }
+        int limit = (query.getSize() == null || query.getSize() <= 0) ? 50 : Math.min(query.getSize(), MAX_PAGE_SIZE);
+
+        // 多查一条用于判断是否还有下一页，避免 count
+        List<AlertInfo> records = baseMapper.selectPage(query, limit + 1);
+        boolean hasMore = records.size() > limit;
+        if (hasMore) {
+            records = records.subList(0, limit);
+        }
+        Long nextCursor = hasMore ? records.get(records.size() - 1).getId() : null;
+
+        return new CursorPageVo<>(records, nextCursor, hasMore);
+    }
+
+    // 更新看板最新状态中的告警部分，失败不影响写入
+    private void updateState(List<AlertInfo> accepted) {
+        Map<Long, RaftStateStore.Update> updates = new LinkedHashMap<>();
+        for (AlertInfo alertInfo : accepted) {
+            // 同一渔排点合并为一次更新，后写入的覆盖最近告警
+            updates.computeIfAbsent(alertInfo.getFishRaftId(), RaftStateStore.Update::new)
+                    .increment(RaftStateStore.ALERT_COUNT, 1)
+                    .set(RaftStateStore.ALERT_LEVEL, alertInfo.getAlertLevel())
+                    .set(RaftStateStore.ALERT_MESSAGE, alertInfo.getAlertedMessage())
+                    .set(RaftStateStore.ALERT_TIME, alertInfo.getAlertedTime());
+        }
+        try {
+            raftStateStore.apply(updates.values());
+        } catch (DataAccessException e) {
+            log.warn("渔排点告警状态更新失败: {}", e.toString());
+        }
+    }
+
+    // 已入库的告警广播给所有实例做实时推送，推送失败不影响写入
+    private void broadcast(List<AlertInfo> accepted) {
+        try {
+            for (AlertInfo alertInfo : accepted) {
+                AlertType alertType = alertTypeCache.get(alertInfo.getAlertTypeId());
+                AlertEventDto event = new AlertEventDto(
+                        alertInfo.getId(),
+                        alertInfo.getFishRaftId(),
+                        alertInfo.getAlertTypeId(),
+                        alertType == null ? null : alertType.getMessage(),
+                        alertInfo.getAlertLevel(),
+                        alertInfo.getAlertedMessage(),
+                        alertInfo.getAlertedTime()
+                );
+                rabbitTemplate.send(AlertPushListener.EXCHANGE, "",
+                        messageConverter.toMessage(event, new MessageProperties()));
+            }
+        } catch (AmqpException e) {
+            log.warn("告警实时推送广播失败: {}", e.toString());
+        }
+    }
+
+    // 按顺序返回每条告警是否获得窗口，未配置窗口的类型始终获得
+    private boolean[] tryAcquire(List<String> keys, List<AddAlertInfoDto> alerts) {
+        boolean[] acquired = new boolean[keys.size()];
+        List<Integer> windowed = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Duration window = alertProperties.windowOf(alerts.get(i).getAlertTypeId());
+            if (window == null || window.isZero() || window.isNegative()) {
+                acquired[i] = true;
+            } else {
+                windowed.add(i);
+            }
+        }
+        if (windowed.isEmpty()) {
+            return acquired;
+        }
+
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (int i : windowed) {
+                    operations.opsForValue().setIfAbsent(keys.get(i), System.currentTimeMillis(),
+                            alertProperties.windowOf(alerts.get(i).getAlertTypeId()));
+                }
+                return null;
+            }
+        });
+        for (int n = 0; n < windowed.size(); n++) {
+            acquired[windowed.get(n)] = Boolean.TRUE.equals(results.get(n));
+        }
+        return acquired;
+    }
+
+    // 不同规则的告警（如极热与大风同为天气告警 / 高风险）各自抑制，互不合并
+    static String suppressKey(AddAlertInfoDto alert) {
+        String key = SUPPRESS_KEY + alert.getFishRaftId() + "_" + alert.getAlertTypeId() + "_" + alert.getAlertLevel();
+        return alert.getRule() == null || alert.getRule().isEmpty() ? key : key + "_" + alert.getRule();
+    }
+}
@@ -1,11 +1,15 @@
 package org.qinian.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.qinian.cache.AlertTypeCache;
 import org.qinian.dao.AlertTypeMapper;
 import org.qinian.domain.pojo.AlertType;
 import org.qinian.service.IAlertTypeService;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * <p>
  * 服务实现类
@@ -15,6 +19,44 @@ import org.springframework.stereotype.Service;
  * @since 2024-07-29
  */
 @Service
+@RequiredArgsConstructor
 public class AlertTypeServiceImpl extends ServiceImpl<AlertTypeMapper, AlertType> implements IAlertTypeService {
+    private final AlertTypeCache alertTypeCache;
+
+    @Override
+    public AlertType getCached(Long id) {
+        return alertTypeCache.get(id);
+    }
+
+    @Override
+    public List<AlertType> listCached() {
+        return alertTypeCache.list();
+    }
+
+    @Override
+    public boolean createType(AlertType alertType) {
+        boolean isSuccess = save(alertType);
+        if (isSuccess) {
+            alertTypeCache.invalidate(alertType.getId());
+        }
+        return isSuccess;
+    }
+
+    @Override
+    public boolean updateType(AlertType alertType) {
+        boolean isSuccess = updateById(alertType);
+        if (isSuccess) {
+            alertTypeCache.invalidate(alertType.getId());
+        }
+        return isSuccess;
+    }
 
+    @Override
+    public boolean deleteType(Long id) {
+        boolean isSuccess = removeById(id);
+        if (isSuccess) {
+            alertTypeCache.invalidate(id);
+        }
+        return isSuccess;
+    }
 }
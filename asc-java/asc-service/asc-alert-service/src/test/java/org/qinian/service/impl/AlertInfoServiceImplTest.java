@@ -0,0 +1,38 @@
+package org.qinian.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.qinian.domain.dto.alert.AddAlertInfoDto;
+import org.qinian.enums.AlertLevels;
+import org.qinian.enums.AlertTypes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * 告警抑制键
+ */
+class AlertInfoServiceImplTest {
+
+    @Test
+    void differentRulesOfSameTypeAndLevelAreNotMerged() {
+        AddAlertInfoDto heat = new AddAlertInfoDto(1L, AlertTypes.WEATHER_ALERT, AlertLevels.HEAT, "极热", "extreme-heat");
+        AddAlertInfoDto wind = new AddAlertInfoDto(1L, AlertTypes.WEATHER_ALERT, AlertLevels.HEAT, "大风", "strong-wind");
+
+        assertNotEquals(AlertInfoServiceImpl.suppressKey(heat), AlertInfoServiceImpl.suppressKey(wind));
+    }
+
+    @Test
+    void sameRuleIsMergedRegardlessOfMessage() {
+        AddAlertInfoDto first = new AddAlertInfoDto(1L, AlertTypes.WEATHER_ALERT, AlertLevels.HEAT, "当前值 36", "extreme-heat");
+        AddAlertInfoDto second = new AddAlertInfoDto(1L, AlertTypes.WEATHER_ALERT, AlertLevels.HEAT, "当前值 37", "extreme-heat");
+
+        assertEquals(AlertInfoServiceImpl.suppressKey(first), AlertInfoServiceImpl.suppressKey(second));
+    }
+
+    @Test
+    void alertsWithoutRuleKeepPreviousKey() {
+        AddAlertInfoDto alert = new AddAlertInfoDto(1L, AlertTypes.AI_ALERT, AlertLevels.HEAT, "面积突变");
+
+        assertEquals("alert_suppress_1_AI_ALERT_HEAT", AlertInfoServiceImpl.suppressKey(alert));
+    }
+}
@@ -5,11 +5,13 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
 @EnableDiscoveryClient
 @MapperScan(basePackages = {"org.qinian.dao"})
+@EnableScheduling
 public class AscAlgorithmServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(AscAlgorithmServiceApplication.class, args);
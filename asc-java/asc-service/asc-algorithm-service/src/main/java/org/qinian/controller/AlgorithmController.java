@@ -1,8 +1,17 @@
 package org.qinian.controller;
 
+import lombok.RequiredArgsConstructor;
+import org.qinian.domain.Result;
+import org.qinian.domain.pojo.Algorithm;
+import org.qinian.domain.pojo.AlgorithmJob;
+import org.qinian.enums.AIStatus;
+import org.qinian.registry.AlgorithmWorkerRegistry;
+import org.qinian.service.IAlgorithmJobService;
+import org.qinian.service.IAlgorithmService;
+import org.qinian.utils.UserContext;
+import org.springframework.web.bind.annotation.*;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
 
 /**
  * <p>
@@ -14,6 +23,88 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @RestController
 @RequestMapping("/algorithm")
+@RequiredArgsConstructor
 public class AlgorithmController {
+    private final IAlgorithmService algorithmService;
 
+    private final IAlgorithmJobService algorithmJobService;
+
+    private final AlgorithmWorkerRegistry workerRegistry;
+
+    // 登记算法实例（仅管理员），type 与 asc.algorithm.job.worker-type 一致且在线的实例参与任务调度
+    @PostMapping
+    public Result createAlgorithm(@RequestBody Algorithm algorithm) {
+        UserContext.checkAdmin();
+        workerRegistry.checkedBaseUrl(algorithm);
+        if (algorithm.getState() == null) {
+            algorithm.setState(AIStatus.ONLINE);
+        }
+        boolean isSuccess = algorithmService.save(algorithm);
+        if (isSuccess) {
+            workerRegistry.refresh();
+            return Result.success(200, "算法实例登记成功", algorithm);
+        } else {
+            return Result.fail(500, "登记算法实例失败", null);
+        }
+    }
+
+    // 查询所有算法实例
+    @GetMapping
+    public Result getAlgorithms() {
+        List<Algorithm> algorithmList = algorithmService.list();
+        return Result.success(200, "所有算法实例获取成功", algorithmList);
+    }
+
+    // 修改算法实例上下线状态（仅管理员）
+    @PutMapping("/{id}/state")
+    public Result updateAlgorithmState(@PathVariable Long id, @RequestParam AIStatus state) {
+        UserContext.checkAdmin();
+        boolean isSuccess = algorithmService.lambdaUpdate()
+                .eq(Algorithm::getId, id)
+                .set(Algorithm::getState, state)
+                .update();
+        if (isSuccess) {
+            workerRegistry.refresh();
+            return Result.success(200, "算法实例状态修改成功", null);
+        } else {
+            return Result.fail(404, "算法实例不存在", null);
+        }
+    }
+
+    // 删除算法实例（仅管理员）
+    @DeleteMapping("/{id}")
+    public Result deleteAlgorithm(@PathVariable Long id) {
+        UserContext.checkAdmin();
+        boolean isSuccess = algorithmService.removeById(id);
+        if (isSuccess) {
+            workerRegistry.refresh();
+            return Result.success(200, "算法实例删除成功", null);
+        } else {
+            return Result.fail(404, "算法实例不存在", null);
+        }
+    }
+
+    // 本实例调度器看到的算法实例负载
+    @GetMapping("/workers")
+    public Result getWorkerLoads() {
+        return Result.success(200, "算法实例负载获取成功", workerRegistry.loads());
+    }
+
+    // 算法任务查询根据id
+    @GetMapping("/job/{id}")
+    public Result getJobById(@PathVariable Long id) {
+        AlgorithmJob job = algorithmJobService.getById(id);
+        if (job != null) {
+            return Result.success(200, "算法任务获取成功", job);
+        } else {
+            return Result.fail(404, "算法任务不存在", null);
+        }
+    }
+
+    // 根据渔排点id查询算法任务，按提交时间倒序
+    @GetMapping("/job/raft/{id}")
+    public Result getJobsByRaftId(@PathVariable Long id) {
+        List<AlgorithmJob> jobList = algorithmJobService.listByRaftId(id);
+        return Result.success(200, "渔排点算法任务获取成功", jobList);
+    }
 }
@@ -1,8 +1,12 @@
 package org.qinian.controller;
 
+import lombok.RequiredArgsConstructor;
+import org.qinian.domain.Result;
+import org.qinian.domain.pojo.RecognitionInfo;
+import org.qinian.service.IRecognitionInfoService;
+import org.springframework.web.bind.annotation.*;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
 
 /**
  * <p>
@@ -14,6 +18,47 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @RestController
 @RequestMapping("/recognition-info")
+@RequiredArgsConstructor
 public class RecognitionInfoController {
+    private final IRecognitionInfoService recognitionInfoService;
 
+    // 创建识别结果
+    @PostMapping
+    public Result createRecognitionInfo(@RequestBody RecognitionInfo recognitionInfo) {
+        boolean isSuccess = recognitionInfoService.saveRecognition(recognitionInfo);
+        if (isSuccess) {
+            return Result.success(200, "识别结果创建成功", recognitionInfo);
+        } else {
+            return Result.fail(500, "创建识别结果失败", null);
+        }
+    }
+
+    // 识别结果查询根据id，不含掩码
+    @GetMapping("/{id}")
+    public Result getRecognitionInfoById(@PathVariable Long id) {
+        RecognitionInfo recognitionInfo = recognitionInfoService.getById(id);
+        if (recognitionInfo != null) {
+            return Result.success(200, "识别结果获取成功", recognitionInfo);
+        } else {
+            return Result.fail(404, "识别结果不存在", null);
+        }
+    }
+
+    // 识别结果掩码查询根据id
+    @GetMapping("/{id}/mask")
+    public Result getRecognitionMask(@PathVariable Long id) {
+        String mask = recognitionInfoService.getMask(id);
+        if (mask != null) {
+            return Result.success(200, "识别结果掩码获取成功", mask);
+        } else {
+            return Result.fail(404, "识别结果掩码不存在", null);
+        }
+    }
+
+    // 根据渔排点id查询识别结果，不含掩码
+    @GetMapping("/raft/{id}")
+    public Result getRecognitionInfosByRaftId(@PathVariable Long id) {
+        List<RecognitionInfo> recognitionInfoList = recognitionInfoService.listByRaftId(id);
+        return Result.success(200, "渔排点识别结果获取成功", recognitionInfoList);
+    }
 }
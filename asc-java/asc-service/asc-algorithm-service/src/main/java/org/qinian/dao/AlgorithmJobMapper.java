@@ -0,0 +1,67 @@
+package org.qinian.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.qinian.domain.pojo.AlgorithmJob;
+import org.qinian.enums.JobStatus;
+import org.qinian.enums.JobTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * <p>
+ * 算法任务 Mapper 接口
+ * </p>
+ */
+public interface AlgorithmJobMapper extends BaseMapper<AlgorithmJob> {
+
+    @Select("select * from algorithm_job where status = #{status} and next_run_time <= now() " +
+            "order by next_run_time, Id limit #{size}")
+    List<AlgorithmJob> selectDue(@Param("status") JobStatus status, @Param("size") Integer size);
+
+    /**
+     * 条件更新状态，多实例部署时只有一个调度器能领取成功
+     */
+    @Update("update algorithm_job set status = #{to}, update_time = now() where Id = #{id} and status = #{from}")
+    int transit(@Param("id") Long id, @Param("from") JobStatus from, @Param("to") JobStatus to);
+
+    /**
+     * 执行中超时的任务重新排队
+     */
+    @Update("update algorithm_job set status = #{pending}, next_run_time = now(), update_time = now() " +
+            "where status = #{running} and update_time < #{before}")
+    int resetStale(@Param("running") JobStatus running, @Param("pending") JobStatus pending,
+                   @Param("before") LocalDateTime before);
+
+    @Select("select count(*) from algorithm_job where status = #{status}")
+    long countByStatus(JobStatus status);
+
+    @Select("select count(*) from algorithm_job where fish_raft_id = #{fishRaftId} and job_type = #{jobType} " +
+            "and status = #{status}")
+    long countByRaft(@Param("fishRaftId") Long fishRaftId, @Param("jobType") JobTypes jobType,
+                     @Param("status") JobStatus status);
+
+    /**
+     * 某任务之后提交的同一渔排点的指定类型任务数（不论状态）
+     */
+    @Select("select count(*) from algorithm_job where fish_raft_id = #{fishRaftId} and job_type = #{jobType} " +
+            "and Id > #{afterId}")
+    long countAfter(@Param("fishRaftId") Long fishRaftId, @Param("jobType") JobTypes jobType,
+                    @Param("afterId") Long afterId);
+
+    /**
+     * 渔排点最近一次登记成功的算法实例
+     */
+    @Select("select worker_id from algorithm_job where fish_raft_id = #{fishRaftId} and job_type = #{jobType} " +
+            "and status = #{status} order by Id desc limit 1")
+    Long selectWorkerId(@Param("fishRaftId") Long fishRaftId, @Param("jobType") JobTypes jobType,
+                        @Param("status") JobStatus status);
+
+    @Update("update algorithm_job set status = #{to}, update_time = now() " +
+            "where fish_raft_id = #{fishRaftId} and job_type = #{jobType} and status = #{from}")
+    int transitByRaft(@Param("fishRaftId") Long fishRaftId, @Param("jobType") JobTypes jobType,
+                      @Param("from") JobStatus from, @Param("to") JobStatus to);
+}
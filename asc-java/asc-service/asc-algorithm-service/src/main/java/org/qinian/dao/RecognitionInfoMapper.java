@@ -1,8 +1,11 @@
 package org.qinian.dao;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Select;
 import org.qinian.domain.pojo.RecognitionInfo;
 
+import java.util.List;
+
 /**
  * <p>
  * Mapper 接口
@@ -13,4 +16,16 @@ import org.qinian.domain.pojo.RecognitionInfo;
  */
 public interface RecognitionInfoMapper extends BaseMapper<RecognitionInfo> {
 
+    /**
+     * 只查询掩码列（seg_mask_data 为紧凑编码，seg_predict_mask 为未迁移的旧版文本）
+     */
+    @Select("select Id, seg_predict_mask, seg_mask_data from recognition_info where Id = #{id}")
+    RecognitionInfo selectMaskById(Long id);
+
+    /**
+     * 尚未迁移的旧版文本掩码，按 id 顺序取一批
+     */
+    @Select("select Id, seg_predict_mask from recognition_info " +
+            "where seg_predict_mask is not null and seg_mask_data is null order by Id limit #{size}")
+    List<RecognitionInfo> selectLegacyMasks(int size);
 }
@@ -0,0 +1,65 @@
+package org.qinian.listener;
+
+import lombok.RequiredArgsConstructor;
+import org.qinian.domain.dto.fishRaft.PyRaftDto;
+import org.qinian.domain.dto.fishRaft.RaftEventDto;
+import org.qinian.enums.JobTypes;
+import org.qinian.properties.AlgorithmJobProperties;
+import org.qinian.service.IAlgorithmJobService;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>
+ * 把渔排点事件转为分割算法任务
+ * </p>
+ * 沿用 raft.python.queue，原先由 fishRaft-service 直接转发给 Python 服务。
+ * 等待执行的任务超过上限时阻塞消费，未确认的消息留在 MQ 中，形成背压
+ */
+@Component
+@RequiredArgsConstructor
+public class RaftJobListener {
+    private final IAlgorithmJobService algorithmJobService;
+
+    private final AlgorithmJobProperties properties;
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue(name = "raft.python.queue", durable = "true"),
+            exchange = @Exchange(name = "raft.topic", type = "topic"),
+            key = {"raft." + RaftEventDto.CREATED, "raft." + RaftEventDto.DELETED}
+    ), messageConverter = "jsonToMapMessageConverter")
+    public void listenRaftEvent(RaftEventDto event) {
+        awaitCapacity();
+        if (RaftEventDto.CREATED.equals(event.getType())) {
+            PyRaftDto pyRaftDto = new PyRaftDto(
+                    event.getFishRaftId(),
+                    event.getFishermenId(),   // 变量名字不一样
+                    event.getLongitude(),
+                    event.getLatitude(),
+                    event.getName(),
+                    event.getZoom(),
+                    event.getSize() == null ? null : event.getSize().doubleValue(),
+                    event.getMessage(),
+                    event.getMask()
+            );
+            algorithmJobService.submit(JobTypes.RAFT_ADD, event.getFishRaftId(), pyRaftDto);
+        } else if (RaftEventDto.DELETED.equals(event.getType())) {
+            algorithmJobService.submit(JobTypes.RAFT_DELETE, event.getFishRaftId(), event.getFishRaftId());
+        }
+    }
+
+    private void awaitCapacity() {
+        while (!algorithmJobService.hasCapacity()) {
+            try {
+                Thread.sleep(properties.getPollInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // 停机中，抛出异常让消息重新入队，由其它实例处理
+                throw new IllegalStateException("算法任务队列已满，停止消费", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.qinian.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 算法任务调度参数
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "asc.algorithm.job")
+public class AlgorithmJobProperties {
+    private String workerType = "segmentation";  // 参与调度的算法实例类型（algorithm.type）
+
+    private String raftPath = "/api/python/raft";  // 算法实例的渔排接口路径
+
+    private String defaultWorkerUrl = "http://127.0.0.1:9008";  // 未登记任何在线实例时使用，为空则任务等待
+
+    private List<String> allowedHosts = List.of("127.0.0.1", "localhost");  // 允许登记的算法实例主机，防止把任务请求发往任意地址
+
+    private int workerConcurrency = 2;  // 每个实例同时执行的任务数
+
+    private int dispatchThreads = 8;  // 发送任务的线程数
+
+    private int queueCapacity = 64;  // 本地待发送队列长度，满了本轮不再领取任务
+
+    private int maxPending = 1000;  // 等待执行的任务上限，超过后暂停消费渔排点事件
+
+    private int maxAttempts = 5;  // 最多尝试次数，耗尽后任务置为失败
+
+    private Duration backoffBase = Duration.ofSeconds(5);  // 重试退避基数，按 2^(n-1) 递增
+
+    private Duration backoffMax = Duration.ofMinutes(5);  // 重试退避上限
+
+    private Duration staleTimeout = Duration.ofMinutes(5);  // 执行中超过该时间未完成视为实例已崩溃，重新排队
+
+    private Duration pollInterval = Duration.ofSeconds(2);  // 领取任务的间隔
+
+    private Duration refreshInterval = Duration.ofSeconds(30);  // 刷新算法实例列表的间隔
+}
@@ -0,0 +1,258 @@
+package org.qinian.registry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.domain.pojo.Algorithm;
+import org.qinian.enums.AIStatus;
+import org.qinian.exception.BadRequestException;
+import org.qinian.properties.AlgorithmJobProperties;
+import org.qinian.service.IAlgorithmService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.*;
+
+/**
+ * <p>
+ * 在线算法实例及其负载
+ * </p>
+ * 定时从 algorithm 表加载在线实例，按正在执行的任务数做最少负载路由；
+ * 连续失败的实例按指数退避暂停分配，成功一次即恢复。没有登记实例时使用配置的默认地址；
+ * 默认地址上登记的渔排点（worker_id = 0）在有登记实例后仍按 id 路由到默认地址删除
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlgorithmWorkerRegistry {
+    public static final long DEFAULT_WORKER_ID = 0L;
+
+    private final IAlgorithmService algorithmService;
+
+    private final AlgorithmJobProperties properties;
+
+    private final Map<Long, Worker> workers = new LinkedHashMap<>();  // 受 this 保护
+
+    private Worker defaultWorker;  // 配置的默认地址，只在没有登记实例时参与负载分配，受 this 保护
+
+    private int cursor;  // 负载相同时轮转起点，受 this 保护
+
+    /**
+     * 算法实例，inFlight 等可变状态受 registry 锁保护
+     */
+    public static final class Worker {
+        private final Long id;
+        private final String name;
+        private volatile String baseUrl;
+        private int inFlight;
+        private int failures;
+        private long suspendedUntil;
+
+        Worker(Long id, String name, String baseUrl) {
+            this.id = id;
+            this.name = name;
+            this.baseUrl = baseUrl;
+        }
+
+        public Long id() {
+            return id;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public String baseUrl() {
+            return baseUrl;
+        }
+    }
+
+    /**
+     * 实例负载快照
+     */
+    public record WorkerLoad(Long id, String name, String baseUrl, int inFlight, int failures, boolean suspended) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${asc.algorithm.job.refresh-interval:PT30S}",
+            fixedDelayString = "${asc.algorithm.job.refresh-interval:PT30S}")
+    public void refresh() {
+        update(algorithmService.lambdaQuery()
+                .eq(Algorithm::getType, properties.getWorkerType())
+                .eq(Algorithm::getState, AIStatus.ONLINE)
+                .list());
+    }
+
+    /**
+     * 以在线实例列表替换当前实例，仍在线实例的负载计数保留
+     */
+    public void update(List<Algorithm> online) {
+        Map<Long, String> latest = new LinkedHashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        for (Algorithm algorithm : online) {
+            String url;
+            try {
+                url = checkedBaseUrl(algorithm);
+            } catch (BadRequestException e) {
+                // 白名单收紧前登记的实例不再参与调度
+                log.warn("算法实例 {}（{}）地址不可用，跳过: {}", algorithm.getId(), algorithm.getName(), e.getMessage());
+                continue;
+            }
+            latest.put(algorithm.getId(), url);
+            names.put(algorithm.getId(), algorithm.getName());
+        }
+        String defaultUrl = properties.getDefaultWorkerUrl();
+        boolean hasDefault = defaultUrl != null && !defaultUrl.isBlank();
+
+        synchronized (this) {
+            if (!hasDefault) {
+                defaultWorker = null;
+            } else if (defaultWorker == null) {
+                defaultWorker = new Worker(DEFAULT_WORKER_ID, "default", trimSlash(defaultUrl));
+            } else {
+                defaultWorker.baseUrl = trimSlash(defaultUrl);
+            }
+            if (latest.isEmpty() && defaultWorker != null) {
+                latest.put(DEFAULT_WORKER_ID, defaultWorker.baseUrl);
+                names.put(DEFAULT_WORKER_ID, defaultWorker.name);
+            }
+            // 保留仍在线实例的负载计数，下线的实例上正在执行的任务照常完成
+            workers.keySet().retainAll(latest.keySet());
+            latest.forEach((id, url) -> {
+                Worker worker = workers.get(id);
+                if (worker == null) {
+                    workers.put(id, id == DEFAULT_WORKER_ID ? defaultWorker : new Worker(id, names.get(id), url));
+                } else {
+                    worker.baseUrl = url;
+                }
+            });
+        }
+        log.debug("算法实例刷新完成，在线 {} 个", latest.size());
+    }
+
+    /**
+     * 选出负载最低且未满的实例并占用一个执行位
+     *
+     * @param workerId 不为 null 时只使用该实例（删除任务需发给登记时的实例）
+     * @return 没有可用实例时为 null
+     */
+    public synchronized Worker acquire(Long workerId) {
+        long now = System.currentTimeMillis();
+        int limit = properties.getWorkerConcurrency();
+        if (workerId != null) {
+            Worker worker = find(workerId);
+            if (worker == null || worker.inFlight >= limit || worker.suspendedUntil > now) {
+                return null;
+            }
+            worker.inFlight++;
+            return worker;
+        }
+
+        List<Worker> candidates = new ArrayList<>(workers.values());
+        Worker best = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Worker worker = candidates.get((cursor + i) % candidates.size());
+            if (worker.inFlight >= limit || worker.suspendedUntil > now) {
+                continue;
+            }
+            if (best == null || worker.inFlight < best.inFlight) {
+                best = worker;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        cursor++;
+        best.inFlight++;
+        return best;
+    }
+
+    /**
+     * 释放执行位并记录结果
+     */
+    public synchronized void release(Worker worker, boolean success) {
+        worker.inFlight = Math.max(0, worker.inFlight - 1);
+        if (success) {
+            worker.failures = 0;
+            worker.suspendedUntil = 0;
+            return;
+        }
+        worker.failures++;
+        long base = properties.getBackoffBase().toMillis();
+        long pause = Math.min(properties.getBackoffMax().toMillis(), base << Math.min(worker.failures - 1, 20));
+        worker.suspendedUntil = System.currentTimeMillis() + pause;
+        if (worker.failures == 1 || worker.failures % 10 == 0) {
+            log.warn("算法实例 {}（{}）连续失败 {} 次，暂停分配 {} ms", worker.id, worker.baseUrl, worker.failures, pause);
+        }
+    }
+
+    /**
+     * 所有可用实例剩余的执行位
+     */
+    public synchronized int freeSlots() {
+        long now = System.currentTimeMillis();
+        int free = 0;
+        for (Worker worker : workers.values()) {
+            if (worker.suspendedUntil <= now) {
+                free += Math.max(0, properties.getWorkerConcurrency() - worker.inFlight);
+            }
+        }
+        return free;
+    }
+
+    public synchronized boolean contains(Long workerId) {
+        return find(workerId) != null;
+    }
+
+    // 按 id 查找实例，默认地址即使已不参与负载分配也可按 id 找到
+    private Worker find(Long workerId) {
+        Worker worker = workers.get(workerId);
+        return worker == null && workerId == DEFAULT_WORKER_ID ? defaultWorker : worker;
+    }
+
+    public synchronized List<WorkerLoad> loads() {
+        long now = System.currentTimeMillis();
+        return workers.values().stream()
+                .map(worker -> new WorkerLoad(worker.id, worker.name, worker.baseUrl, worker.inFlight,
+                        worker.failures, worker.suspendedUntil > now))
+                .toList();
+    }
+
+    /**
+     * 校验并拼接算法实例地址：只允许 http/https、主机在 asc.algorithm.job.allowed-hosts 中，且不带路径、参数与用户信息
+     */
+    public String checkedBaseUrl(Algorithm algorithm) {
+        String url = baseUrl(algorithm);
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new BadRequestException("算法实例地址格式错误");
+        }
+        String host = uri.getHost();
+        if (host == null || uri.getUserInfo() != null || uri.getQuery() != null || uri.getFragment() != null
+                || (uri.getPath() != null && !uri.getPath().isEmpty())) {
+            throw new BadRequestException("算法实例地址格式错误");
+        }
+        if (properties.getAllowedHosts().stream().noneMatch(host::equalsIgnoreCase)) {
+            throw new BadRequestException("算法实例主机不在允许列表中: " + host);
+        }
+        return url;
+    }
+
+    // url 可带协议，port 为空时不拼接
+    private static String baseUrl(Algorithm algorithm) {
+        String url = algorithm.getUrl() == null ? "" : trimSlash(algorithm.getUrl());
+        if (!url.startsWith("http://") && !url.startsWith("https://")) {
+            url = "http://" + url;
+        }
+        return algorithm.getPort() == null ? url : url + ":" + algorithm.getPort();
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,129 @@
+package org.qinian.scheduled;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.domain.pojo.AlgorithmJob;
+import org.qinian.enums.JobTypes;
+import org.qinian.http.OutboundHttpClient;
+import org.qinian.properties.AlgorithmJobProperties;
+import org.qinian.registry.AlgorithmWorkerRegistry;
+import org.qinian.service.IAlgorithmJobService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 算法任务调度器
+ * </p>
+ * 每轮只领取可用实例剩余执行位和本地队列都装得下的任务数，任务始终在表中排队，
+ * 实例容量不足时自然积压；发送失败按退避重试，删除任务发给登记该渔排点的实例
+ */
+@Slf4j
+@Component
+public class AlgorithmJobDispatcher {
+    private final IAlgorithmJobService algorithmJobService;
+
+    private final AlgorithmWorkerRegistry workerRegistry;
+
+    private final AlgorithmJobProperties properties;
+
+    private final OutboundHttpClient httpClient;
+
+    private final ThreadPoolExecutor executor;
+
+    public AlgorithmJobDispatcher(IAlgorithmJobService algorithmJobService,
+                                  AlgorithmWorkerRegistry workerRegistry,
+                                  AlgorithmJobProperties properties,
+                                  OutboundHttpClient httpClient) {
+        this.algorithmJobService = algorithmJobService;
+        this.workerRegistry = workerRegistry;
+        this.properties = properties;
+        this.httpClient = httpClient;
+        this.executor = new ThreadPoolExecutor(properties.getDispatchThreads(), properties.getDispatchThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, "algorithm-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${asc.algorithm.job.poll-interval:PT2S}")
+    public void dispatch() {
+        algorithmJobService.resetStale(properties.getStaleTimeout());
+
+        int free = Math.min(workerRegistry.freeSlots(), executor.getQueue().remainingCapacity());
+        if (free <= 0) {
+            return;
+        }
+        for (AlgorithmJob job : algorithmJobService.claimDue(free)) {
+            AlgorithmWorkerRegistry.Worker worker = route(job);
+            if (worker == null) {
+                continue;
+            }
+            try {
+                executor.execute(() -> run(job, worker));
+            } catch (RejectedExecutionException e) {
+                workerRegistry.release(worker, true);
+                algorithmJobService.postpone(job, properties.getPollInterval(), "本地发送队列已满");
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 未完成的任务保持执行中，超时后由其它实例重新排队
+        executor.shutdownNow();
+    }
+
+    // 选择实例并占用执行位，无法执行时已处理任务状态并返回 null
+    AlgorithmWorkerRegistry.Worker route(AlgorithmJob job) {
+        Long target = null;
+        if (job.getJobType() == JobTypes.RAFT_DELETE) {
+            // 提交删除时正在执行、之后失败或超时重新排队的登记任务，在此再取消一次
+            algorithmJobService.cancelPendingAdds(job.getFishRaftId());
+            if (algorithmJobService.isAdding(job.getFishRaftId())) {
+                algorithmJobService.postpone(job, properties.getPollInterval(), "等待登记任务完成");
+                return null;
+            }
+            target = algorithmJobService.assignedWorker(job.getFishRaftId());
+            if (target == null) {
+                algorithmJobService.succeed(job, null, "渔排点未登记到任何算法实例，无需删除");
+                return null;
+            }
+            if (!workerRegistry.contains(target)) {
+                algorithmJobService.postpone(job, properties.getRefreshInterval(), "登记该渔排点的算法实例 " + target + " 不在线");
+                return null;
+            }
+        }
+        AlgorithmWorkerRegistry.Worker worker = workerRegistry.acquire(target);
+        if (worker == null) {
+            algorithmJobService.postpone(job, properties.getPollInterval(), "没有空闲的算法实例");
+        }
+        return worker;
+    }
+
+    void run(AlgorithmJob job, AlgorithmWorkerRegistry.Worker worker) {
+        String url = worker.baseUrl() + properties.getRaftPath() + job.getJobType().getPath();
+        boolean success = false;
+        try {
+            HttpResponse<String> response = httpClient.postJson(url, job.getPayload());
+            success = response.statusCode() / 100 == 2;
+            if (success) {
+                algorithmJobService.succeed(job, worker.id(), null);
+            } else {
+                algorithmJobService.fail(job, "HTTP " + response.statusCode() + " " + worker.baseUrl());
+            }
+        } catch (IOException | RuntimeException e) {
+            algorithmJobService.fail(job, e + " " + worker.baseUrl());
+        } finally {
+            workerRegistry.release(worker, success);
+        }
+    }
+}
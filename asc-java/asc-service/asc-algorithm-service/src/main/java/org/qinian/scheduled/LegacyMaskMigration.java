@@ -0,0 +1,41 @@
+package org.qinian.scheduled;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.service.IRecognitionInfoService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 启动后把旧版文本掩码分批转为紧凑编码（seg_mask_data），全部迁移后每次启动只剩一次空查询
+ * <p>
+ * 读取接口不再写库，迁移完成前未迁移的掩码按文本原样返回
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyMaskMigration {
+    private static final int BATCH_SIZE = 100;
+
+    private final IRecognitionInfoService recognitionInfoService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        int migrated = 0;
+        try {
+            int batch;
+            do {
+                batch = recognitionInfoService.migrateLegacyMasks(BATCH_SIZE);
+                migrated += batch;
+            } while (batch == BATCH_SIZE);
+        } catch (RuntimeException e) {
+            // 下次启动继续，未迁移的掩码仍可读取
+            log.warn("旧版掩码迁移失败，已迁移 {} 条: {}", migrated, e.toString());
+            return;
+        }
+        if (migrated > 0) {
+            log.info("旧版掩码迁移完成，共 {} 条", migrated);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.qinian.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import org.qinian.domain.pojo.AlgorithmJob;
+import org.qinian.enums.JobTypes;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * <p>
+ * 算法任务服务类
+ * </p>
+ */
+public interface IAlgorithmJobService extends IService<AlgorithmJob> {
+
+    /**
+     * 提交任务；删除渔排点时同时取消该渔排点尚未执行的登记任务
+     *
+     * @param payload 发给算法实例的请求体，序列化为 json 保存
+     */
+    AlgorithmJob submit(JobTypes jobType, Long fishRaftId, Object payload);
+
+    /**
+     * 取消渔排点尚未执行的登记任务
+     *
+     * @return 取消的任务数
+     */
+    int cancelPendingAdds(Long fishRaftId);
+
+    /**
+     * 等待执行的任务是否未超过上限
+     */
+    boolean hasCapacity();
+
+    /**
+     * 领取到期的任务，最多 size 条，返回的任务已置为执行中
+     */
+    List<AlgorithmJob> claimDue(int size);
+
+    /**
+     * 执行中超时的任务重新排队
+     */
+    int resetStale(Duration timeout);
+
+    /**
+     * 渔排点当前登记所在的算法实例，没有时为 null
+     */
+    Long assignedWorker(Long fishRaftId);
+
+    /**
+     * 渔排点是否有正在执行的登记任务
+     */
+    boolean isAdding(Long fishRaftId);
+
+    /**
+     * 执行成功；以下状态变更只对执行中的任务生效，任务已超时重新排队或被取消时返回 false
+     */
+    boolean succeed(AlgorithmJob job, Long workerId, String message);
+
+    /**
+     * 执行失败：未耗尽次数时按退避重新排队，否则置为失败；
+     * 登记任务之后已提交了该渔排点的删除任务时直接取消，不再重试
+     */
+    boolean fail(AlgorithmJob job, String error);
+
+    /**
+     * 暂时无法执行（如没有可用实例），推迟但不计入尝试次数
+     */
+    boolean postpone(AlgorithmJob job, Duration delay, String reason);
+
+    List<AlgorithmJob> listByRaftId(Long fishRaftId);
+}
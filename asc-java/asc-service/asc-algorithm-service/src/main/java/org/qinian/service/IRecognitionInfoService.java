@@ -3,6 +3,8 @@ package org.qinian.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import org.qinian.domain.pojo.RecognitionInfo;
 
+import java.util.List;
+
 /**
  * <p>
  * 服务类
@@ -13,4 +15,27 @@ import org.qinian.domain.pojo.RecognitionInfo;
  */
 public interface IRecognitionInfoService extends IService<RecognitionInfo> {
 
+    /**
+     * 保存识别结果，掩码以紧凑编码写入
+     */
+    boolean saveRecognition(RecognitionInfo recognitionInfo);
+
+    /**
+     * 渔排点的识别结果，不含掩码
+     */
+    List<RecognitionInfo> listByRaftId(Long fishRaftId);
+
+    /**
+     * 读取识别结果的掩码，未迁移的旧版文本掩码原样返回
+     *
+     * @return 掩码文本，不存在时为 null
+     */
+    String getMask(Long id);
+
+    /**
+     * 把一批旧版文本掩码转为紧凑编码
+     *
+     * @return 本批处理的条数，小于 batchSize 说明已迁移完
+     */
+    int migrateLegacyMasks(int batchSize);
 }
@@ -0,0 +1,202 @@
+package org.qinian.service.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.dao.AlgorithmJobMapper;
+import org.qinian.domain.pojo.AlgorithmJob;
+import org.qinian.enums.JobStatus;
+import org.qinian.enums.JobTypes;
+import org.qinian.exception.BadRequestException;
+import org.qinian.properties.AlgorithmJobProperties;
+import org.qinian.service.IAlgorithmJobService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>
+ * 算法任务服务实现类，任务表即持久化队列
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AlgorithmJobServiceImpl extends ServiceImpl<AlgorithmJobMapper, AlgorithmJob> implements IAlgorithmJobService {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final AlgorithmJobProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public AlgorithmJob submit(JobTypes jobType, Long fishRaftId, Object payload) {
+        if (jobType == JobTypes.RAFT_DELETE) {
+            cancelPendingAdds(fishRaftId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        AlgorithmJob job = new AlgorithmJob()
+                .setJobType(jobType)
+                .setFishRaftId(fishRaftId)
+                .setPayload(toJson(payload))
+                .setStatus(JobStatus.PENDING)
+                .setAttempts(0)
+                .setNextRunTime(now)
+                .setCreateTime(now)
+                .setUpdateTime(now);
+        save(job);
+        return job;
+    }
+
+    @Override
+    public int cancelPendingAdds(Long fishRaftId) {
+        int cancelled = baseMapper.transitByRaft(fishRaftId, JobTypes.RAFT_ADD, JobStatus.PENDING, JobStatus.CANCELLED);
+        if (cancelled > 0) {
+            log.info("渔排点 {} 已删除，取消 {} 个未执行的登记任务", fishRaftId, cancelled);
+        }
+        return cancelled;
+    }
+
+    @Override
+    public boolean hasCapacity() {
+        return baseMapper.countByStatus(JobStatus.PENDING) < properties.getMaxPending();
+    }
+
+    @Override
+    public List<AlgorithmJob> claimDue(int size) {
+        List<AlgorithmJob> claimed = new ArrayList<>();
+        for (AlgorithmJob job : baseMapper.selectDue(JobStatus.PENDING, size)) {
+            // 条件更新失败说明已被其它调度实例领取
+            if (baseMapper.transit(job.getId(), JobStatus.PENDING, JobStatus.RUNNING) == 1) {
+                claimed.add(job.setStatus(JobStatus.RUNNING));
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public int resetStale(Duration timeout) {
+        int reset = baseMapper.resetStale(JobStatus.RUNNING, JobStatus.PENDING, LocalDateTime.now().minus(timeout));
+        if (reset > 0) {
+            log.warn("{} 个算法任务执行超时，重新排队", reset);
+        }
+        return reset;
+    }
+
+    @Override
+    public Long assignedWorker(Long fishRaftId) {
+        return baseMapper.selectWorkerId(fishRaftId, JobTypes.RAFT_ADD, JobStatus.SUCCEEDED);
+    }
+
+    @Override
+    public boolean isAdding(Long fishRaftId) {
+        return baseMapper.countByRaft(fishRaftId, JobTypes.RAFT_ADD, JobStatus.RUNNING) > 0;
+    }
+
+    @Override
+    public boolean succeed(AlgorithmJob job, Long workerId, String message) {
+        boolean updated = lambdaUpdate()
+                .eq(AlgorithmJob::getId, job.getId())
+                .eq(AlgorithmJob::getStatus, JobStatus.RUNNING)
+                .set(AlgorithmJob::getStatus, JobStatus.SUCCEEDED)
+                .set(AlgorithmJob::getAttempts, job.getAttempts() + 1)
+                .set(AlgorithmJob::getWorkerId, workerId)
+                .set(AlgorithmJob::getLastError, truncate(message))
+                .set(AlgorithmJob::getUpdateTime, LocalDateTime.now())
+                .update();
+        return checkRunning(job, updated, "成功");
+    }
+
+    @Override
+    public boolean fail(AlgorithmJob job, String error) {
+        int attempts = job.getAttempts() + 1;
+        boolean exhausted = attempts >= properties.getMaxAttempts();
+        // 执行期间渔排点已被删除：删除任务可能已按“未登记”完成，重试的登记不能再执行
+        boolean deleted = job.getJobType() == JobTypes.RAFT_ADD
+                && baseMapper.countAfter(job.getFishRaftId(), JobTypes.RAFT_DELETE, job.getId()) > 0;
+        JobStatus status = deleted ? JobStatus.CANCELLED : exhausted ? JobStatus.FAILED : JobStatus.PENDING;
+        LocalDateTime now = LocalDateTime.now();
+        boolean updated = lambdaUpdate()
+                .eq(AlgorithmJob::getId, job.getId())
+                .eq(AlgorithmJob::getStatus, JobStatus.RUNNING)
+                .set(AlgorithmJob::getStatus, status)
+                .set(AlgorithmJob::getAttempts, attempts)
+                .set(AlgorithmJob::getLastError, truncate(error))
+                .set(AlgorithmJob::getNextRunTime, status == JobStatus.PENDING ? now.plus(backoff(attempts)) : now)
+                .set(AlgorithmJob::getUpdateTime, now)
+                .update();
+        if (!checkRunning(job, updated, "失败")) {
+            return false;
+        }
+        if (deleted) {
+            log.info("渔排点 {} 已删除，登记任务 {} 失败后不再重试", job.getFishRaftId(), job.getId());
+        } else if (exhausted) {
+            log.error("算法任务 {}（{} 渔排点 {}）重试 {} 次后失败: {}",
+                    job.getId(), job.getJobType().getDesc(), job.getFishRaftId(), attempts, error);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean postpone(AlgorithmJob job, Duration delay, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean updated = lambdaUpdate()
+                .eq(AlgorithmJob::getId, job.getId())
+                .eq(AlgorithmJob::getStatus, JobStatus.RUNNING)
+                .set(AlgorithmJob::getStatus, JobStatus.PENDING)
+                .set(AlgorithmJob::getLastError, truncate(reason))
+                .set(AlgorithmJob::getNextRunTime, now.plus(delay))
+                .set(AlgorithmJob::getUpdateTime, now)
+                .update();
+        return checkRunning(job, updated, "推迟");
+    }
+
+    @Override
+    public List<AlgorithmJob> listByRaftId(Long fishRaftId) {
+        return lambdaQuery()
+                .eq(AlgorithmJob::getFishRaftId, fishRaftId)
+                .orderByDesc(AlgorithmJob::getId)
+                .list();
+    }
+
+    // 条件更新未命中：任务已被超时重置后重新领取、或已被取消，本次结果作废
+    private static boolean checkRunning(AlgorithmJob job, boolean updated, String action) {
+        if (!updated) {
+            log.warn("算法任务 {}（{} 渔排点 {}）已不在执行中，忽略本次{}结果",
+                    job.getId(), job.getJobType().getDesc(), job.getFishRaftId(), action);
+        }
+        return updated;
+    }
+
+    private Duration backoff(int attempts) {
+        return backoff(attempts, properties.getBackoffBase(), properties.getBackoffMax(),
+                ThreadLocalRandom.current().nextDouble());
+    }
+
+    // 指数退避，加 ±20% 抖动避免同一批失败的任务同时重试，random 取 [0, 1)
+    static Duration backoff(int attempts, Duration base, Duration max, double random) {
+        long delay = Math.min(max.toMillis(), base.toMillis() << Math.min(attempts - 1, 20));
+        double jitter = 0.8 + random * 0.4;
+        return Duration.ofMillis((long) (delay * jitter));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("任务参数序列化失败: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -4,8 +4,12 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import org.qinian.dao.RecognitionInfoMapper;
 import org.qinian.domain.pojo.RecognitionInfo;
 import org.qinian.service.IRecognitionInfoService;
+import org.qinian.utils.MaskCodec;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * <p>
  * 服务实现类
@@ -17,4 +21,50 @@ import org.springframework.stereotype.Service;
 @Service
 public class RecognitionInfoServiceImpl extends ServiceImpl<RecognitionInfoMapper, RecognitionInfo> implements IRecognitionInfoService {
 
+    @Override
+    public boolean saveRecognition(RecognitionInfo recognitionInfo) {
+        if (recognitionInfo.getSegPredictMask() != null) {
+            recognitionInfo.setSegMaskData(MaskCodec.encode(recognitionInfo.getSegPredictMask()));
+            recognitionInfo.setSegPredictMask(null);
+        }
+        if (recognitionInfo.getCreateTime() == null) {
+            recognitionInfo.setCreateTime(LocalDateTime.now());
+        }
+        return save(recognitionInfo);
+    }
+
+    @Override
+    public List<RecognitionInfo> listByRaftId(Long fishRaftId) {
+        return lambdaQuery()
+                .eq(RecognitionInfo::getFishRaftId, fishRaftId)
+                .orderByDesc(RecognitionInfo::getCreateTime)
+                .list();
+    }
+
+    @Override
+    public String getMask(Long id) {
+        RecognitionInfo recognitionInfo = baseMapper.selectMaskById(id);
+        if (recognitionInfo == null) {
+            return null;
+        }
+        if (recognitionInfo.getSegMaskData() != null) {
+            return MaskCodec.decode(recognitionInfo.getSegMaskData());
+        }
+        // 旧版文本掩码，由 LegacyMaskMigration 迁移
+        return recognitionInfo.getSegPredictMask();
+    }
+
+    @Override
+    public int migrateLegacyMasks(int batchSize) {
+        List<RecognitionInfo> infos = baseMapper.selectLegacyMasks(batchSize);
+        for (RecognitionInfo info : infos) {
+            lambdaUpdate()
+                    .eq(RecognitionInfo::getId, info.getId())
+                    .isNull(RecognitionInfo::getSegMaskData)
+                    .set(RecognitionInfo::getSegMaskData, MaskCodec.encode(info.getSegPredictMask()))
+                    .set(RecognitionInfo::getSegPredictMask, null)
+                    .update();
+        }
+        return infos.size();
+    }
 }
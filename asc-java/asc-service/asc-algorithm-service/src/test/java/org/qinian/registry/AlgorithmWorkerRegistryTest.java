@@ -0,0 +1,117 @@
+package org.qinian.registry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qinian.domain.pojo.Algorithm;
+import org.qinian.exception.BadRequestException;
+import org.qinian.properties.AlgorithmJobProperties;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 算法实例的负载路由、失败暂停与默认地址
+ */
+class AlgorithmWorkerRegistryTest {
+    private final AlgorithmJobProperties properties = new AlgorithmJobProperties();
+
+    private AlgorithmWorkerRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        properties.setWorkerConcurrency(2);
+        registry = new AlgorithmWorkerRegistry(null, properties);
+    }
+
+    @Test
+    void acquirePicksLeastLoadedWorker() {
+        registry.update(List.of(worker(1L, 9001), worker(2L, 9002)));
+
+        AlgorithmWorkerRegistry.Worker first = registry.acquire(null);
+        AlgorithmWorkerRegistry.Worker second = registry.acquire(null);
+        assertNotEquals(first.id(), second.id());
+        assertEquals(2, registry.freeSlots());
+
+        registry.acquire(null);
+        registry.acquire(null);
+        assertEquals(0, registry.freeSlots());
+        assertNull(registry.acquire(null));
+
+        registry.release(first, true);
+        assertSame(first, registry.acquire(null));
+    }
+
+    @Test
+    void failedWorkerIsSuspendedUntilSuccess() {
+        registry.update(List.of(worker(1L, 9001), worker(2L, 9002)));
+        AlgorithmWorkerRegistry.Worker failing = registry.acquire(1L);
+        registry.release(failing, false);
+
+        assertNull(registry.acquire(1L));
+        for (int i = 0; i < 4; i++) {
+            AlgorithmWorkerRegistry.Worker worker = registry.acquire(null);
+            if (worker != null) {
+                assertEquals(2L, worker.id());
+            }
+        }
+        assertTrue(registry.loads().stream().anyMatch(load -> load.id() == 1L && load.suspended() && load.failures() == 1));
+
+        // 暂停只影响分配，成功一次即清零
+        registry.release(failing, true);
+        assertTrue(registry.loads().stream().anyMatch(load -> load.id() == 1L && !load.suspended() && load.failures() == 0));
+    }
+
+    @Test
+    void refreshKeepsLoadOfWorkersStillOnline() {
+        registry.update(List.of(worker(1L, 9001)));
+        AlgorithmWorkerRegistry.Worker busy = registry.acquire(1L);
+
+        registry.update(List.of(worker(1L, 9001), worker(2L, 9002)));
+        assertEquals(3, registry.freeSlots());
+        assertSame(busy, registry.acquire(1L));
+    }
+
+    @Test
+    void defaultWorkerServesOnlyWhileNoInstanceIsOnline() {
+        registry.update(List.of());
+        assertTrue(registry.contains(AlgorithmWorkerRegistry.DEFAULT_WORKER_ID));
+        AlgorithmWorkerRegistry.Worker fallback = registry.acquire(null);
+        assertEquals(AlgorithmWorkerRegistry.DEFAULT_WORKER_ID, fallback.id());
+        assertEquals("http://127.0.0.1:9008", fallback.baseUrl());
+
+        registry.update(List.of(worker(1L, 9001)));
+        assertEquals(1L, registry.acquire(null).id());
+        assertEquals(1L, registry.acquire(null).id());
+        assertNull(registry.acquire(null));
+
+        // 默认地址上登记的渔排点仍可按 id 删除，负载计数沿用
+        assertTrue(registry.contains(AlgorithmWorkerRegistry.DEFAULT_WORKER_ID));
+        assertSame(fallback, registry.acquire(AlgorithmWorkerRegistry.DEFAULT_WORKER_ID));
+        assertNull(registry.acquire(AlgorithmWorkerRegistry.DEFAULT_WORKER_ID));
+    }
+
+    @Test
+    void noDefaultWorkerWhenUrlIsBlank() {
+        properties.setDefaultWorkerUrl("");
+        registry.update(List.of());
+
+        assertFalse(registry.contains(AlgorithmWorkerRegistry.DEFAULT_WORKER_ID));
+        assertNull(registry.acquire(null));
+        assertEquals(0, registry.freeSlots());
+    }
+
+    @Test
+    void workersOutsideAllowedHostsAreSkipped() {
+        registry.update(List.of(worker(1L, 9001), new Algorithm().setId(2L).setUrl("http://10.0.0.1").setPort(9002)));
+
+        assertTrue(registry.contains(1L));
+        assertFalse(registry.contains(2L));
+        assertThrows(BadRequestException.class,
+                () -> registry.checkedBaseUrl(new Algorithm().setUrl("http://127.0.0.1/internal").setPort(80)));
+    }
+
+    private static Algorithm worker(Long id, int port) {
+        return new Algorithm().setId(id).setName("worker-" + id).setUrl("127.0.0.1").setPort(port);
+    }
+}
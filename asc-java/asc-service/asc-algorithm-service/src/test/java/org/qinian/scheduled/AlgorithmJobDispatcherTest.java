@@ -0,0 +1,228 @@
+package org.qinian.scheduled;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qinian.domain.pojo.Algorithm;
+import org.qinian.domain.pojo.AlgorithmJob;
+import org.qinian.enums.JobStatus;
+import org.qinian.enums.JobTypes;
+import org.qinian.http.OutboundHttpClient;
+import org.qinian.properties.AlgorithmJobProperties;
+import org.qinian.properties.HttpClientProperties;
+import org.qinian.registry.AlgorithmWorkerRegistry;
+
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 调度器的路由与删除/登记任务交错时的状态
+ */
+class AlgorithmJobDispatcherTest {
+    private static final Long RAFT_ID = 7L;
+
+    private final AlgorithmJobProperties properties = new AlgorithmJobProperties();
+
+    private InMemoryJobService jobService;
+
+    private AlgorithmWorkerRegistry registry;
+
+    private FakeHttpClient httpClient;
+
+    private AlgorithmJobDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new InMemoryJobService(properties.getMaxAttempts());
+        registry = new AlgorithmWorkerRegistry(null, properties);
+        registry.update(List.of(worker(1L, 9008)));
+        httpClient = new FakeHttpClient();
+        dispatcher = new AlgorithmJobDispatcher(jobService, registry, properties, httpClient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void addFailingAfterDeleteIsNotRetried() {
+        AlgorithmJob add = claim(jobService.submit(JobTypes.RAFT_ADD, RAFT_ID, "add"));
+        AlgorithmWorkerRegistry.Worker worker = dispatcher.route(add);
+
+        // 登记执行中提交删除，此时登记任务不会被取消
+        AlgorithmJob delete = jobService.submit(JobTypes.RAFT_DELETE, RAFT_ID, RAFT_ID);
+        assertEquals(JobStatus.RUNNING, jobService.job(add.getId()).getStatus());
+
+        httpClient.status = 500;
+        dispatcher.run(add, worker);
+        assertEquals(JobStatus.CANCELLED, jobService.job(add.getId()).getStatus());
+
+        // 删除任务按未登记完成，之后不会再有登记任务被执行
+        assertNull(dispatcher.route(claim(delete)));
+        assertEquals(JobStatus.SUCCEEDED, jobService.job(delete.getId()).getStatus());
+        assertTrue(jobService.claimDue(10).isEmpty());
+    }
+
+    @Test
+    void addRequeuedAfterDeleteIsCancelledWhenDeleteRuns() {
+        AlgorithmJob add = claim(jobService.submit(JobTypes.RAFT_ADD, RAFT_ID, "add"));
+        AlgorithmJob delete = jobService.submit(JobTypes.RAFT_DELETE, RAFT_ID, RAFT_ID);
+
+        // 登记任务执行超时被重新排队（resetStale），没有经过 fail
+        jobService.job(add.getId()).setStatus(JobStatus.PENDING);
+
+        assertNull(dispatcher.route(claim(delete)));
+        assertEquals(JobStatus.CANCELLED, jobService.job(add.getId()).getStatus());
+        assertEquals(JobStatus.SUCCEEDED, jobService.job(delete.getId()).getStatus());
+    }
+
+    @Test
+    void deleteWaitsForRunningAddAndGoesToItsWorker() {
+        registry.update(List.of(worker(1L, 9008), worker(2L, 9009)));
+        AlgorithmJob add = claim(jobService.submit(JobTypes.RAFT_ADD, RAFT_ID, "add"));
+        AlgorithmWorkerRegistry.Worker addWorker = dispatcher.route(add);
+        AlgorithmJob delete = jobService.submit(JobTypes.RAFT_DELETE, RAFT_ID, RAFT_ID);
+
+        assertNull(dispatcher.route(claim(delete)));
+        assertEquals(JobStatus.PENDING, jobService.job(delete.getId()).getStatus());
+
+        dispatcher.run(add, addWorker);
+        assertEquals(JobStatus.SUCCEEDED, jobService.job(add.getId()).getStatus());
+
+        AlgorithmJob claimed = claim(delete);
+        AlgorithmWorkerRegistry.Worker deleteWorker = dispatcher.route(claimed);
+        assertNotNull(deleteWorker);
+        assertEquals(addWorker.id(), deleteWorker.id());
+        dispatcher.run(claimed, deleteWorker);
+        assertEquals(JobStatus.SUCCEEDED, jobService.job(delete.getId()).getStatus());
+        assertEquals(addWorker.baseUrl() + properties.getRaftPath() + JobTypes.RAFT_DELETE.getPath(),
+                httpClient.urls.get(httpClient.urls.size() - 1));
+    }
+
+    @Test
+    void deleteOfRaftOnDefaultWorkerIsSentAfterInstancesComeOnline() {
+        registry.update(List.of());
+        AlgorithmJob add = claim(jobService.submit(JobTypes.RAFT_ADD, RAFT_ID, "add"));
+        dispatcher.run(add, dispatcher.route(add));
+        assertEquals(AlgorithmWorkerRegistry.DEFAULT_WORKER_ID, jobService.job(add.getId()).getWorkerId());
+
+        // 之后登记了实例，默认地址不再参与负载分配
+        registry.update(List.of(worker(1L, 9009)));
+        AlgorithmJob delete = claim(jobService.submit(JobTypes.RAFT_DELETE, RAFT_ID, RAFT_ID));
+        AlgorithmWorkerRegistry.Worker worker = dispatcher.route(delete);
+        assertNotNull(worker);
+        dispatcher.run(delete, worker);
+
+        assertEquals(JobStatus.SUCCEEDED, jobService.job(delete.getId()).getStatus());
+        assertEquals(properties.getDefaultWorkerUrl() + properties.getRaftPath() + JobTypes.RAFT_DELETE.getPath(),
+                httpClient.urls.get(httpClient.urls.size() - 1));
+    }
+
+    @Test
+    void failedAddIsRequeuedWithoutDelete() {
+        AlgorithmJob add = claim(jobService.submit(JobTypes.RAFT_ADD, RAFT_ID, "add"));
+        httpClient.status = 503;
+        dispatcher.run(add, dispatcher.route(add));
+
+        AlgorithmJob row = jobService.job(add.getId());
+        assertEquals(JobStatus.PENDING, row.getStatus());
+        assertEquals(1, row.getAttempts());
+    }
+
+    @Test
+    void routeWithoutFreeWorkerPostpones() {
+        properties.setWorkerConcurrency(1);
+        AlgorithmJob first = claim(jobService.submit(JobTypes.RAFT_ADD, 1L, "add"));
+        AlgorithmJob second = claim(jobService.submit(JobTypes.RAFT_ADD, 2L, "add"));
+
+        assertNotNull(dispatcher.route(first));
+        assertNull(dispatcher.route(second));
+        assertEquals(JobStatus.PENDING, jobService.job(second.getId()).getStatus());
+        assertEquals(0, jobService.job(second.getId()).getAttempts());
+    }
+
+    // 模拟领取：置为执行中并返回调度器拿到的副本
+    private AlgorithmJob claim(AlgorithmJob job) {
+        AlgorithmJob row = jobService.job(job.getId());
+        row.setStatus(JobStatus.RUNNING);
+        return new AlgorithmJob()
+                .setId(row.getId())
+                .setJobType(row.getJobType())
+                .setFishRaftId(row.getFishRaftId())
+                .setPayload(row.getPayload())
+                .setStatus(row.getStatus())
+                .setAttempts(row.getAttempts());
+    }
+
+    static Algorithm worker(Long id, int port) {
+        return new Algorithm().setId(id).setName("worker-" + id).setUrl("127.0.0.1").setPort(port);
+    }
+
+    /**
+     * 记录请求地址，按 status 返回响应
+     */
+    static class FakeHttpClient extends OutboundHttpClient {
+        final List<String> urls = new ArrayList<>();
+
+        volatile int status = 200;
+
+        FakeHttpClient() {
+            super(new HttpClientProperties());
+        }
+
+        @Override
+        public HttpResponse<String> postJson(String url, Object body) throws IOException {
+            urls.add(url);
+            return new StatusResponse(status, url);
+        }
+    }
+
+    record StatusResponse(int statusCode, String url) implements HttpResponse<String> {
+        @Override
+        public HttpRequest request() {
+            return HttpRequest.newBuilder(URI.create(url)).build();
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.of(Map.of(), (name, value) -> true);
+        }
+
+        @Override
+        public String body() {
+            return "";
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return URI.create(url);
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.qinian.scheduled;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.qinian.domain.pojo.AlgorithmJob;
+import org.qinian.enums.JobStatus;
+import org.qinian.enums.JobTypes;
+import org.qinian.service.IAlgorithmJobService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 内存中的任务表，状态变更条件与 AlgorithmJobMapper / AlgorithmJobServiceImpl 的 SQL 一致，只实现调度器用到的方法
+ */
+class InMemoryJobService implements IAlgorithmJobService {
+    final Map<Long, AlgorithmJob> jobs = new LinkedHashMap<>();
+
+    private final int maxAttempts;
+
+    private long nextId = 1;
+
+    InMemoryJobService(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    AlgorithmJob job(Long id) {
+        return jobs.get(id);
+    }
+
+    @Override
+    public synchronized AlgorithmJob submit(JobTypes jobType, Long fishRaftId, Object payload) {
+        if (jobType == JobTypes.RAFT_DELETE) {
+            cancelPendingAdds(fishRaftId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        AlgorithmJob job = new AlgorithmJob()
+                .setId(nextId++)
+                .setJobType(jobType)
+                .setFishRaftId(fishRaftId)
+                .setPayload(String.valueOf(payload))
+                .setStatus(JobStatus.PENDING)
+                .setAttempts(0)
+                .setNextRunTime(now);
+        jobs.put(job.getId(), job);
+        return copy(job);
+    }
+
+    @Override
+    public synchronized int cancelPendingAdds(Long fishRaftId) {
+        int cancelled = 0;
+        for (AlgorithmJob job : jobs.values()) {
+            if (job.getFishRaftId().equals(fishRaftId) && job.getJobType() == JobTypes.RAFT_ADD
+                    && job.getStatus() == JobStatus.PENDING) {
+                job.setStatus(JobStatus.CANCELLED);
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    @Override
+    public boolean hasCapacity() {
+        return true;
+    }
+
+    // 忽略 next_run_time，测试按需直接领取
+    @Override
+    public synchronized List<AlgorithmJob> claimDue(int size) {
+        List<AlgorithmJob> claimed = new ArrayList<>();
+        for (AlgorithmJob job : jobs.values()) {
+            if (claimed.size() < size && job.getStatus() == JobStatus.PENDING) {
+                job.setStatus(JobStatus.RUNNING);
+                claimed.add(copy(job));
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public int resetStale(Duration timeout) {
+        return 0;
+    }
+
+    @Override
+    public synchronized Long assignedWorker(Long fishRaftId) {
+        return jobs.values().stream()
+                .filter(job -> job.getFishRaftId().equals(fishRaftId) && job.getJobType() == JobTypes.RAFT_ADD
+                        && job.getStatus() == JobStatus.SUCCEEDED)
+                .reduce((first, second) -> second)
+                .map(AlgorithmJob::getWorkerId)
+                .orElse(null);
+    }
+
+    @Override
+    public synchronized boolean isAdding(Long fishRaftId) {
+        return jobs.values().stream().anyMatch(job -> job.getFishRaftId().equals(fishRaftId)
+                && job.getJobType() == JobTypes.RAFT_ADD && job.getStatus() == JobStatus.RUNNING);
+    }
+
+    @Override
+    public synchronized boolean succeed(AlgorithmJob job, Long workerId, String message) {
+        AlgorithmJob row = running(job);
+        if (row == null) {
+            return false;
+        }
+        row.setStatus(JobStatus.SUCCEEDED).setAttempts(job.getAttempts() + 1).setWorkerId(workerId).setLastError(message);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean fail(AlgorithmJob job, String error) {
+        AlgorithmJob row = running(job);
+        if (row == null) {
+            return false;
+        }
+        int attempts = job.getAttempts() + 1;
+        boolean deleted = job.getJobType() == JobTypes.RAFT_ADD && jobs.values().stream()
+                .anyMatch(other -> other.getFishRaftId().equals(job.getFishRaftId())
+                        && other.getJobType() == JobTypes.RAFT_DELETE && other.getId() > job.getId());
+        row.setStatus(deleted ? JobStatus.CANCELLED : attempts >= maxAttempts ? JobStatus.FAILED : JobStatus.PENDING)
+                .setAttempts(attempts)
+                .setLastError(error);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean postpone(AlgorithmJob job, Duration delay, String reason) {
+        AlgorithmJob row = running(job);
+        if (row == null) {
+            return false;
+        }
+        row.setStatus(JobStatus.PENDING).setLastError(reason);
+        return true;
+    }
+
+    @Override
+    public synchronized List<AlgorithmJob> listByRaftId(Long fishRaftId) {
+        return jobs.values().stream().filter(job -> job.getFishRaftId().equals(fishRaftId)).toList();
+    }
+
+    private AlgorithmJob running(AlgorithmJob job) {
+        AlgorithmJob row = jobs.get(job.getId());
+        return row != null && row.getStatus() == JobStatus.RUNNING ? row : null;
+    }
+
+    private static AlgorithmJob copy(AlgorithmJob job) {
+        return new AlgorithmJob()
+                .setId(job.getId())
+                .setJobType(job.getJobType())
+                .setFishRaftId(job.getFishRaftId())
+                .setPayload(job.getPayload())
+                .setStatus(job.getStatus())
+                .setAttempts(job.getAttempts())
+                .setWorkerId(job.getWorkerId());
+    }
+
+    // 以下 IService 方法调度器不使用
+
+    @Override
+    public boolean saveBatch(Collection<AlgorithmJob> entityList, int batchSize) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean saveOrUpdateBatch(Collection<AlgorithmJob> entityList, int batchSize) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean updateBatchById(Collection<AlgorithmJob> entityList, int batchSize) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean saveOrUpdate(AlgorithmJob entity) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AlgorithmJob getOne(Wrapper<AlgorithmJob> queryWrapper, boolean throwEx) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<AlgorithmJob> getOneOpt(Wrapper<AlgorithmJob> queryWrapper, boolean throwEx) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, Object> getMap(Wrapper<AlgorithmJob> queryWrapper) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <V> V getObj(Wrapper<AlgorithmJob> queryWrapper, Function<? super Object, V> mapper) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BaseMapper<AlgorithmJob> getBaseMapper() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Class<AlgorithmJob> getEntityClass() {
+        return AlgorithmJob.class;
+    }
+}
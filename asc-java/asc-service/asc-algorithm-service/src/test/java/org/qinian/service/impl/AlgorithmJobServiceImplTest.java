@@ -0,0 +1,35 @@
+package org.qinian.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 失败重试的退避时间
+ */
+class AlgorithmJobServiceImplTest {
+    private static final Duration BASE = Duration.ofSeconds(5);
+
+    private static final Duration MAX = Duration.ofMinutes(5);
+
+    @Test
+    void backoffDoublesPerAttempt() {
+        assertEquals(Duration.ofSeconds(5), AlgorithmJobServiceImpl.backoff(1, BASE, MAX, 0.5));
+        assertEquals(Duration.ofSeconds(10), AlgorithmJobServiceImpl.backoff(2, BASE, MAX, 0.5));
+        assertEquals(Duration.ofSeconds(40), AlgorithmJobServiceImpl.backoff(4, BASE, MAX, 0.5));
+    }
+
+    @Test
+    void backoffIsCappedEvenForLargeAttempts() {
+        assertEquals(MAX, AlgorithmJobServiceImpl.backoff(7, BASE, MAX, 0.5));
+        assertEquals(MAX, AlgorithmJobServiceImpl.backoff(100, BASE, MAX, 0.5));
+    }
+
+    @Test
+    void jitterStaysWithinTwentyPercent() {
+        assertEquals(Duration.ofSeconds(8), AlgorithmJobServiceImpl.backoff(2, BASE, MAX, 0.0));
+        assertEquals(Duration.ofMillis(11_999), AlgorithmJobServiceImpl.backoff(2, BASE, MAX, 0.99999));
+    }
+}
@@ -1,23 +1,29 @@
 package org.qinian.controller;
 
-import cn.hutool.core.bean.BeanUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.qinian.domain.Result;
 import org.qinian.domain.dto.fishRaft.AddFishRaftDto;
-import org.qinian.domain.dto.fishRaft.AddLocationDto;
-import org.qinian.domain.dto.fishRaft.PyRaftDto;
-import org.qinian.domain.dto.weather.WeatherLoopAddDto;
 import org.qinian.domain.pojo.FishRaftPoint;
+import org.qinian.domain.vo.CursorPageVo;
 import org.qinian.domain.vo.GetRaftVo;
-import org.qinian.model.RemoteWeatherService;
+import org.qinian.domain.vo.NearestRaftVo;
+import org.qinian.domain.vo.RaftStateSnapshotVo;
+import org.qinian.index.RaftSpatialIndex;
 import org.qinian.service.IFishRaftPointService;
-import org.qinian.service.ILocationService;
-import org.qinian.utils.HttpRequestSender;
+import org.qinian.state.RaftStateStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,47 +34,30 @@ import java.util.List;
  * @author qinian
  * @since 2024-07-29
  */
+@Slf4j
 @RestController
 @RequestMapping("/fish-raft-point")
 public class FishRaftPointController {
+    private static final int MAX_NEAREST = 100;
+
     @Autowired
     private IFishRaftPointService fishRaftPointService;
 
     @Autowired
-    private ILocationService locationService;
+    private RaftSpatialIndex raftSpatialIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @Autowired
-    private RemoteWeatherService remoteWeatherService;
+    private RaftStateStore raftStateStore;
 
-    // 创建渔排点
+    // 创建渔排点，下游（分割算法、天气监测）通过 MQ 事件异步同步
     @PostMapping
-    public Result createFishRaft(@RequestBody AddFishRaftDto addFishRaftDto) throws IOException {
-        FishRaftPoint fishRaftPoint = BeanUtil.copyProperties(addFishRaftDto, FishRaftPoint.class);
-        fishRaftPoint.setCreateTime(LocalDateTime.now());
-        fishRaftPoint.setUpdateTime(LocalDateTime.now());
-        // 添加对应的 location id
-        fishRaftPoint.setLocationId(locationService.saveLocation(addFishRaftDto.getLocationDto()).getId());
-
-        boolean isSuccess = fishRaftPointService.save(fishRaftPoint);
-        if (isSuccess) {
-            // 加入监测微服务循环
-            PyRaftDto pyRaftDto = BeanUtil.copyProperties(fishRaftPoint, PyRaftDto.class);
-            pyRaftDto.setFishermen_id(fishRaftPoint.getFishermenId());   // 变量名字不一样
-            pyRaftDto.setLatitude(addFishRaftDto.getLocationDto().getLatitude());
-            pyRaftDto.setLongitude(addFishRaftDto.getLocationDto().getLongitude());
-
-            // 加入天气监测服务循环
-            AddLocationDto addLocationDto = addFishRaftDto.getLocationDto();
-            WeatherLoopAddDto weatherLoopAddDto = new WeatherLoopAddDto(
-                    fishRaftPoint.getId(),
-                    fishRaftPoint.getLocationId(),
-                    addLocationDto.getLatitude(),
-                    addLocationDto.getLongitude()
-            );
-
-            //  请求发送
-            HttpRequestSender.sendPostRequest("http://127.0.0.1:9008/api/python/raft/add", pyRaftDto);
-            remoteWeatherService.addRaft(weatherLoopAddDto);
+    public Result createFishRaft(@RequestBody AddFishRaftDto addFishRaftDto) {
+        FishRaftPoint fishRaftPoint = fishRaftPointService.createRaft(addFishRaftDto);
+        if (fishRaftPoint.getId() != null) {
+            raftSpatialIndex.put(fishRaftPointService.getRaftVo(fishRaftPoint.getId()));
 
             return Result.success(200, "渔排点创建成功", fishRaftPoint);
         } else {
@@ -87,28 +76,138 @@ public class FishRaftPointController {
         }
     }
 
+    // 渔排点掩码查询根据id，列表与详情接口均不返回掩码
+    @GetMapping("/{id}/mask")
+    public Result getFishRaftMask(@PathVariable Long id) {
+        String mask = fishRaftPointService.getMask(id);
+        if (mask != null) {
+            return Result.success(200, "渔排点掩码获取成功", mask);
+        } else {
+            return Result.fail(404, "渔排点掩码不存在", null);
+        }
+    }
+
     // 查询所有渔排点
     @GetMapping
     public Result getAllFishRafts() {
         System.out.println("获取所有渔排点信息 --> " + LocalDateTime.now());
-        List<FishRaftPoint> fishRaftPointList = fishRaftPointService.list();
+        // 渔排点与经纬度一次联表查出
+        List<GetRaftVo> getRaftVoList = fishRaftPointService.listRaftVo();
 
         // create vo
-        List<GetRaftVo> getRaftVoList = new ArrayList<>();
-        for (int i = 0; i < fishRaftPointList.size(); i++) {
-            GetRaftVo getRaftVo = BeanUtil.copyProperties(fishRaftPointList.get(i), GetRaftVo.class);
-            getRaftVo.setId("row-" + i);
-            getRaftVo.setRaftId(fishRaftPointList.get(i).getId());
-            getRaftVo.setParentId(null);
-            getRaftVo.setLatitude(locationService.getById(fishRaftPointList.get(i).getLocationId()).getLatitude());
-            getRaftVo.setLongitude(locationService.getById(fishRaftPointList.get(i).getLocationId()).getLongitude());
-
-            getRaftVoList.add(getRaftVo);
+        for (int i = 0; i < getRaftVoList.size(); i++) {
+            getRaftVoList.get(i).setId("row-" + i);
         }
 
         return Result.success(200, "所有渔排点信息获取成功", getRaftVoList);
     }
 
+    // 游标分页查询渔排点，lastId 为上一页返回的 nextCursor
+    @GetMapping("/page")
+    public Result getFishRaftPage(@RequestParam(required = false) Long lastId,
+                                  @RequestParam(required = false, defaultValue = "100") Integer size) {
+        CursorPageVo<GetRaftVo> page = fishRaftPointService.pageRaftVo(lastId, size);
+        for (GetRaftVo getRaftVo : page.getRecords()) {
+            getRaftVo.setId("row-" + getRaftVo.getRaftId());
+        }
+
+        return Result.success(200, "渔排点分页信息获取成功", page);
+    }
+
+    // 增量同步：按 updateTime + raftId 游标分页返回变更过的渔排点，首页不传 since
+    @GetMapping("/changes")
+    public Result getChangedFishRafts(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                      @RequestParam(required = false, defaultValue = "0") Long lastId,
+                                      @RequestParam(required = false, defaultValue = "100") Integer size) {
+        CursorPageVo<GetRaftVo> page = fishRaftPointService.pageChangedRaftVo(since, lastId, size);
+        for (GetRaftVo getRaftVo : page.getRecords()) {
+            getRaftVo.setId("row-" + getRaftVo.getRaftId());
+        }
+
+        return Result.success(200, "渔排点变更信息获取成功", page);
+    }
+
+    // 流式输出所有渔排点，响应结构与 getAllFishRafts 一致，但不在内存中聚合列表
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllFishRafts() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeNumberField("code", 200);
+                generator.writeStringField("msg", "所有渔排点信息获取成功");
+                generator.writeArrayFieldStart("data");
+
+                int[] row = {0};
+                fishRaftPointService.streamRaftVo(getRaftVo -> {
+                    getRaftVo.setId("row-" + row[0]++);
+                    try {
+                        generator.writeObject(getRaftVo);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // 看板：所有渔排点的最新状态（识别、天气、告警），一次请求返回
+    // ETag 为状态版本号，未变化时返回 304；传入上次的 version 作为 since 时只返回增量
+    @GetMapping("/state")
+    public Result getFishRaftStates(@RequestParam(required = false) Long since, WebRequest webRequest) {
+        if (webRequest.checkNotModified("\"" + fishRaftPointService.getStateVersion() + "\"")) {
+            return null;
+        }
+        RaftStateSnapshotVo snapshot = fishRaftPointService.getStateSnapshot(since);
+        return Result.success(200, "渔排点最新状态获取成功", snapshot);
+    }
+
+    // 查询矩形范围内的渔排点，bbox 格式为 minLon,minLat,maxLon,maxLat
+    @GetMapping("/within")
+    public Result getFishRaftsWithin(@RequestParam String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            return Result.fail(400, "bbox 格式应为 minLon,minLat,maxLon,maxLat", null);
+        }
+        double[] box = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                box[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            return Result.fail(400, "bbox 格式应为 minLon,minLat,maxLon,maxLat", null);
+        }
+        if (!isValidLonLat(box[0], box[1]) || !isValidLonLat(box[2], box[3])) {
+            return Result.fail(400, "bbox 经纬度超出范围", null);
+        }
+        if (box[0] > box[2] || box[1] > box[3]) {
+            return Result.fail(400, "bbox 最小值不能大于最大值", null);
+        }
+        if (RaftSpatialIndex.cellCount(box[0], box[1], box[2], box[3]) > RaftSpatialIndex.MAX_WITHIN_CELLS) {
+            return Result.fail(400, "bbox 范围过大，请缩小查询范围", null);
+        }
+
+        List<GetRaftVo> getRaftVoList = raftSpatialIndex.within(box[0], box[1], box[2], box[3]);
+        return Result.success(200, "范围内渔排点信息获取成功", getRaftVoList);
+    }
+
+    // 查询距离给定点最近的 k 个渔排点
+    @GetMapping("/nearest")
+    public Result getNearestFishRafts(@RequestParam Double lat, @RequestParam Double lon,
+                                      @RequestParam(required = false, defaultValue = "10") Integer k) {
+        if (!isValidLonLat(lon, lat)) {
+            return Result.fail(400, "经纬度超出范围", null);
+        }
+        int limit = Math.min(Math.max(k, 1), MAX_NEAREST);
+
+        List<NearestRaftVo> nearestRaftVoList = raftSpatialIndex.nearest(lon, lat, limit);
+        return Result.success(200, "最近渔排点信息获取成功", nearestRaftVoList);
+    }
+
     // 根据渔民id查询所有渔排点
     @GetMapping("/select/{id}")
     public Result getAllFishRaftsById(@PathVariable Long id) {
@@ -117,12 +216,21 @@ public class FishRaftPointController {
         return Result.success(200, "所有渔排点信息获取成功", fishRaftPointList);
     }
 
+    // 根据渔民id批量查询渔排点id，仅供告警服务内部调用（网关不对外开放）
+    @GetMapping("/ids")
+    public Result getFishRaftIdsByFishermen(@RequestParam List<Long> fishermenIds) {
+        List<Long> raftIds = fishRaftPointService.listIdsByFishermen(fishermenIds);
+
+        return Result.success(200, "渔排点id获取成功", raftIds);
+    }
+
     // 修改渔排点
     @PutMapping("/{id}")
     public Result updateFishRaft(@PathVariable Long id, @RequestBody FishRaftPoint fishRaftPoint) {
         fishRaftPoint.setId(id); // 设置ID以更新对应的记录
-        boolean isSuccess = fishRaftPointService.updateById(fishRaftPoint);
+        boolean isSuccess = fishRaftPointService.updateRaft(fishRaftPoint);
         if (isSuccess) {
+            raftSpatialIndex.put(fishRaftPointService.getRaftVo(id));
             return Result.success(200, "告警信息更新成功", fishRaftPoint);
         } else {
             return Result.fail(404, "告警信息不存在", null);
@@ -131,16 +239,25 @@ public class FishRaftPointController {
 
     // 删除渔排点
     @DeleteMapping("/{id}")
-    public Result deleteFishRaft(@PathVariable Long id) throws IOException {
-        boolean isSuccess = fishRaftPointService.removeById(id);
+    public Result deleteFishRaft(@PathVariable Long id) {
+        boolean isSuccess = fishRaftPointService.deleteRaft(id);
         if (isSuccess) {
-
-            //  分割算法监测
-            HttpRequestSender.sendPostRequest("http://127.0.0.1:9008/api/python/raft/delete", id);
+            raftSpatialIndex.remove(id);
+            // 数据库已删除，看板投影失败只记录，不影响删除结果
+            try {
+                raftStateStore.remove(id);
+            } catch (RuntimeException e) {
+                log.warn("渔排点状态删除失败 {}: {}", id, e.toString());
+            }
 
             return Result.success(200, "渔排点信息删除成功", null);
         } else {
             return Result.fail(404, "渔排点信息不存在", null);
         }
     }
+
+    // NaN 与任何数比较都为 false，范围判断前需单独排除
+    private static boolean isValidLonLat(double lon, double lat) {
+        return Double.isFinite(lon) && Double.isFinite(lat) && Math.abs(lon) <= 180 && Math.abs(lat) <= 90;
+    }
 }
@@ -4,6 +4,8 @@ package org.qinian.controller;
 import org.qinian.domain.Result;
 import org.qinian.domain.dto.fishRaft.AddLocationDto;
 import org.qinian.domain.pojo.Location;
+import org.qinian.index.RaftSpatialIndex;
+import org.qinian.service.IFishRaftPointService;
 import org.qinian.service.ILocationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +26,12 @@ public class LocationController {
     @Autowired
     private ILocationService locationService;
 
+    @Autowired
+    private IFishRaftPointService fishRaftPointService;
+
+    @Autowired
+    private RaftSpatialIndex raftSpatialIndex;
+
     // 创建经纬度位置
     @PostMapping
     public Result createLocation(@RequestBody AddLocationDto addLocationDto) {
@@ -59,6 +67,11 @@ public class LocationController {
         location.setId(id); // 设置ID以更新对应的记录
         boolean isSuccess = locationService.updateById(location);
         if (isSuccess) {
+            // 同步移动空间索引中引用该位置的渔排点
+            Location updated = locationService.getById(id);
+            raftSpatialIndex.relocate(id, updated.getLongitude(), updated.getLatitude());
+            // 刷新引用该位置的渔排点 updateTime 并通知下游
+            fishRaftPointService.touchByLocation(id);
             return Result.success(200, "经纬度位置信息更新成功", location);
         } else {
             return Result.fail(404, "经纬度位置信息不存在", null);
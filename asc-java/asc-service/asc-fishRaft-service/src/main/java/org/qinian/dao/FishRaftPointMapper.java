@@ -1,9 +1,15 @@
 package org.qinian.dao;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 import org.qinian.domain.pojo.FishRaftPoint;
+import org.qinian.domain.vo.GetRaftVo;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -16,6 +22,67 @@ import java.util.List;
  */
 public interface FishRaftPointMapper extends BaseMapper<FishRaftPoint> {
 
-    @Select("select * from fish_raft_point where Fishermen_id = #{id}")
+    // 掩码体积大，列表查询一律不带，按 id 通过 selectMaskById 单独读取
+    String RAFT_VO_SELECT = "select p.Id as raft_id, p.fishermen_id, p.location_id, p.name, p.zoom, p.size, p.message, " +
+            "p.create_time, p.update_time, l.longitude, l.latitude " +
+            "from fish_raft_point p left join location l on l.Id = p.location_id ";
+
+    @Select("select Id, fishermen_id, location_id, name, zoom, size, message, create_time, update_time " +
+            "from fish_raft_point where fishermen_id = #{id}")
     List<FishRaftPoint> getAllByFishmanId(Long id);
+
+    @Select("<script>select Id from fish_raft_point where fishermen_id in " +
+            "<foreach collection='fishermenIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<Long> selectIdsByFishermen(@Param("fishermenIds") List<Long> fishermenIds);
+
+    /**
+     * 渔排点 + 经纬度联表查询，按 id 游标分页
+     *
+     * @param lastId 上一页最后一个渔排点 id，为 null 时从头开始
+     * @param size   条数，为 null 时不限制
+     */
+    @Select("<script>" + RAFT_VO_SELECT +
+            "<where><if test='lastId != null'>p.Id &gt; #{lastId}</if></where> " +
+            "order by p.Id <if test='size != null'>limit #{size}</if>" +
+            "</script>")
+    List<GetRaftVo> selectRaftVoAfter(@Param("lastId") Long lastId, @Param("size") Integer size);
+
+    /**
+     * 按 (update_time, Id) 游标查询变更过的渔排点，update_time 为空的行排在最前
+     *
+     * @param since  上一页最后一条的 update_time，为 null 时从头开始
+     * @param lastId 上一页最后一条的 id
+     * @param size   条数
+     */
+    @Select("<script>" + RAFT_VO_SELECT +
+            "<where><choose>" +
+            "<when test='since == null'>(p.update_time is null and p.Id &gt; #{lastId}) or p.update_time is not null</when>" +
+            "<otherwise>p.update_time &gt; #{since} or (p.update_time = #{since} and p.Id &gt; #{lastId})</otherwise>" +
+            "</choose></where> " +
+            "order by p.update_time, p.Id limit #{size}" +
+            "</script>")
+    List<GetRaftVo> selectRaftVoChangedAfter(@Param("since") LocalDateTime since, @Param("lastId") Long lastId, @Param("size") Integer size);
+
+    /**
+     * 只查询掩码列（mask_data 为紧凑编码，mask 为未迁移的旧版文本）
+     */
+    @Select("select Id, mask, mask_data from fish_raft_point where Id = #{id}")
+    FishRaftPoint selectMaskById(Long id);
+
+    /**
+     * 尚未迁移的旧版文本掩码，按 id 顺序取一批
+     */
+    @Select("select Id, mask from fish_raft_point where mask is not null and mask_data is null order by Id limit #{size}")
+    List<FishRaftPoint> selectLegacyMasks(int size);
+
+    @Select(RAFT_VO_SELECT + "where p.Id = #{id}")
+    GetRaftVo selectRaftVoById(Long id);
+
+    /**
+     * 渔排点 + 经纬度联表查询，MySQL 流式读取，需在事务内消费
+     */
+    @Select(RAFT_VO_SELECT + "order by p.Id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<GetRaftVo> cursorRaftVo();
 }
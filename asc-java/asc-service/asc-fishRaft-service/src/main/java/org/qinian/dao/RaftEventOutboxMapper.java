@@ -0,0 +1,22 @@
+package org.qinian.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.qinian.domain.pojo.RaftEventOutbox;
+
+import java.util.List;
+
+/**
+ * <p>
+ * 渔排点事件发件箱 Mapper 接口
+ * </p>
+ */
+public interface RaftEventOutboxMapper extends BaseMapper<RaftEventOutbox> {
+
+    @Select("select * from raft_event_outbox where sent_time is null order by Id limit #{size}")
+    List<RaftEventOutbox> selectPending(Integer size);
+
+    @Update("update raft_event_outbox set sent_time = now() where Id = #{id}")
+    int markSent(Long id);
+}
@@ -0,0 +1,278 @@
+package org.qinian.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.domain.vo.GetRaftVo;
+import org.qinian.domain.vo.NearestRaftVo;
+import org.qinian.service.IFishRaftPointService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>
+ * 渔排点内存空间索引，按经纬度划分固定网格
+ * </p>
+ * 启动时全量加载，之后随渔排点的增删改增量维护；不处理跨越 180 度经线的查询。
+ * 索引内的对象只在写锁内修改，存入与返回时都复制一份，调用方拿到的对象可随意修改
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RaftSpatialIndex {
+    private static final double CELL_DEGREES = 0.05;  // 网格边长（度），约 5.5 km
+    public static final long MAX_WITHIN_CELLS = 40_000;  // 矩形查询最多覆盖的网格数，约 10 度 x 10 度
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_KM;
+
+    private final IFishRaftPointService fishRaftPointService;
+
+    private final Map<Long, GetRaftVo> rafts = new HashMap<>();  // raftId -> 渔排点
+    private final Map<Long, Set<Long>> cells = new HashMap<>();  // 网格 -> raftId
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 服务就绪后全量构建索引
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<GetRaftVo> all = fishRaftPointService.listRaftVo();
+        lock.writeLock().lock();
+        try {
+            rafts.clear();
+            cells.clear();
+            all.forEach(raft -> doPut(copy(raft)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("渔排点空间索引构建完成，共 {} 个渔排点", all.size());
+    }
+
+    // 新增或更新渔排点
+    public void put(GetRaftVo raft) {
+        if (raft == null || raft.getRaftId() == null) {
+            return;
+        }
+        GetRaftVo stored = copy(raft);
+        lock.writeLock().lock();
+        try {
+            doRemove(stored.getRaftId());
+            doPut(stored);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 删除渔排点
+    public void remove(Long raftId) {
+        lock.writeLock().lock();
+        try {
+            doRemove(raftId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 经纬度位置变更后，移动引用该位置的渔排点
+    public void relocate(Long locationId, Double longitude, Double latitude) {
+        lock.writeLock().lock();
+        try {
+            List<GetRaftVo> moved = rafts.values().stream()
+                    .filter(raft -> locationId.equals(raft.getLocationId()))
+                    .toList();
+            for (GetRaftVo raft : moved) {
+                doRemove(raft.getRaftId());
+                raft.setLongitude(longitude);
+                raft.setLatitude(latitude);
+                doPut(raft);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 矩形范围覆盖的网格数，调用方据此限制查询范围
+     */
+    public static long cellCount(double minLon, double minLat, double maxLon, double maxLat) {
+        return (latIndex(maxLat) - latIndex(minLat) + 1) * (lonIndex(maxLon) - lonIndex(minLon) + 1);
+    }
+
+    /**
+     * 查询矩形范围内的渔排点
+     */
+    public List<GetRaftVo> within(double minLon, double minLat, double maxLon, double maxLat) {
+        long minLatIdx = latIndex(minLat), maxLatIdx = latIndex(maxLat);
+        long minLonIdx = lonIndex(minLon), maxLonIdx = lonIndex(maxLon);
+
+        List<GetRaftVo> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long cellCount = (maxLatIdx - minLatIdx + 1) * (maxLonIdx - minLonIdx + 1);
+            if (cellCount > rafts.size()) {
+                // 范围过大时直接扫描比逐格查找更快
+                for (GetRaftVo raft : rafts.values()) {
+                    if (inBox(raft, minLon, minLat, maxLon, maxLat)) {
+                        result.add(copy(raft));
+                    }
+                }
+                return result;
+            }
+
+            for (long latIdx = minLatIdx; latIdx <= maxLatIdx; latIdx++) {
+                for (long lonIdx = minLonIdx; lonIdx <= maxLonIdx; lonIdx++) {
+                    Set<Long> ids = cells.get(cellKey(latIdx, lonIdx));
+                    if (ids == null) {
+                        continue;
+                    }
+                    for (Long id : ids) {
+                        GetRaftVo raft = rafts.get(id);
+                        if (inBox(raft, minLon, minLat, maxLon, maxLat)) {
+                            result.add(copy(raft));
+                        }
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询距离给定点最近的 k 个渔排点，按距离升序
+     */
+    public List<NearestRaftVo> nearest(double lon, double lat, int k) {
+        // 大顶堆，堆顶为当前候选中最远的一个
+        PriorityQueue<NearestRaftVo> heap = new PriorityQueue<>(
+                Comparator.comparingDouble(NearestRaftVo::getDistance).reversed());
+
+        lock.readLock().lock();
+        try {
+            long centerLat = latIndex(lat), centerLon = lonIndex(lon);
+            int visited = 0;
+            for (long ring = 0; visited < rafts.size(); ring++) {
+                if (ring * 8 > rafts.size()) {
+                    // 网格过于稀疏，继续外扩不如直接扫描
+                    heap.clear();
+                    rafts.values().forEach(raft -> offer(heap, raft, lon, lat, k));
+                    break;
+                }
+
+                for (long latIdx = centerLat - ring; latIdx <= centerLat + ring; latIdx++) {
+                    // 只遍历第 ring 圈的格子
+                    long step = (latIdx == centerLat - ring || latIdx == centerLat + ring) ? 1 : 2 * ring;
+                    for (long lonIdx = centerLon - ring; lonIdx <= centerLon + ring; lonIdx += Math.max(step, 1)) {
+                        Set<Long> ids = cells.get(cellKey(latIdx, lonIdx));
+                        if (ids == null) {
+                            continue;
+                        }
+                        for (Long id : ids) {
+                            offer(heap, rafts.get(id), lon, lat, k);
+                            visited++;
+                        }
+                    }
+                }
+
+                // 圈外的点至少相距 ring 个格子，候选已足够近时停止外扩
+                if (heap.size() == k && heap.peek().getDistance() <= ringLowerBoundKm(lat, ring)) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<NearestRaftVo> result = new ArrayList<>(heap.size());
+        for (NearestRaftVo nearest : heap) {
+            result.add(new NearestRaftVo(copy(nearest.getRaft()), nearest.getDistance()));
+        }
+        result.sort(Comparator.comparingDouble(NearestRaftVo::getDistance));
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rafts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void doPut(GetRaftVo raft) {
+        if (raft.getLongitude() == null || raft.getLatitude() == null) {
+            return;
+        }
+        raft.setId("row-" + raft.getRaftId());
+        rafts.put(raft.getRaftId(), raft);
+        cells.computeIfAbsent(cellKey(raft), key -> new HashSet<>()).add(raft.getRaftId());
+    }
+
+    private void doRemove(Long raftId) {
+        GetRaftVo old = rafts.remove(raftId);
+        if (old == null) {
+            return;
+        }
+        long key = cellKey(old);
+        Set<Long> ids = cells.get(key);
+        if (ids != null && ids.remove(raftId) && ids.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    // 不加锁读取：调用方持有读锁，或对象尚未放入索引
+    private static GetRaftVo copy(GetRaftVo raft) {
+        return new GetRaftVo(raft.getId(), raft.getParentId(), raft.getRaftId(), raft.getFishermenId(),
+                raft.getLocationId(), raft.getName(), raft.getLongitude(), raft.getLatitude(), raft.getZoom(),
+                raft.getSize(), raft.getMessage(), raft.getMask(), raft.getCreateTime(), raft.getUpdateTime());
+    }
+
+    private static void offer(PriorityQueue<NearestRaftVo> heap, GetRaftVo raft, double lon, double lat, int k) {
+        double distance = haversineKm(lat, lon, raft.getLatitude(), raft.getLongitude());
+        if (heap.size() < k) {
+            heap.offer(new NearestRaftVo(raft, distance));
+        } else if (distance < heap.peek().getDistance()) {
+            heap.poll();
+            heap.offer(new NearestRaftVo(raft, distance));
+        }
+    }
+
+    private static boolean inBox(GetRaftVo raft, double minLon, double minLat, double maxLon, double maxLat) {
+        return raft.getLongitude() >= minLon && raft.getLongitude() <= maxLon
+                && raft.getLatitude() >= minLat && raft.getLatitude() <= maxLat;
+    }
+
+    // 第 ring 圈之外的点与查询点的最小距离（保守估计）
+    private static double ringLowerBoundKm(double lat, long ring) {
+        double degrees = ring * CELL_DEGREES;
+        double maxLat = Math.min(Math.abs(lat) + degrees, 89.9);
+        return degrees * KM_PER_DEGREE * Math.cos(Math.toRadians(maxLat));
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long latIndex(double lat) {
+        return (long) Math.floor((lat + 90) / CELL_DEGREES);
+    }
+
+    private static long lonIndex(double lon) {
+        return (long) Math.floor((lon + 180) / CELL_DEGREES);
+    }
+
+    private static long cellKey(GetRaftVo raft) {
+        return cellKey(latIndex(raft.getLatitude()), lonIndex(raft.getLongitude()));
+    }
+
+    private static long cellKey(long latIdx, long lonIdx) {
+        return (latIdx << 32) | (lonIdx & 0xffffffffL);
+    }
+}
@@ -0,0 +1,26 @@
+package org.qinian.scheduled;
+
+import lombok.RequiredArgsConstructor;
+import org.qinian.service.IRaftEventOutboxService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时把发件箱中未投递的渔排点事件发到 MQ
+ */
+@Component
+@RequiredArgsConstructor
+public class RaftEventRelay {
+    private static final int BATCH_SIZE = 100;
+
+    private final IRaftEventOutboxService raftEventOutboxService;
+
+    @Scheduled(fixedDelayString = "${asc.raft-event.relay-interval:PT1S}")
+    public void relay() {
+        // 一批发满说明可能还有积压，继续发
+        int sent;
+        do {
+            sent = raftEventOutboxService.relayPending(BATCH_SIZE);
+        } while (sent == BATCH_SIZE);
+    }
+}
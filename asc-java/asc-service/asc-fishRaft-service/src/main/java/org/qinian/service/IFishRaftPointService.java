@@ -1,9 +1,15 @@
 package org.qinian.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import org.qinian.domain.dto.fishRaft.AddFishRaftDto;
 import org.qinian.domain.pojo.FishRaftPoint;
+import org.qinian.domain.vo.CursorPageVo;
+import org.qinian.domain.vo.GetRaftVo;
+import org.qinian.domain.vo.RaftStateSnapshotVo;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * <p>
@@ -16,4 +22,90 @@ import java.util.List;
 public interface IFishRaftPointService extends IService<FishRaftPoint> {
 
     List<FishRaftPoint> getAllByFishmanId(Long id);
+
+    /**
+     * 渔民名下的渔排点 id
+     */
+    List<Long> listIdsByFishermen(List<Long> fishermenIds);
+
+    /**
+     * 创建渔排点：位置、渔排点与 created 事件在同一事务内写入
+     */
+    FishRaftPoint createRaft(AddFishRaftDto addFishRaftDto);
+
+    /**
+     * 修改渔排点并记录 updated 事件
+     */
+    boolean updateRaft(FishRaftPoint fishRaftPoint);
+
+    /**
+     * 删除渔排点并记录 deleted 事件
+     */
+    boolean deleteRaft(Long id);
+
+    /**
+     * 位置变更后刷新引用该位置的渔排点 updateTime 并记录 updated 事件
+     */
+    void touchByLocation(Long locationId);
+
+    /**
+     * 查询所有渔排点（含经纬度），单次联表查询
+     */
+    List<GetRaftVo> listRaftVo();
+
+    /**
+     * 查询单个渔排点（含经纬度）
+     */
+    GetRaftVo getRaftVo(Long id);
+
+    /**
+     * 游标分页查询渔排点（含经纬度）
+     *
+     * @param lastId 上一页的 nextCursor，首页传 null
+     * @param size   每页条数
+     */
+    CursorPageVo<GetRaftVo> pageRaftVo(Long lastId, Integer size);
+
+    /**
+     * 按更新时间游标分页查询变更过的渔排点（含经纬度），用于增量同步；
+     * 下一页游标取本页最后一条的 updateTime 与 raftId
+     *
+     * @param since  上一页最后一条的 updateTime，首页传 null
+     * @param lastId 上一页最后一条的 raftId，首页传 0
+     * @param size   每页条数
+     */
+    CursorPageVo<GetRaftVo> pageChangedRaftVo(LocalDateTime since, Long lastId, Integer size);
+
+    /**
+     * 流式遍历所有渔排点（含经纬度），不在内存中聚合整个列表
+     *
+     * @param consumer 每行回调
+     */
+    void streamRaftVo(Consumer<GetRaftVo> consumer);
+
+    /**
+     * 读取渔排点掩码，未迁移的旧版文本掩码原样返回
+     *
+     * @return 掩码文本，渔排点不存在或没有掩码时为 null
+     */
+    String getMask(Long id);
+
+    /**
+     * 把一批旧版文本掩码转为紧凑编码
+     *
+     * @return 本批处理的条数，小于 batchSize 说明已迁移完
+     */
+    int migrateLegacyMasks(int batchSize);
+
+    /**
+     * 渔排点最新状态的当前版本号，用作 ETag
+     */
+    long getStateVersion();
+
+    /**
+     * 渔排点最新状态快照
+     *
+     * @param since 上次返回的 version，传入时只返回之后变更和删除的渔排点；为 null 或已失效时返回全量
+     */
+    RaftStateSnapshotVo getStateSnapshot(Long since);
 }
@@ -15,4 +15,9 @@ import org.qinian.domain.pojo.Location;
 public interface ILocationService extends IService<Location> {
 
     Location saveLocation(AddLocationDto addLocationDto);
+
+    /**
+     * 构造位置并解析 adcode，不入库；解析可能调用百度接口，不要在事务内调用
+     */
+    Location resolveLocation(AddLocationDto addLocationDto);
 }
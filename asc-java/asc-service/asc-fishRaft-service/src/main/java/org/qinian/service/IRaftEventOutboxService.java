@@ -0,0 +1,29 @@
+package org.qinian.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import org.qinian.domain.pojo.RaftEventOutbox;
+import org.qinian.domain.vo.GetRaftVo;
+
+/**
+ * <p>
+ * 渔排点事件发件箱服务类
+ * </p>
+ */
+public interface IRaftEventOutboxService extends IService<RaftEventOutbox> {
+
+    /**
+     * 记录渔排点事件，需在业务事务内调用
+     *
+     * @param type 事件类型，见 RaftEventDto
+     * @param raft 渔排点（含经纬度），删除事件只需 raftId
+     */
+    void record(String type, GetRaftVo raft);
+
+    /**
+     * 按顺序投递未发送的事件到 MQ，收到 broker 确认后才标记已发送
+     *
+     * @param size 本次最多投递条数
+     * @return 已确认的条数
+     */
+    int relayPending(int size);
+}
@@ -1,12 +1,34 @@
 package org.qinian.service.impl;
 
+import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
 import org.qinian.dao.FishRaftPointMapper;
+import org.qinian.domain.dto.fishRaft.AddFishRaftDto;
+import org.qinian.domain.dto.fishRaft.RaftEventDto;
+import org.qinian.domain.pojo.Location;
 import org.qinian.domain.pojo.FishRaftPoint;
+import org.qinian.domain.vo.CursorPageVo;
+import org.qinian.domain.vo.GetRaftVo;
+import org.qinian.domain.vo.RaftStateSnapshotVo;
+import org.qinian.domain.vo.RaftStateVo;
 import org.qinian.service.IFishRaftPointService;
+import org.qinian.service.ILocationService;
+import org.qinian.service.IRaftEventOutboxService;
+import org.qinian.state.RaftStateStore;
+import org.qinian.utils.MaskCodec;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * <p>
@@ -17,10 +39,196 @@ import java.util.List;
  * @since 2024-07-29
  */
 @Service
+@RequiredArgsConstructor
 public class FishRaftPointServiceImpl extends ServiceImpl<FishRaftPointMapper, FishRaftPoint> implements IFishRaftPointService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ILocationService locationService;
+
+    private final IRaftEventOutboxService raftEventOutboxService;
+
+    private final RaftStateStore raftStateStore;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public List<FishRaftPoint> getAllByFishmanId(Long id) {
         return baseMapper.getAllByFishmanId(id);
     }
+
+    @Override
+    public List<Long> listIdsByFishermen(List<Long> fishermenIds) {
+        if (fishermenIds == null || fishermenIds.isEmpty()) {
+            return List.of();
+        }
+        return baseMapper.selectIdsByFishermen(fishermenIds);
+    }
+
+    @Override
+    public FishRaftPoint createRaft(AddFishRaftDto addFishRaftDto) {
+        // adcode 解析可能走百度接口，放在事务外，避免 HTTP 调用期间占用连接
+        Location location = locationService.resolveLocation(addFishRaftDto.getLocationDto());
+        FishRaftPoint fishRaftPoint = BeanUtil.copyProperties(addFishRaftDto, FishRaftPoint.class);
+        fishRaftPoint.setCreateTime(LocalDateTime.now());
+        fishRaftPoint.setUpdateTime(LocalDateTime.now());
+        encodeMask(fishRaftPoint);
+
+        return transactionTemplate.execute(status -> {
+            // 添加对应的 location id
+            locationService.save(location);
+            fishRaftPoint.setLocationId(location.getId());
+            baseMapper.insert(fishRaftPoint);
+
+            // 列表查询不带掩码，事件中的掩码取自请求
+            GetRaftVo created = getRaftVo(fishRaftPoint.getId());
+            created.setMask(addFishRaftDto.getMask());
+            raftEventOutboxService.record(RaftEventDto.CREATED, created);
+            return fishRaftPoint;
+        });
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean updateRaft(FishRaftPoint fishRaftPoint) {
+        fishRaftPoint.setUpdateTime(LocalDateTime.now());  // 增量同步依赖 updateTime
+        String mask = fishRaftPoint.getMask();
+        encodeMask(fishRaftPoint);
+        if (baseMapper.updateById(fishRaftPoint) == 0) {
+            return false;
+        }
+        GetRaftVo updated = getRaftVo(fishRaftPoint.getId());
+        updated.setMask(mask);
+        raftEventOutboxService.record(RaftEventDto.UPDATED, updated);
+        return true;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean deleteRaft(Long id) {
+        if (baseMapper.deleteById(id) == 0) {
+            return false;
+        }
+        GetRaftVo deleted = new GetRaftVo();
+        deleted.setRaftId(id);
+        raftEventOutboxService.record(RaftEventDto.DELETED, deleted);
+        return true;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void touchByLocation(Long locationId) {
+        List<FishRaftPoint> rafts = lambdaQuery().eq(FishRaftPoint::getLocationId, locationId).list();
+        if (rafts.isEmpty()) {
+            return;
+        }
+        lambdaUpdate()
+                .eq(FishRaftPoint::getLocationId, locationId)
+                .set(FishRaftPoint::getUpdateTime, LocalDateTime.now())
+                .update();
+        for (FishRaftPoint raft : rafts) {
+            raftEventOutboxService.record(RaftEventDto.UPDATED, getRaftVo(raft.getId()));
+        }
+    }
+
+    @Override
+    public List<GetRaftVo> listRaftVo() {
+        return baseMapper.selectRaftVoAfter(null, null);
+    }
+
+    @Override
+    public GetRaftVo getRaftVo(Long id) {
+        return baseMapper.selectRaftVoById(id);
+    }
+
+    @Override
+    public CursorPageVo<GetRaftVo> pageRaftVo(Long lastId, Integer size) {
+        int limit = pageLimit(size);
+        return toPage(baseMapper.selectRaftVoAfter(lastId, limit + 1), limit);
+    }
+
+    @Override
+    public CursorPageVo<GetRaftVo> pageChangedRaftVo(LocalDateTime since, Long lastId, Integer size) {
+        int limit = pageLimit(size);
+        return toPage(baseMapper.selectRaftVoChangedAfter(since, lastId == null ? 0L : lastId, limit + 1), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamRaftVo(Consumer<GetRaftVo> consumer) {
+        try (Cursor<GetRaftVo> cursor = baseMapper.cursorRaftVo()) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int pageLimit(Integer size) {
+        return (size == null || size <= 0) ? 100 : Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // 多查一条用于判断是否还有下一页，避免 count
+    private static CursorPageVo<GetRaftVo> toPage(List<GetRaftVo> records, int limit) {
+        boolean hasMore = records.size() > limit;
+        if (hasMore) {
+            records = records.subList(0, limit);
+        }
+        Long nextCursor = hasMore ? records.get(records.size() - 1).getRaftId() : null;
+
+        return new CursorPageVo<>(records, nextCursor, hasMore);
+    }
+
+    @Override
+    public String getMask(Long id) {
+        FishRaftPoint raft = baseMapper.selectMaskById(id);
+        if (raft == null) {
+            return null;
+        }
+        if (raft.getMaskData() != null) {
+            return MaskCodec.decode(raft.getMaskData());
+        }
+        // 旧版文本掩码，由 LegacyMaskMigration 迁移
+        return raft.getMask();
+    }
+
+    @Override
+    public int migrateLegacyMasks(int batchSize) {
+        List<FishRaftPoint> rafts = baseMapper.selectLegacyMasks(batchSize);
+        for (FishRaftPoint raft : rafts) {
+            // 期间被重新写入掩码的行已有 mask_data，不覆盖
+            lambdaUpdate()
+                    .eq(FishRaftPoint::getId, raft.getId())
+                    .isNull(FishRaftPoint::getMaskData)
+                    .set(FishRaftPoint::getMaskData, MaskCodec.encode(raft.getMask()))
+                    .set(FishRaftPoint::getMask, null)
+                    .update();
+        }
+        return rafts.size();
+    }
+
+    @Override
+    public long getStateVersion() {
+        return raftStateStore.version();
+    }
+
+    @Override
+    public RaftStateSnapshotVo getStateSnapshot(Long since) {
+        RaftStateStore.Snapshot snapshot = raftStateStore.snapshot(since);
+        List<RaftStateVo> states = new ArrayList<>(snapshot.states().size());
+        snapshot.states().forEach((raftId, fields) -> {
+            RaftStateVo state = objectMapper.convertValue(fields, RaftStateVo.class);
+            state.setFishRaftId(raftId);
+            states.add(state);
+        });
+        return new RaftStateSnapshotVo(snapshot.version(), snapshot.full(), states, snapshot.removed());
+    }
+
+    // 文本掩码转为紧凑编码写入 mask_data，旧版文本列不再写入
+    private static void encodeMask(FishRaftPoint fishRaftPoint) {
+        if (fishRaftPoint.getMask() != null) {
+            fishRaftPoint.setMaskData(MaskCodec.encode(fishRaftPoint.getMask()));
+            fishRaftPoint.setMask(null);
+        }
+    }
 }
@@ -5,8 +5,9 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import org.qinian.dao.LocationMapper;
 import org.qinian.domain.dto.fishRaft.AddLocationDto;
 import org.qinian.domain.pojo.Location;
+import org.qinian.geo.AdcodeResolver;
 import org.qinian.service.ILocationService;
-import org.qinian.utils.LocationUtil;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 /**
@@ -19,14 +20,21 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class LocationServiceImpl extends ServiceImpl<LocationMapper, Location> implements ILocationService {
+    @Autowired
+    private AdcodeResolver adcodeResolver;
 
     @Override
     public Location saveLocation(AddLocationDto addLocationDto) {
+        Location location = resolveLocation(addLocationDto);
+        baseMapper.insert(location);
+        return location;
+    }
+
+    @Override
+    public Location resolveLocation(AddLocationDto addLocationDto) {
         Location location = BeanUtil.copyProperties(addLocationDto, Location.class);
         // 获取城市 adcode
-        location.setAdcode(LocationUtil.getAdcodeByLocation(location.getLongitude(), location.getLatitude()));
-
-        baseMapper.insert(location);
+        location.setAdcode(adcodeResolver.resolve(location.getLongitude(), location.getLatitude()));
         return location;
     }
 }
@@ -0,0 +1,127 @@
+package org.qinian.service.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.dao.RaftEventOutboxMapper;
+import org.qinian.domain.dto.fishRaft.RaftEventDto;
+import org.qinian.domain.pojo.RaftEventOutbox;
+import org.qinian.domain.vo.GetRaftVo;
+import org.qinian.service.IRaftEventOutboxService;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>
+ * 渔排点事件发件箱服务实现类
+ * </p>
+ * 投递语义为至少一次：broker 确认（publisher confirm）后才标记已发送，消费端需按 eventId 去重
+ */
+@Slf4j
+@Service
+public class RaftEventOutboxServiceImpl extends ServiceImpl<RaftEventOutboxMapper, RaftEventOutbox> implements IRaftEventOutboxService {
+    public static final String EXCHANGE = "raft.topic";
+
+    private static final long CONFIRM_TIMEOUT_SECONDS = 5;
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final MessageConverter messageConverter;
+
+    private final ObjectMapper objectMapper;
+
+    public RaftEventOutboxServiceImpl(RabbitTemplate rabbitTemplate,
+                                      @Qualifier("jsonToMapMessageConverter") MessageConverter messageConverter,
+                                      ObjectMapper objectMapper) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.messageConverter = messageConverter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void record(String type, GetRaftVo raft) {
+        RaftEventDto event = new RaftEventDto(
+                null,
+                type,
+                raft.getRaftId(),
+                raft.getFishermenId(),
+                raft.getLocationId(),
+                raft.getLongitude(),
+                raft.getLatitude(),
+                raft.getName(),
+                raft.getZoom(),
+                raft.getSize(),
+                raft.getMessage(),
+                raft.getMask()
+        );
+
+        RaftEventOutbox outbox = new RaftEventOutbox()
+                .setFishRaftId(raft.getRaftId())
+                .setEventType(type)
+                .setPayload(toJson(event))
+                .setCreateTime(LocalDateTime.now());
+        baseMapper.insert(outbox);
+    }
+
+    @Override
+    public int relayPending(int size) {
+        List<RaftEventOutbox> pending = baseMapper.selectPending(size);
+        // 1.批量发送，每条带关联数据等待 broker 确认
+        List<CorrelationData> confirms = new ArrayList<>(pending.size());
+        for (RaftEventOutbox outbox : pending) {
+            try {
+                RaftEventDto event = objectMapper.readValue(outbox.getPayload(), RaftEventDto.class);
+                event.setEventId(outbox.getId());
+                CorrelationData correlation = new CorrelationData(String.valueOf(outbox.getId()));
+                rabbitTemplate.send(EXCHANGE, "raft." + event.getType(),
+                        messageConverter.toMessage(event, new MessageProperties()), correlation);
+                confirms.add(correlation);
+            } catch (Exception e) {
+                // 保持顺序：失败即停止，下次从这条重试
+                log.warn("渔排点事件 {} 投递失败，稍后重试: {}", outbox.getId(), e.toString());
+                break;
+            }
+        }
+        // 2.按顺序等待确认，只标记连续 ack 的前缀，nack 或超时之后的事件下次重发
+        int sent = 0;
+        for (int i = 0; i < confirms.size(); i++) {
+            Long id = pending.get(i).getId();
+            try {
+                CorrelationData.Confirm confirm = confirms.get(i).getFuture().get(CONFIRM_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (!confirm.isAck()) {
+                    log.warn("渔排点事件 {} 未被 broker 确认，稍后重试: {}", id, confirm.getReason());
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("渔排点事件 {} 等待确认失败，稍后重试: {}", id, e.toString());
+                break;
+            }
+            baseMapper.markSent(id);
+            sent++;
+        }
+        return sent;
+    }
+
+    private String toJson(RaftEventDto event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("渔排点事件序列化失败", e);
+        }
+    }
+}
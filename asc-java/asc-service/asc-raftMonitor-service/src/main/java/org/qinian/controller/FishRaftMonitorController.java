@@ -1,13 +1,17 @@
 package org.qinian.controller;
 
 import cn.hutool.core.bean.BeanUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.qinian.domain.Result;
 import org.qinian.domain.dto.raftMonitor.AddRaftMonitor;
 import org.qinian.domain.pojo.FishRaftMonitor;
+import org.qinian.domain.vo.RaftMonitorIngestVo;
 import org.qinian.service.IFishRaftMonitorService;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -33,6 +37,9 @@ public class FishRaftMonitorController {
 
         boolean isSuccess = fishRaftMonitorService.save(fishRaftMonitor);
         if (isSuccess) {
+            // 更新看板最新状态
+            fishRaftMonitorService.updateState(List.of(fishRaftMonitor));
+
             // 算法告警
             fishRaftMonitorService.alert(addRaftMonitor);
 
@@ -42,6 +49,14 @@ public class FishRaftMonitorController {
         }
     }
 
+    // 批量导入实时渔排检测数据，供识别服务一次提交整轮结果
+    // 请求体为 NDJSON（application/x-ndjson，每行一个对象）或 JSON 数组，服务端流式解析
+    @PostMapping(value = "/batch", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public Result createFishRaftMonitors(HttpServletRequest request) throws IOException {
+        RaftMonitorIngestVo result = fishRaftMonitorService.ingest(request.getInputStream());
+        return Result.success(200, "实时渔排检测数据批量导入成功", result);
+    }
+
     // 实时渔排检测数据查询根据id
     @GetMapping("/{id}")
     public Result getFishRaftMonitorById(@PathVariable Long id) {
@@ -0,0 +1,245 @@
+package org.qinian.detector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.domain.dto.alert.AddAlertInfoDto;
+import org.qinian.domain.dto.raftMonitor.AddRaftMonitor;
+import org.qinian.enums.AlertLevels;
+import org.qinian.enums.AlertTypes;
+import org.qinian.properties.RaftChangeProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * 渔排识别结果的流式变化检测
+ * </p>
+ * 每个渔排点对面积、数量分别维护 EWMA 均值、基线和双向 CUSUM：
+ * 平滑值偏离基线超过容差判定为突变，CUSUM 超过阈值判定为缓慢漂移，告警后以当前均值重建基线。
+ * 状态保存在本地，定时批量写回 Redis hash，重启后从 Redis 恢复
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RaftChangeDetector {
+    private static final String REDIS_KEY = "raft_change_state";
+
+    private final RaftChangeProperties properties;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, RaftState> states = new ConcurrentHashMap<>();
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private final Object redisLock = new Object();  // 写回与删除互斥，避免删除前的快照在删除后写回
+
+    /**
+     * 单个指标的检测状态
+     */
+    @Data
+    public static class MetricState {
+        private double mean;  // EWMA 平滑值
+
+        private double baseline;  // 基线
+
+        private double upper;  // 向上累积偏差 S+
+
+        private double lower;  // 向下累积偏差 S-
+    }
+
+    /**
+     * 渔排点的检测状态，写入 Redis 时整体序列化
+     */
+    @Data
+    public static class RaftState {
+        private long samples;
+
+        private MetricState area = new MetricState();
+
+        private MetricState number = new MetricState();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        Map<Object, Object> saved = redisTemplate.opsForHash().entries(REDIS_KEY);
+        saved.forEach((raftId, state) ->
+                states.put(Long.valueOf(raftId.toString()), objectMapper.convertValue(state, RaftState.class)));
+        log.info("渔排变化检测状态从 Redis 恢复，共 {} 个渔排点", saved.size());
+    }
+
+    /**
+     * 评估一个识别结果
+     *
+     * @return 需要发出的告警，无变化时为空列表
+     */
+    public List<AddAlertInfoDto> evaluate(AddRaftMonitor sample) {
+        Long raftId = sample.getFishRaftId();
+        if (raftId == null) {
+            return List.of();
+        }
+        RaftState state = states.computeIfAbsent(raftId, id -> new RaftState());
+
+        List<AddAlertInfoDto> alerts = List.of();
+        synchronized (state) {
+            boolean warm = state.samples >= properties.getWarmup();
+            if (sample.getRaftArea() != null) {
+                String message = update(state.area, sample.getRaftArea(), state.samples == 0, warm,
+                        properties.getAreaTolerance(), "渔排面积");
+                alerts = add(alerts, raftId, message);
+            }
+            if (sample.getRaftNumber() != null) {
+                String message = update(state.number, sample.getRaftNumber(), state.samples == 0, warm,
+                        properties.getNumberTolerance(), "渔排数量");
+                alerts = add(alerts, raftId, message);
+            }
+            state.samples++;
+        }
+        dirty.add(raftId);
+        return alerts;
+    }
+
+    /**
+     * 批量评估，一次返回全部告警
+     */
+    public List<AddAlertInfoDto> evaluateAll(List<AddRaftMonitor> samples) {
+        List<AddAlertInfoDto> alerts = new ArrayList<>();
+        for (AddRaftMonitor sample : samples) {
+            alerts.addAll(evaluate(sample));
+        }
+        return alerts;
+    }
+
+    /**
+     * 渔排点删除后清理状态
+     */
+    public void forget(Long raftId) {
+        synchronized (redisLock) {
+            states.remove(raftId);
+            dirty.remove(raftId);
+            redisTemplate.opsForHash().delete(REDIS_KEY, String.valueOf(raftId));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${asc.raft-change.checkpoint-interval:PT1M}",
+            fixedDelayString = "${asc.raft-change.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Map<Long, RaftState> sources = new HashMap<>();
+        Map<String, Object> batch = new HashMap<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            Long raftId = it.next();
+            it.remove();
+            RaftState state = states.get(raftId);
+            if (state == null) {
+                continue;
+            }
+            synchronized (state) {
+                batch.put(String.valueOf(raftId), copy(state));
+            }
+            sources.put(raftId, state);
+        }
+        synchronized (redisLock) {
+            // 取快照之后被删除（或删除后又重新建立）的渔排点不写回
+            sources.forEach((raftId, state) -> {
+                if (states.get(raftId) != state) {
+                    batch.remove(String.valueOf(raftId));
+                }
+            });
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                redisTemplate.opsForHash().putAll(REDIS_KEY, batch);
+            } catch (RuntimeException e) {
+                // 写回失败，下次重试
+                batch.keySet().forEach(raftId -> dirty.add(Long.valueOf(raftId)));
+                log.warn("渔排变化检测状态写回 Redis 失败: {}", e.toString());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        checkpoint();
+    }
+
+    // 更新单个指标，返回告警内容，无告警时为 null
+    private String update(MetricState metric, double value, boolean first, boolean warm,
+                          double tolerance, String label) {
+        if (first) {
+            metric.mean = value;
+            metric.baseline = value;
+            return null;
+        }
+        double alpha = properties.getAlpha();
+        metric.mean = alpha * value + (1 - alpha) * metric.mean;
+        if (!warm) {
+            // 预热期基线跟随均值
+            metric.baseline = metric.mean;
+            return null;
+        }
+
+        double scale = Math.max(Math.abs(metric.baseline), 1);
+        double deviation = (value - metric.baseline) / scale;
+        metric.upper = Math.max(0, metric.upper + deviation - properties.getCusumSlack());
+        metric.lower = Math.max(0, metric.lower - deviation - properties.getCusumSlack());
+
+        double shift = (metric.mean - metric.baseline) / scale;
+        String message = null;
+        if (Math.abs(shift) > tolerance) {
+            message = String.format("%s突变：%s %.1f%%（基线 %.2f，当前 %.2f）",
+                    label, shift > 0 ? "增加" : "减少", Math.abs(shift) * 100, metric.baseline, metric.mean);
+        } else if (metric.upper > properties.getCusumThreshold() || metric.lower > properties.getCusumThreshold()) {
+            message = String.format("%s持续%s（基线 %.2f，当前 %.2f）",
+                    label, metric.upper > metric.lower ? "增加" : "减少", metric.baseline, metric.mean);
+        }
+
+        if (message != null) {
+            // 变化已确认，以当前水平作为新基线
+            metric.baseline = metric.mean;
+            metric.upper = 0;
+            metric.lower = 0;
+        }
+        return message;
+    }
+
+    private static List<AddAlertInfoDto> add(List<AddAlertInfoDto> alerts, Long raftId, String message) {
+        if (message == null) {
+            return alerts;
+        }
+        List<AddAlertInfoDto> result = alerts.isEmpty() ? new ArrayList<>(2) : alerts;
+        result.add(new AddAlertInfoDto(raftId, AlertTypes.AI_ALERT, AlertLevels.HEAT, message));
+        return result;
+    }
+
+    private static RaftState copy(RaftState state) {
+        RaftState copy = new RaftState();
+        copy.samples = state.samples;
+        copy.area = copy(state.area);
+        copy.number = copy(state.number);
+        return copy;
+    }
+
+    private static MetricState copy(MetricState metric) {
+        MetricState copy = new MetricState();
+        copy.mean = metric.mean;
+        copy.baseline = metric.baseline;
+        copy.upper = metric.upper;
+        copy.lower = metric.lower;
+        return copy;
+    }
+}
@@ -0,0 +1,32 @@
+package org.qinian.listener;
+
+import lombok.RequiredArgsConstructor;
+import org.qinian.detector.RaftChangeDetector;
+import org.qinian.domain.dto.fishRaft.RaftEventDto;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>
+ * 渔排点删除后清理变化检测状态
+ * </p>
+ * 检测状态在每个实例的内存中，因此每个实例使用自己的匿名队列，都收到删除事件；
+ * 停机期间错过的删除已由其它实例从 Redis 中清除，启动恢复时不会读到
+ */
+@Component
+@RequiredArgsConstructor
+public class RaftEventListener {
+    private final RaftChangeDetector raftChangeDetector;
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue,
+            exchange = @Exchange(name = "raft.topic", type = "topic"),
+            key = "raft." + RaftEventDto.DELETED
+    ), messageConverter = "jsonToMapMessageConverter")
+    public void listenRaftDeleted(RaftEventDto event) {
+        raftChangeDetector.forget(event.getFishRaftId());
+    }
+}
@@ -0,0 +1,29 @@
+package org.qinian.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 渔排识别结果变化检测参数，偏差均按基线的相对值计算（渔排数量的基线小于 1 时按 1 计）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "asc.raft-change")
+public class RaftChangeProperties {
+    private double alpha = 0.3;  // EWMA 平滑系数，越大越跟随最新样本
+
+    private int warmup = 3;  // 前 N 个样本只用于建立基线，不告警
+
+    private double areaTolerance = 0.1;  // 平滑后面积偏离基线超过该比例即告警
+
+    private double numberTolerance = 0.1;  // 平滑后数量偏离基线超过该比例即告警
+
+    private double cusumSlack = 0.02;  // CUSUM 每个样本允许的偏差（k），抵消模型抖动
+
+    private double cusumThreshold = 0.2;  // CUSUM 累积偏差阈值（h），用于发现缓慢漂移
+
+    private Duration checkpointInterval = Duration.ofMinutes(1);  // 状态写回 Redis 的间隔
+}
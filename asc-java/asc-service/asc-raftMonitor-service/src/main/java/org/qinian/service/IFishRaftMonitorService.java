@@ -3,6 +3,11 @@ package org.qinian.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import org.qinian.domain.dto.raftMonitor.AddRaftMonitor;
 import org.qinian.domain.pojo.FishRaftMonitor;
+import org.qinian.domain.vo.RaftMonitorIngestVo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 /**
  * <p>
@@ -15,4 +20,14 @@ import org.qinian.domain.pojo.FishRaftMonitor;
 public interface IFishRaftMonitorService extends IService<FishRaftMonitor> {
 
     void alert(AddRaftMonitor addRaftMonitor);
+
+    /**
+     * 更新渔排点最新状态中的识别结果部分
+     */
+    void updateState(List<FishRaftMonitor> monitors);
+
+    /**
+     * 批量导入识别结果，请求体为 NDJSON（每行一个 AddRaftMonitor）或 JSON 数组，按块写库并批量评估告警
+     */
+    RaftMonitorIngestVo ingest(InputStream body) throws IOException;
 }
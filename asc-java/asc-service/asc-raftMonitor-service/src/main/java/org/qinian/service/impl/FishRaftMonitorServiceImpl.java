@@ -1,18 +1,30 @@
 package org.qinian.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.qinian.dao.FishRaftMonitorMapper;
+import org.qinian.detector.RaftChangeDetector;
 import org.qinian.domain.dto.alert.AddAlertInfoDto;
 import org.qinian.domain.dto.raftMonitor.AddRaftMonitor;
 import org.qinian.domain.pojo.FishRaftMonitor;
-import org.qinian.enums.AlertLevels;
-import org.qinian.enums.AlertTypes;
+import org.qinian.domain.vo.RaftMonitorIngestVo;
+import org.qinian.exception.BadRequestException;
 import org.qinian.model.RemoteAlertService;
 import org.qinian.service.IFishRaftMonitorService;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.qinian.state.RaftStateStore;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * <p>
  * 服务实现类
@@ -21,36 +33,108 @@ import org.springframework.stereotype.Service;
  * @author qinian
  * @since 2024-07-29
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FishRaftMonitorServiceImpl extends ServiceImpl<FishRaftMonitorMapper, FishRaftMonitor> implements IFishRaftMonitorService {
-    private final RedisTemplate<String, Object> redisTemplate;
+    private static final int CHUNK_SIZE = 1000;  // 每块写库并评估一次告警
+
+    private final RaftChangeDetector raftChangeDetector;
 
     private final RemoteAlertService remoteAlertService;
 
+    private final ObjectMapper objectMapper;
+
+    private final RaftStateStore raftStateStore;
+
     @Override
     public void alert(AddRaftMonitor addRaftMonitor) {
-        String key = "alert_ai_" + addRaftMonitor.getFishRaftId();
-
-        if (Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
-            // 1. 获取该渔排点的历史记录
-            AddRaftMonitor lastInfo = (AddRaftMonitor) redisTemplate.opsForValue().get(key);
-
-            // 2.渔排数据变更警告
-            assert lastInfo != null;
-            if (!lastInfo.getRaftArea().equals(addRaftMonitor.getRaftArea()) || !lastInfo.getRaftNumber().equals(addRaftMonitor.getRaftNumber())) {
-                remoteAlertService.createAlertInfo(
-                        new AddAlertInfoDto(
-                                addRaftMonitor.getFishRaftId(),
-                                AlertTypes.AI_ALERT,
-                                AlertLevels.HEAT,
-                                "渔排数据变更警告"
-                        )
-                );
+        // 变化检测在本地完成，只有确认变化时才调用告警服务
+        List<AddAlertInfoDto> alerts = raftChangeDetector.evaluate(addRaftMonitor);
+        if (!alerts.isEmpty()) {
+            remoteAlertService.createAlertInfos(alerts);
+        }
+    }
+
+    @Override
+    public void updateState(List<FishRaftMonitor> monitors) {
+        List<RaftStateStore.Update> updates = new ArrayList<>(monitors.size());
+        for (FishRaftMonitor monitor : monitors) {
+            updates.add(new RaftStateStore.Update(monitor.getFishRaftId())
+                    .set(RaftStateStore.RAFT_AREA, monitor.getRaftArea())
+                    .set(RaftStateStore.RAFT_NUMBER, monitor.getRaftNumber())
+                    .set(RaftStateStore.MONITOR_TIME, monitor.getCreateTime()));
+        }
+        // 看板状态只是投影，写入失败不影响识别结果入库
+        try {
+            raftStateStore.apply(updates);
+        } catch (DataAccessException e) {
+            log.warn("渔排识别状态更新失败，共 {} 条: {}", monitors.size(), e.toString());
+        }
+    }
+
+    @Override
+    public RaftMonitorIngestVo ingest(InputStream body) throws IOException {
+        int saved = 0, rejected = 0, alerts = 0;
+        List<AddRaftMonitor> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        // 逐条流式解析，不把整个请求体读入内存
+        try (MappingIterator<AddRaftMonitor> it = objectMapper.readerFor(AddRaftMonitor.class).readValues(body)) {
+            while (it.hasNextValue()) {
+                AddRaftMonitor sample;
+                try {
+                    sample = it.next();
+                } catch (RuntimeJsonMappingException e) {
+                    // 字段类型不匹配等，跳过该条继续解析
+                    rejected++;
+                    continue;
+                } catch (RuntimeException e) {
+                    if (e.getCause() instanceof IOException cause) {
+                        throw cause;
+                    }
+                    throw e;
+                }
+                if (sample == null || sample.getFishRaftId() == null) {
+                    rejected++;
+                    continue;
+                }
+                chunk.add(sample);
+                if (chunk.size() == CHUNK_SIZE) {
+                    saved += chunk.size();
+                    alerts += flush(chunk);
+                    chunk.clear();
+                }
             }
-        } else {
-            // 无该渔排点的历史记录
-            redisTemplate.opsForValue().set(key, addRaftMonitor);
+        } catch (IOException e) {
+            throw new BadRequestException("请求体格式错误，已写入 " + saved + " 条: " + e.getMessage(), e);
+        }
+        if (!chunk.isEmpty()) {
+            saved += chunk.size();
+            alerts += flush(chunk);
+        }
+
+        log.info("渔排检测数据批量导入：写入 {} 条，跳过 {} 条，告警 {} 条", saved, rejected, alerts);
+        return new RaftMonitorIngestVo(saved, rejected, alerts);
+    }
+
+    // 批量写库后统一评估，整块只调用一次告警服务
+    private int flush(List<AddRaftMonitor> chunk) {
+        LocalDateTime now = LocalDateTime.now();
+        List<FishRaftMonitor> rows = new ArrayList<>(chunk.size());
+        for (AddRaftMonitor sample : chunk) {
+            rows.add(new FishRaftMonitor()
+                    .setFishRaftId(sample.getFishRaftId())
+                    .setRaftNumber(sample.getRaftNumber())
+                    .setRaftArea(sample.getRaftArea())
+                    .setCreateTime(now));
+        }
+        saveBatch(rows, CHUNK_SIZE);
+        updateState(rows);
+
+        List<AddAlertInfoDto> alerts = raftChangeDetector.evaluateAll(chunk);
+        if (!alerts.isEmpty()) {
+            remoteAlertService.createAlertInfos(alerts);
         }
+        return alerts.size();
     }
 }
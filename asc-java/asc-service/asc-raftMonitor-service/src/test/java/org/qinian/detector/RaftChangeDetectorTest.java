@@ -0,0 +1,205 @@
+package org.qinian.detector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qinian.domain.dto.alert.AddAlertInfoDto;
+import org.qinian.domain.dto.raftMonitor.AddRaftMonitor;
+import org.qinian.properties.RaftChangeProperties;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EWMA 突变、CUSUM 漂移的判定阈值，告警后的基线重建，以及状态写回与删除
+ */
+class RaftChangeDetectorTest {
+    private static final Long RAFT_ID = 1L;
+
+    private final RaftChangeProperties properties = new RaftChangeProperties();
+
+    private FakeRedisTemplate redis;
+
+    private RaftChangeDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        redis = new FakeRedisTemplate();
+        detector = new RaftChangeDetector(properties, redis, new ObjectMapper());
+    }
+
+    @Test
+    void noAlertDuringWarmup() {
+        assertTrue(feed(100, 200, 50).isEmpty());
+    }
+
+    @Test
+    void jumpAboveToleranceAlertsAndRebasesOnCurrentMean() {
+        warmUp(100);
+
+        // EWMA：0.3 * 200 + 0.7 * 100 = 130，偏离 30% > 10%
+        List<AddAlertInfoDto> alerts = detector.evaluate(area(200));
+        assertEquals(1, alerts.size());
+        assertEquals("渔排面积突变：增加 30.0%（基线 100.00，当前 130.00）", alerts.get(0).getAlertedMessage());
+
+        // 以 130 为新基线，0.3 * 200 + 0.7 * 130 = 151，偏离约 16%，仍在变化中
+        assertEquals(1, detector.evaluate(area(200)).size());
+    }
+
+    @Test
+    void dropBelowToleranceIsReportedAsDecrease() {
+        warmUp(100);
+
+        List<AddAlertInfoDto> alerts = detector.evaluate(area(50));
+        assertEquals(1, alerts.size());
+        assertTrue(alerts.get(0).getAlertedMessage().startsWith("渔排面积突变：减少 15.0%"));
+    }
+
+    @Test
+    void smallJumpStaysWithinBothThresholds() {
+        warmUp(100);
+
+        // 0.3 * 120 + 0.7 * 100 = 106，偏离 6%；CUSUM 0.2 - 0.02 = 0.18
+        assertTrue(detector.evaluate(area(120)).isEmpty());
+        // 再来一个 115：平滑值 108.7 仍未超容差，CUSUM 0.18 + 0.13 超过阈值
+        assertTrue(detector.evaluate(area(115)).get(0).getAlertedMessage().startsWith("渔排面积持续增加"));
+    }
+
+    @Test
+    void noiseWithinSlackNeverAlerts() {
+        warmUp(100);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(detector.evaluate(area(i % 2 == 0 ? 101.5 : 98.5)).isEmpty());
+        }
+    }
+
+    @Test
+    void slowDriftIsCaughtByCusumAndResetsBaseline() {
+        warmUp(100);
+
+        // 每个样本偏差 5%，扣除松弛 2% 后累积 3%，第 7 个样本超过 0.2；平滑值偏离始终小于 10%
+        List<AddAlertInfoDto> alerts = feed(105, 105, 105, 105, 105, 105);
+        assertTrue(alerts.isEmpty());
+        alerts = detector.evaluate(area(105));
+        assertEquals(1, alerts.size());
+        assertTrue(alerts.get(0).getAlertedMessage().startsWith("渔排面积持续增加"));
+
+        // 基线重建为当前水平，同样的值不再告警
+        assertTrue(feed(105, 105, 105, 105, 105, 105, 105, 105, 105, 105).isEmpty());
+    }
+
+    @Test
+    void numberBelowOneUsesUnitScale() {
+        for (int i = 0; i < properties.getWarmup(); i++) {
+            detector.evaluate(number(0));
+        }
+
+        // 基线 0 按 1 计：0.3 * 1 = 0.3 > 0.1
+        List<AddAlertInfoDto> alerts = detector.evaluate(number(1));
+        assertEquals(1, alerts.size());
+        assertTrue(alerts.get(0).getAlertedMessage().startsWith("渔排数量突变：增加"));
+    }
+
+    @Test
+    void stateSurvivesCheckpointAndRestore() {
+        warmUp(100);
+        detector.checkpoint();
+
+        RaftChangeDetector restored = new RaftChangeDetector(properties, redis, new ObjectMapper());
+        restored.restore();
+        assertEquals(1, restored.evaluate(area(200)).size());
+    }
+
+    @Test
+    void forgottenRaftIsNotWrittenBack() {
+        warmUp(100);
+        detector.forget(RAFT_ID);
+        detector.checkpoint();
+
+        assertFalse(redis.hash.containsKey(String.valueOf(RAFT_ID)));
+    }
+
+    @Test
+    void checkpointRacingForgetNeverResurrectsState() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        for (int i = 0; i < 2000; i++) {
+            detector.evaluate(area(100));
+            Thread checkpoint = new Thread(() -> {
+                await(barrier);
+                detector.checkpoint();
+            });
+            checkpoint.start();
+            await(barrier);
+            detector.forget(RAFT_ID);
+            checkpoint.join();
+
+            assertFalse(redis.hash.containsKey(String.valueOf(RAFT_ID)), "第 " + i + " 次");
+        }
+    }
+
+    private void warmUp(double value) {
+        for (int i = 0; i < properties.getWarmup(); i++) {
+            assertTrue(detector.evaluate(area(value)).isEmpty());
+        }
+    }
+
+    private List<AddAlertInfoDto> feed(double... values) {
+        List<AddAlertInfoDto> alerts = new ArrayList<>();
+        for (double value : values) {
+            alerts.addAll(detector.evaluate(area(value)));
+        }
+        return alerts;
+    }
+
+    private static AddRaftMonitor area(double value) {
+        return new AddRaftMonitor(RAFT_ID, null, value);
+    }
+
+    private static AddRaftMonitor number(int value) {
+        return new AddRaftMonitor(RAFT_ID, value, null);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 只实现 hash 的 entries、putAll、delete
+     */
+    static class FakeRedisTemplate extends RedisTemplate<String, Object> {
+        final Map<Object, Object> hash = new ConcurrentHashMap<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <HK, HV> HashOperations<String, HK, HV> opsForHash() {
+            return (HashOperations<String, HK, HV>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{HashOperations.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "entries" -> Map.copyOf(hash);
+                        case "putAll" -> {
+                            hash.putAll((Map<?, ?>) args[1]);
+                            yield null;
+                        }
+                        case "delete" -> {
+                            for (Object key : (Object[]) args[1]) {
+                                hash.remove(key);
+                            }
+                            yield 1L;
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.qinian.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.RequiredArgsConstructor;
+import org.qinian.dao.FishingPlatoonMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * 邀请码 -> 渔民管理者 id
+ * </p>
+ * 邀请码生成后不变，渔民注册时直接命中本地缓存；不存在的邀请码不缓存，新注册的管理者立即可用；
+ * 删除渔民管理者时需调用 {@link #evictPlatoon(Long)}，否则其邀请码在过期前仍可注册
+ */
+@Component
+@RequiredArgsConstructor
+public class InvitationCodeCache {
+    private final FishingPlatoonMapper fishingPlatoonMapper;
+
+    private final Cache<String, Long> cache = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    /**
+     * @return 渔民管理者 id，邀请码不存在时为 null
+     */
+    public Long getPlatoonId(String invitationCode) {
+        if (invitationCode == null) {
+            return null;
+        }
+        Long platoonId = cache.getIfPresent(invitationCode);
+        if (platoonId != null) {
+            return platoonId;
+        }
+        platoonId = fishingPlatoonMapper.selectIdByInvitationCode(invitationCode);
+        if (platoonId != null) {
+            cache.put(invitationCode, platoonId);
+        }
+        return platoonId;
+    }
+
+    /**
+     * 移除渔民管理者的邀请码缓存，删除渔民管理者后调用
+     */
+    public void evictPlatoon(Long platoonId) {
+        evictPlatoons(List.of(platoonId));
+    }
+
+    /**
+     * 批量移除渔民管理者的邀请码缓存
+     */
+    public void evictPlatoons(Collection<Long> platoonIds) {
+        // 按值移除，删除操作很少，遍历一次缓存即可
+        cache.asMap().values().removeIf(platoonIds::contains);
+    }
+}
@@ -6,9 +6,11 @@ import org.qinian.domain.Result;
 import org.qinian.domain.dto.UpdatePWDDTO;
 import org.qinian.domain.dto.admin.AdminLoginFormDTO;
 import org.qinian.domain.vo.UserLoginVO;
+import org.qinian.revocation.TokenRevocationStore;
 import org.qinian.service.IAdminService;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -32,6 +34,8 @@ public class AdminController {
 
     private final IAdminService adminService;
 
+    private final TokenRevocationStore tokenRevocationStore;
+
     @GetMapping("/login")
     public Result login(AdminLoginFormDTO adminLoginFormDTO) throws Exception {
         UserLoginVO userLoginVO = adminService.login(adminLoginFormDTO);
@@ -40,8 +44,9 @@ public class AdminController {
     }
 
     @GetMapping("/logout")
-    public Result logout() {
-        // 如果jwt有redis存储这里要删除，这个项目没有
+    public Result logout(@RequestHeader(value = "token", required = false) String token) {
+        // 吊销当前 token，网关经频道即时生效
+        tokenRevocationStore.revoke(token);
 
         return Result.success(200, "登出成功", null);
     }
@@ -9,7 +9,10 @@ import org.qinian.domain.dto.fishermen.FishermenLoginFormDTO;
 import org.qinian.domain.dto.fishermen.FishermenRegisterFormDTO;
 import org.qinian.domain.pojo.Fishermen;
 import org.qinian.domain.vo.UserLoginVO;
+import org.qinian.enums.UserStatus;
+import org.qinian.revocation.TokenRevocationStore;
 import org.qinian.service.IFishermenService;
+import org.qinian.utils.UserContext;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -33,6 +36,8 @@ public class FishermenController {
 
     private final IFishermenService fishermenService;
 
+    private final TokenRevocationStore tokenRevocationStore;
+
     @PostMapping("/login")
     public Result login(@RequestBody FishermenLoginFormDTO fishermenLoginFormDTO) throws Exception {
         UserLoginVO userLoginVO = fishermenService.login(fishermenLoginFormDTO);
@@ -75,8 +80,9 @@ public class FishermenController {
     }
 
     @GetMapping("/logout")
-    public Result logout() {
-        // 如果jwt有redis存储这里要删除，这个项目没有
+    public Result logout(@RequestHeader(value = "token", required = false) String token) {
+        // 吊销当前 token，网关经频道即时生效
+        tokenRevocationStore.revoke(token);
 
         return Result.success(200, "登出成功", null);
     }
@@ -91,4 +97,17 @@ public class FishermenController {
 
         return Result.success(200, "修改密码成功", null);
     }
+
+    /**
+     * 修改账户状态（0 冻结，1 正常），仅管理员可用，冻结后已登录的会话立即失效
+     */
+    @PutMapping("/{id}/state")
+    public Result updateState(@PathVariable Long id, @RequestParam Integer state) {
+        UserContext.checkAdmin();
+        if (!fishermenService.updateState(id, UserStatus.of(state))) {
+            return Result.fail(400, "修改账户状态失败", null);
+        }
+
+        return Result.success(200, "修改账户状态成功", null);
+    }
 }
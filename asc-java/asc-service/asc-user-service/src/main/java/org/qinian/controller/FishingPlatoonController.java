@@ -10,7 +10,11 @@ import org.qinian.domain.dto.fishingPlatoon.FishingPlatoonRegisterFormDTO;
 import org.qinian.domain.dto.fishingPlatoon.SelectByInvitationKeyDto;
 import org.qinian.domain.pojo.FishingPlatoon;
 import org.qinian.domain.vo.UserLoginVO;
+import org.qinian.enums.UserStatus;
+import org.qinian.revocation.TokenRevocationStore;
+import org.qinian.service.IFishermenService;
 import org.qinian.service.IFishingPlatoonService;
+import org.qinian.utils.UserContext;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -34,6 +38,10 @@ public class FishingPlatoonController {
 
     private final IFishingPlatoonService fishingPlatoonService;
 
+    private final TokenRevocationStore tokenRevocationStore;
+
+    private final IFishermenService fishermenService;
+
     @PostMapping("/login")
     public Result login(@RequestBody FishingPlatoonLoginFormDTO fishingPlatoonLoginFormDTO) throws Exception {
         UserLoginVO userLoginVO = fishingPlatoonService.login(fishingPlatoonLoginFormDTO);
@@ -90,9 +98,16 @@ public class FishingPlatoonController {
         return Result.success(200, "ok", "管理者：" + fishingPlatoon.getUsername());
     }
 
+    // 渔民管理者名下的渔民id，仅供告警服务内部调用（网关不对外开放）
+    @GetMapping("/{id}/fishermen-ids")
+    public Result getFishermenIds(@PathVariable Long id) {
+        return Result.success(200, "渔民id获取成功", fishermenService.listIdsByPlatoon(id));
+    }
+
     @GetMapping("/logout")
-    public Result logout() {
-        // 如果jwt有redis存储这里要删除，这个项目没有
+    public Result logout(@RequestHeader(value = "token", required = false) String token) {
+        // 吊销当前 token，网关经频道即时生效
+        tokenRevocationStore.revoke(token);
 
         return Result.success(200, "登出成功", null);
     }
@@ -107,4 +122,17 @@ public class FishingPlatoonController {
 
         return Result.success(200, "修改密码成功", null);
     }
+
+    /**
+     * 修改账户状态（0 冻结，1 正常），仅管理员可用，冻结后已登录的会话立即失效
+     */
+    @PutMapping("/{id}/state")
+    public Result updateState(@PathVariable Long id, @RequestParam Integer state) {
+        UserContext.checkAdmin();
+        if (!fishingPlatoonService.updateState(id, UserStatus.of(state))) {
+            return Result.fail(400, "修改账户状态失败", null);
+        }
+
+        return Result.success(200, "修改账户状态成功", null);
+    }
 }
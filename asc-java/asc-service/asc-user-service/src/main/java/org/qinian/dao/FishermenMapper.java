@@ -1,6 +1,8 @@
 package org.qinian.dao;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import org.qinian.domain.pojo.Fishermen;
 
 /**
@@ -12,5 +14,16 @@ import org.qinian.domain.pojo.Fishermen;
  * @since 2024-07-29
  */
 public interface FishermenMapper extends BaseMapper<Fishermen> {
-
+    /**
+     * 一次查询检查用户名、邮箱、手机号是否已被占用
+     *
+     * @return 第一个重复的字段（username / email / phone），都未占用时为 null
+     */
+    @Select("SELECT CASE" +
+            " WHEN EXISTS(SELECT 1 FROM fishermen WHERE username = #{username}) THEN 'username'" +
+            " WHEN EXISTS(SELECT 1 FROM fishermen WHERE email = #{email}) THEN 'email'" +
+            " WHEN EXISTS(SELECT 1 FROM fishermen WHERE phone = #{phone}) THEN 'phone'" +
+            " END")
+    String selectDuplicateField(@Param("username") String username, @Param("email") String email,
+                                @Param("phone") String phone);
 }
@@ -1,6 +1,7 @@
 package org.qinian.dao;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.qinian.domain.pojo.FishingPlatoon;
 
@@ -15,4 +16,20 @@ import org.qinian.domain.pojo.FishingPlatoon;
 public interface FishingPlatoonMapper extends BaseMapper<FishingPlatoon> {
     @Select("select * from fishing_platoon where invitation_code = #{invitationCode}")
     FishingPlatoon selectByInvitationCode(String invitationCode);
+
+    @Select("select Id from fishing_platoon where invitation_code = #{invitationCode}")
+    Long selectIdByInvitationCode(String invitationCode);
+
+    /**
+     * 一次查询检查用户名、邮箱、手机号是否已被占用
+     *
+     * @return 第一个重复的字段（username / email / phone），都未占用时为 null
+     */
+    @Select("SELECT CASE" +
+            " WHEN EXISTS(SELECT 1 FROM fishing_platoon WHERE username = #{username}) THEN 'username'" +
+            " WHEN EXISTS(SELECT 1 FROM fishing_platoon WHERE email = #{email}) THEN 'email'" +
+            " WHEN EXISTS(SELECT 1 FROM fishing_platoon WHERE phone = #{phone}) THEN 'phone'" +
+            " END")
+    String selectDuplicateField(@Param("username") String username, @Param("email") String email,
+                                @Param("phone") String phone);
 }
@@ -13,11 +13,13 @@ import org.qinian.service.IBusinessLicenseService;
 import org.qinian.service.IFishingPlatoonService;
 import org.qinian.utils.AESUtil;
 import org.qinian.utils.Base64Util;
+import org.qinian.utils.CredentialTool;
 import org.qinian.utils.UniqueInviteCodeUtil;
 import org.springframework.amqp.rabbit.annotation.Exchange;
 import org.springframework.amqp.rabbit.annotation.Queue;
 import org.springframework.amqp.rabbit.annotation.QueueBinding;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
@@ -33,6 +35,8 @@ public class FPRegisterListener {
 
     private final RemoteEmailService remoteEmailService;
 
+    private final CredentialTool credentialTool;
+
     @RabbitListener(bindings = @QueueBinding(
             value = @Queue(name = "register.success.queue", durable = "true"),
             exchange = @Exchange(name = "register.topic"),
@@ -65,15 +69,28 @@ public class FPRegisterListener {
 
         // 3. 注册
         FishingPlatoon fishingPlatoon = BeanUtil.copyProperties(fishingPlatoonRegisterFormDTO, FishingPlatoon.class);
-        String password = Base64Util.encode(AESUtil.encryptAndDecrypt(fishingPlatoonRegisterFormDTO.getPassword().getBytes(StandardCharsets.UTF_8), 1));
+        String password = credentialTool.encode(fishingPlatoonRegisterFormDTO.getPassword());
         fishingPlatoon.setBusinessLicenseId(businessLicense.getId());
-        fishingPlatoon.setPassword(password);  // 加密
+        fishingPlatoon.setPassword(password);  // 哈希
         fishingPlatoon.setCreateTime(LocalDateTime.now());
         fishingPlatoon.setUpdateTime(LocalDateTime.now());
         fishingPlatoon.setState(UserStatus.NORMAL);
         fishingPlatoon.setInvitationCode(UniqueInviteCodeUtil.generateInviteCode(fishingPlatoonRegisterFormDTO.getUsername()));
 
-        fishingPlatoonService.save(fishingPlatoon);
+        try {
+            fishingPlatoonService.save(fishingPlatoon);
+        } catch (DuplicateKeyException e) {
+            // 提交注册后有人抢先占用了用户名、邮箱或手机号，由唯一索引拦截
+            businessLicenseService.removeById(businessLicense.getId());
+            remoteEmailService.sendSimpleEmail(
+                    new SendSimpleEmailDto(
+                            fishingPlatoonRegisterFormDTO.getEmail(),
+                            "注册失败",
+                            "用户名、邮箱或手机号已被注册，请重新注册"
+                    )
+            );
+            return;
+        }
 
         // 4. 注册成功
         remoteEmailService.sendSimpleEmail(
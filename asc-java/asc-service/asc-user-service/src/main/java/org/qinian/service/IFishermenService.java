@@ -6,6 +6,9 @@ import org.qinian.domain.dto.fishermen.FishermenLoginFormDTO;
 import org.qinian.domain.dto.fishermen.FishermenRegisterFormDTO;
 import org.qinian.domain.pojo.Fishermen;
 import org.qinian.domain.vo.UserLoginVO;
+import org.qinian.enums.UserStatus;
+
+import java.util.List;
 
 /**
  * <p>
@@ -30,4 +33,14 @@ public interface IFishermenService extends IService<Fishermen> {
     Boolean updatePassword(UpdatePWDDTO updatePWDDTO) throws Exception;
 
     Fishermen selectByEmail(String email);
+
+    /**
+     * 渔民管理者名下的渔民 id
+     */
+    List<Long> listIdsByPlatoon(Long fishingPlatoonId);
+
+    /**
+     * 修改账户状态，冻结时吊销该用户已签发的 token
+     */
+    Boolean updateState(Long id, UserStatus state);
 }
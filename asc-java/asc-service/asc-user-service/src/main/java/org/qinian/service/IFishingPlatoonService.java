@@ -6,6 +6,7 @@ import org.qinian.domain.dto.fishingPlatoon.FishingPlatoonLoginFormDTO;
 import org.qinian.domain.dto.fishingPlatoon.FishingPlatoonRegisterFormDTO;
 import org.qinian.domain.pojo.FishingPlatoon;
 import org.qinian.domain.vo.UserLoginVO;
+import org.qinian.enums.UserStatus;
 
 /**
  * <p>
@@ -31,4 +32,9 @@ public interface IFishingPlatoonService extends IService<FishingPlatoon> {
     FishingPlatoon selectByEmail(String email);
 
     FishingPlatoon selectByInvitationKey(String invitationKey);
+
+    /**
+     * 修改账户状态，冻结时吊销该用户已签发的 token
+     */
+    Boolean updateState(Long id, UserStatus state);
 }
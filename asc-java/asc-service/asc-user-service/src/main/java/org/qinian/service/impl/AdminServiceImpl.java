@@ -8,16 +8,16 @@ import org.qinian.domain.dto.UpdatePWDDTO;
 import org.qinian.domain.dto.admin.AdminLoginFormDTO;
 import org.qinian.domain.pojo.Admin;
 import org.qinian.domain.vo.UserLoginVO;
+import org.qinian.enums.UserTypes;
 import org.qinian.exception.BadRequestException;
 import org.qinian.properties.JwtProperties;
+import org.qinian.revocation.TokenRevocationStore;
 import org.qinian.service.IAdminService;
-import org.qinian.utils.AESUtil;
-import org.qinian.utils.Base64Util;
+import org.qinian.utils.CredentialTool;
 import org.qinian.utils.JwtTool;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 /**
@@ -35,24 +35,30 @@ public class AdminServiceImpl extends ServiceImpl<AdminMapper, Admin> implements
 
     private final JwtProperties jwtProperties;
 
+    private final CredentialTool credentialTool;
+
+    private final TokenRevocationStore tokenRevocationStore;
+
     @Override
     public UserLoginVO login(AdminLoginFormDTO loginDTO) throws Exception {
         // 0. 系统默认唯一admin管理员，且无账号,且无法注册
         Admin user = baseMapper.selectOne(new QueryWrapper<Admin>().last("LIMIT 1"));
 
-        // 1.数据校验
-        String password = Base64Util.encode(AESUtil.encryptAndDecrypt(loginDTO.getPassword().getBytes(StandardCharsets.UTF_8), 1));
-
-        // 2.校验密码
-        if (!password.equals(user.getPassword())) {
+        // 1.校验密码
+        CredentialTool.Verification verification = credentialTool.verify(loginDTO.getPassword(), user.getPassword());
+        if (!verification.matched()) {
             throw new BadRequestException("用户名或密码错误");
         }
 
         // 4.生成TOKEN
-        String token = jwtTool.createToken(user.getId(), jwtProperties.getTokenTTL());
+        String token = jwtTool.createToken(user.getId(), UserTypes.ADMIN, jwtProperties.getTokenTTL());
 
         // 5. 登录时间计算
         user.setLoginTime(LocalDateTime.now());
+        if (verification.upgrade()) {
+            // 旧格式密码登录成功后迁移为当前哈希
+            user.setPassword(credentialTool.encode(loginDTO.getPassword()));
+        }
         baseMapper.updateById(user);
 
         // 6.封装VO返回
@@ -73,16 +79,20 @@ public class AdminServiceImpl extends ServiceImpl<AdminMapper, Admin> implements
         }
 
         // 2. 验证旧密码是否正确
-        String encryptedOldPassword = Base64Util.encode(AESUtil.encryptAndDecrypt(updatePWDDTO.getOldPassword().getBytes(StandardCharsets.UTF_8), 1));
-        if (!admin.getPassword().equals(encryptedOldPassword)) {
+        if (!credentialTool.verify(updatePWDDTO.getOldPassword(), admin.getPassword()).matched()) {
             return false;
         }
 
         // 3. 更新新密码
-        String encryptedNewPassword = Base64Util.encode(AESUtil.encryptAndDecrypt(updatePWDDTO.getNewPassword().getBytes(StandardCharsets.UTF_8), 1));
+        String encryptedNewPassword = credentialTool.encode(updatePWDDTO.getNewPassword());
         admin.setPassword(encryptedNewPassword);
         int updateResult = baseMapper.updateById(admin);
+        if (updateResult == 0) {
+            return false;
+        }
 
-        return updateResult > 0;
+        // 4. 修改密码后此前签发的 token 全部失效，需重新登录
+        tokenRevocationStore.revokeUser(UserTypes.ADMIN, admin.getId());
+        return true;
     }
 }
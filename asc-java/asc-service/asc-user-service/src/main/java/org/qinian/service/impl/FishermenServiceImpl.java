@@ -3,28 +3,30 @@ package org.qinian.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.cache.InvitationCodeCache;
 import org.qinian.dao.FishermenMapper;
-import org.qinian.dao.FishingPlatoonMapper;
 import org.qinian.domain.dto.UpdatePWDDTO;
 import org.qinian.domain.dto.fishermen.FishermenLoginFormDTO;
 import org.qinian.domain.dto.fishermen.FishermenRegisterFormDTO;
 import org.qinian.domain.pojo.Fishermen;
-import org.qinian.domain.pojo.FishingPlatoon;
 import org.qinian.domain.vo.UserLoginVO;
 import org.qinian.enums.UserStatus;
+import org.qinian.enums.UserTypes;
 import org.qinian.exception.BadRequestException;
 import org.qinian.exception.ForbiddenException;
 import org.qinian.properties.JwtProperties;
+import org.qinian.revocation.TokenRevocationStore;
 import org.qinian.service.IFishermenService;
-import org.qinian.utils.AESUtil;
-import org.qinian.utils.Base64Util;
+import org.qinian.utils.CredentialTool;
 import org.qinian.utils.JwtTool;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * <p>
@@ -34,6 +36,7 @@ import java.time.LocalDateTime;
  * @author qinian
  * @since 2024-07-29
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FishermenServiceImpl extends ServiceImpl<FishermenMapper, Fishermen> implements IFishermenService {
@@ -42,13 +45,16 @@ public class FishermenServiceImpl extends ServiceImpl<FishermenMapper, Fishermen
 
     private final JwtProperties jwtProperties;
 
-    private final FishingPlatoonMapper fishingPlatoonMapper;
+    private final CredentialTool credentialTool;
+
+    private final TokenRevocationStore tokenRevocationStore;
+
+    private final InvitationCodeCache invitationCodeCache;
 
     @Override
     public UserLoginVO login(FishermenLoginFormDTO loginDTO) throws Exception {
         // 1.数据校验
         String username = loginDTO.getUsername();
-        String password = Base64Util.encode(AESUtil.encryptAndDecrypt(loginDTO.getPassword().getBytes(StandardCharsets.UTF_8), 1));
 
         // 2.根据用户名或手机号查询
         Fishermen user = lambdaQuery().eq(Fishermen::getUsername, username).one();
@@ -64,16 +70,21 @@ public class FishermenServiceImpl extends ServiceImpl<FishermenMapper, Fishermen
         }
 
         // 4.校验密码
-        if (!password.equals(user.getPassword())) {
+        CredentialTool.Verification verification = credentialTool.verify(loginDTO.getPassword(), user.getPassword());
+        if (!verification.matched()) {
             System.out.println("密码错误");
             return null;
         }
 
         // 5.生成TOKEN
-        String token = jwtTool.createToken(user.getId(), jwtProperties.getTokenTTL());
+        String token = jwtTool.createToken(user.getId(), UserTypes.FISHERMEN, jwtProperties.getTokenTTL());
 
         // 6. 登录时间计算
         user.setLoginTime(LocalDateTime.now());
+        if (verification.upgrade()) {
+            // 旧格式密码登录成功后迁移为当前哈希
+            user.setPassword(credentialTool.encode(loginDTO.getPassword()));
+        }
         baseMapper.updateById(user);
 
         // 7.封装VO返回
@@ -87,40 +98,25 @@ public class FishermenServiceImpl extends ServiceImpl<FishermenMapper, Fishermen
 
     @Override
     public Boolean register(FishermenRegisterFormDTO registerFormDTO) throws Exception {
-        // 0.检查邀请码是否正确
-        if (fishingPlatoonMapper.selectByInvitationCode(registerFormDTO.getInvitationCode()) == null) {
-            System.out.println("邀请码不正确！");
+        // 0.检查邀请码是否正确（本地缓存）
+        Long fishingPlatoonId = invitationCodeCache.getPlatoonId(registerFormDTO.getInvitationCode());
+        if (fishingPlatoonId == null) {
+            log.info("渔民注册失败，邀请码不正确: {}", registerFormDTO.getInvitationCode());
             return false;
         }
 
-        // 1. 检查用户名是否已存在
-        Long usernameCount = baseMapper.selectCount(new QueryWrapper<Fishermen>()
-                .eq("username", registerFormDTO.getUsername()));
-        if (usernameCount > 0) {
-            System.out.println("用户名已存在！");
+        // 1. 一次查询检查用户名、邮箱、手机号是否已存在
+        String duplicate = baseMapper.selectDuplicateField(registerFormDTO.getUsername(),
+                registerFormDTO.getEmail(), registerFormDTO.getPhone());
+        if (duplicate != null) {
+            log.info("渔民注册失败，{}: {}", duplicateMessage(duplicate), registerFormDTO.getUsername());
             return false;
         }
 
-        // 2. 检查邮箱是否已存在
-        Long emailCount = baseMapper.selectCount(new QueryWrapper<Fishermen>()
-                .eq("email", registerFormDTO.getEmail()));
-        if (emailCount > 0) {
-            System.out.println("邮箱已绑定！");
-            return false;
-        }
+        // 2.密码加密
+        String password = credentialTool.encode(registerFormDTO.getPassword());
 
-        // 3. 检查手机号是否已存在
-        Long phoneCount = baseMapper.selectCount(new QueryWrapper<Fishermen>()
-                .eq("phone", registerFormDTO.getPhone()));
-        if (phoneCount > 0) {
-            System.out.println("手机号已存在！");
-            return false;
-        }
-
-        // 4.密码加密
-        String password = Base64Util.encode(AESUtil.encryptAndDecrypt(registerFormDTO.getPassword().getBytes(StandardCharsets.UTF_8), 1));
-
-        // 5. 注册新用户
+        // 3. 注册新用户
         Fishermen fishermen = new Fishermen();
         fishermen.setUsername(registerFormDTO.getUsername());
         fishermen.setEmail(registerFormDTO.getEmail());
@@ -130,12 +126,24 @@ public class FishermenServiceImpl extends ServiceImpl<FishermenMapper, Fishermen
         fishermen.setCreateTime(LocalDateTime.now());
         fishermen.setUpdateTime(LocalDateTime.now());
 
-        // 6.邀请码（邀请码是唯一的）
-        FishingPlatoon fishingPlatoon = fishingPlatoonMapper.selectByInvitationCode(registerFormDTO.getInvitationCode());
-        fishermen.setFishingPlatoonId(fishingPlatoon.getId());
+        // 4.邀请码（邀请码是唯一的）
+        fishermen.setFishingPlatoonId(fishingPlatoonId);
+
+        // 5.并发注册由唯一索引兜底
+        try {
+            return baseMapper.insert(fishermen) > 0;
+        } catch (DuplicateKeyException e) {
+            log.info("渔民注册失败，用户名、邮箱或手机号已存在（并发注册）: {}", registerFormDTO.getUsername());
+            return false;
+        }
+    }
 
-        int insertResult = baseMapper.insert(fishermen);
-        return insertResult > 0;
+    private static String duplicateMessage(String field) {
+        return switch (field) {
+            case "username" -> "用户名已存在！";
+            case "email" -> "邮箱已绑定！";
+            default -> "手机号已存在！";
+        };
     }
 
     @Override
@@ -147,21 +155,49 @@ public class FishermenServiceImpl extends ServiceImpl<FishermenMapper, Fishermen
         }
 
         // 2. 验证旧密码是否正确
-        String encryptedOldPassword = Base64Util.encode(AESUtil.encryptAndDecrypt(updatePWDDTO.getOldPassword().getBytes(StandardCharsets.UTF_8), 1));
-        if (!fishermen.getPassword().equals(encryptedOldPassword)) {
+        if (!credentialTool.verify(updatePWDDTO.getOldPassword(), fishermen.getPassword()).matched()) {
             return false;
         }
 
         // 3. 更新新密码
-        String encryptedNewPassword = Base64Util.encode(AESUtil.encryptAndDecrypt(updatePWDDTO.getNewPassword().getBytes(StandardCharsets.UTF_8), 1));
+        String encryptedNewPassword = credentialTool.encode(updatePWDDTO.getNewPassword());
         fishermen.setPassword(encryptedNewPassword);
         int updateResult = baseMapper.updateById(fishermen);
+        if (updateResult == 0) {
+            return false;
+        }
 
-        return updateResult > 0;
+        // 4. 修改密码后此前签发的 token 全部失效，需重新登录
+        tokenRevocationStore.revokeUser(UserTypes.FISHERMEN, fishermen.getId());
+        return true;
     }
 
     @Override
     public Fishermen selectByEmail(String email) {
         return baseMapper.selectOne(new QueryWrapper<Fishermen>().eq("email", email));
     }
+
+    @Override
+    public List<Long> listIdsByPlatoon(Long fishingPlatoonId) {
+        return lambdaQuery()
+                .select(Fishermen::getId)
+                .eq(Fishermen::getFishingPlatoonId, fishingPlatoonId)
+                .list()
+                .stream()
+                .map(Fishermen::getId)
+                .toList();
+    }
+
+    @Override
+    public Boolean updateState(Long id, UserStatus state) {
+        boolean updated = lambdaUpdate()
+                .eq(Fishermen::getId, id)
+                .set(Fishermen::getState, state)
+                .update();
+        if (updated && state == UserStatus.FROZEN) {
+            // 冻结立即生效，不等 token 过期
+            tokenRevocationStore.revokeUser(UserTypes.FISHERMEN, id);
+        }
+        return updated;
+    }
 }
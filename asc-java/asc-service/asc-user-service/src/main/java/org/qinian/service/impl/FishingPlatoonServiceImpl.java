@@ -3,6 +3,8 @@ package org.qinian.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.cache.InvitationCodeCache;
 import org.qinian.dao.FishingPlatoonMapper;
 import org.qinian.domain.dto.UpdatePWDDTO;
 import org.qinian.domain.dto.fishingPlatoon.FishingPlatoonLoginFormDTO;
@@ -10,20 +12,23 @@ import org.qinian.domain.dto.fishingPlatoon.FishingPlatoonRegisterFormDTO;
 import org.qinian.domain.pojo.FishingPlatoon;
 import org.qinian.domain.vo.UserLoginVO;
 import org.qinian.enums.UserStatus;
+import org.qinian.enums.UserTypes;
 import org.qinian.exception.BadRequestException;
 import org.qinian.exception.ForbiddenException;
 import org.qinian.properties.JwtProperties;
+import org.qinian.revocation.TokenRevocationStore;
 import org.qinian.service.IFishingPlatoonService;
-import org.qinian.utils.AESUtil;
 import org.qinian.utils.Base64Util;
+import org.qinian.utils.CredentialTool;
 import org.qinian.utils.JwtTool;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
-import java.nio.charset.StandardCharsets;
+import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 /**
  * <p>
@@ -33,6 +38,7 @@ import java.time.LocalDateTime;
  * @author qinian
  * @since 2024-07-29
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FishingPlatoonServiceImpl extends ServiceImpl<FishingPlatoonMapper, FishingPlatoon> implements IFishingPlatoonService {
@@ -42,11 +48,16 @@ public class FishingPlatoonServiceImpl extends ServiceImpl<FishingPlatoonMapper,
 
     private final JwtProperties jwtProperties;
 
+    private final CredentialTool credentialTool;
+
+    private final TokenRevocationStore tokenRevocationStore;
+
+    private final InvitationCodeCache invitationCodeCache;
+
     @Override
     public UserLoginVO login(FishingPlatoonLoginFormDTO fishingPlatoonLoginFormDTO) throws Exception {
         // 1.数据校验
         String username = fishingPlatoonLoginFormDTO.getUsername();
-        String password = Base64Util.encode(AESUtil.encryptAndDecrypt(fishingPlatoonLoginFormDTO.getPassword().getBytes(StandardCharsets.UTF_8), 1));
 
         // 2.根据用户名或手机号查询
         FishingPlatoon user = lambdaQuery().eq(FishingPlatoon::getUsername, username).one();
@@ -62,16 +73,21 @@ public class FishingPlatoonServiceImpl extends ServiceImpl<FishingPlatoonMapper,
         }
 
         // 4.校验密码
-        if (!password.equals(user.getPassword())) {
+        CredentialTool.Verification verification = credentialTool.verify(fishingPlatoonLoginFormDTO.getPassword(), user.getPassword());
+        if (!verification.matched()) {
             System.out.println("密码错误");
             return null;
         }
 
         // 5.生成TOKEN
-        String token = jwtTool.createToken(user.getId(), jwtProperties.getTokenTTL());
+        String token = jwtTool.createToken(user.getId(), UserTypes.FISHING_PLATOON, jwtProperties.getTokenTTL());
 
         // 6. 登录时间计算
         user.setLoginTime(LocalDateTime.now());
+        if (verification.upgrade()) {
+            // 旧格式密码登录成功后迁移为当前哈希
+            user.setPassword(credentialTool.encode(fishingPlatoonLoginFormDTO.getPassword()));
+        }
         baseMapper.updateById(user);
 
         // 7.封装VO返回
@@ -84,31 +100,26 @@ public class FishingPlatoonServiceImpl extends ServiceImpl<FishingPlatoonMapper,
 
     @Override
     public Boolean register(FishingPlatoonRegisterFormDTO fishingPlatoonRegisterFormDTO) {
-        // 1. 检测用户名重复
-        if (baseMapper.selectCount(new QueryWrapper<FishingPlatoon>().eq("username", fishingPlatoonRegisterFormDTO.getUsername())) > 0) {
-            System.out.println("检测用户名重复");
-            return false;
-        }
-
-        // 2. 检测邮箱重复
-        if (baseMapper.selectCount(new QueryWrapper<FishingPlatoon>().eq("email", fishingPlatoonRegisterFormDTO.getEmail())) > 0) {
-            System.out.println("检测邮箱重复");
+        // 1. 一次查询检测用户名、邮箱、手机号重复（入库时另由唯一索引兜底）
+        String duplicate = baseMapper.selectDuplicateField(fishingPlatoonRegisterFormDTO.getUsername(),
+                fishingPlatoonRegisterFormDTO.getEmail(), fishingPlatoonRegisterFormDTO.getPhone());
+        if (duplicate != null) {
+            String label = switch (duplicate) {
+                case "username" -> "用户名";
+                case "email" -> "邮箱";
+                default -> "手机号";
+            };
+            log.info("渔民管理者注册失败，{}重复: {}", label, fishingPlatoonRegisterFormDTO.getUsername());
             return false;
         }
 
-        // 3. 检测手机号重复
-        if (baseMapper.selectCount(new QueryWrapper<FishingPlatoon>().eq("phone", fishingPlatoonRegisterFormDTO.getPhone())) > 0) {
-            System.out.println("检测手机号重复");
-            return false;
-        }
-
-        // 4. 检测营业许可的图像编码合法性
+        // 2. 检测营业许可的图像编码合法性
         if (!Base64Util.isValidBase64(fishingPlatoonRegisterFormDTO.getBlImageBase())) {
-            System.out.println("检测营业许可的图像编码不合法");
+            log.info("渔民管理者注册失败，营业许可的图像编码不合法: {}", fishingPlatoonRegisterFormDTO.getUsername());
             return false;
         }
 
-        // 5. mq处理 图像编码 （检测是否合格 -> 注册成功 [信息保存] -> 发送邮箱）
+        // 3. mq处理 图像编码 （检测是否合格 -> 注册成功 [信息保存] -> 发送邮箱）
         rabbitTemplate.convertAndSend("register.topic", "register.success", fishingPlatoonRegisterFormDTO);
 
         return true;
@@ -123,17 +134,21 @@ public class FishingPlatoonServiceImpl extends ServiceImpl<FishingPlatoonMapper,
         }
 
         // 2. 验证旧密码是否正确
-        String encryptedOldPassword = Base64Util.encode(AESUtil.encryptAndDecrypt(updatePWDDTO.getOldPassword().getBytes(StandardCharsets.UTF_8), 1));
-        if (!fishingPlatoon.getPassword().equals(encryptedOldPassword)) {
+        if (!credentialTool.verify(updatePWDDTO.getOldPassword(), fishingPlatoon.getPassword()).matched()) {
             return false;
         }
 
         // 3. 更新新密码
-        String encryptedNewPassword = Base64Util.encode(AESUtil.encryptAndDecrypt(updatePWDDTO.getNewPassword().getBytes(StandardCharsets.UTF_8), 1));
+        String encryptedNewPassword = credentialTool.encode(updatePWDDTO.getNewPassword());
         fishingPlatoon.setPassword(encryptedNewPassword);
         int updateResult = baseMapper.updateById(fishingPlatoon);
+        if (updateResult == 0) {
+            return false;
+        }
 
-        return updateResult > 0;
+        // 4. 修改密码后此前签发的 token 全部失效，需重新登录
+        tokenRevocationStore.revokeUser(UserTypes.FISHING_PLATOON, fishingPlatoon.getId());
+        return true;
     }
 
     @Override
@@ -145,4 +160,36 @@ public class FishingPlatoonServiceImpl extends ServiceImpl<FishingPlatoonMapper,
     public FishingPlatoon selectByEmail(String email) {
         return baseMapper.selectOne(new QueryWrapper<FishingPlatoon>().eq("email", email));
     }
+
+    @Override
+    public Boolean updateState(Long id, UserStatus state) {
+        boolean updated = lambdaUpdate()
+                .eq(FishingPlatoon::getId, id)
+                .set(FishingPlatoon::getState, state)
+                .update();
+        if (updated && state == UserStatus.FROZEN) {
+            // 冻结立即生效，不等 token 过期
+            tokenRevocationStore.revokeUser(UserTypes.FISHING_PLATOON, id);
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        if (removed) {
+            // 删除后邀请码立即失效，不等本地缓存过期
+            invitationCodeCache.evictPlatoon(Long.valueOf(id.toString()));
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean removeByIds(Collection<?> list) {
+        boolean removed = super.removeByIds(list);
+        if (removed) {
+            invitationCodeCache.evictPlatoons(list.stream().map(id -> Long.valueOf(id.toString())).toList());
+        }
+        return removed;
+    }
 }
@@ -0,0 +1,48 @@
+package org.qinian.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.qinian.entity.WeatherInfo;
+import org.qinian.properties.WeatherLoopProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+
+/**
+ * <p>
+ * 按 adcode 缓存高德实况天气，TTL 内同一区县只请求一次
+ * </p>
+ * TTL 应小于轮询周期，保证每轮都能拿到新的 reportTime
+ */
+@Component
+public class WeatherLiveCache {
+    private final Cache<String, WeatherInfo.Live> cache;
+
+    public WeatherLiveCache(WeatherLoopProperties properties) {
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(properties.getCacheTtl())
+                .build();
+    }
+
+    /**
+     * 获取 adcode 对应的实况天气
+     *
+     * @param adcode 6 位 adcode
+     * @param loader 未命中时请求高德接口
+     * @return 实况天气，接口无数据时为 null（不缓存）
+     */
+    public WeatherInfo.Live get(String adcode, Callable<WeatherInfo> loader) throws Exception {
+        WeatherInfo.Live live = cache.getIfPresent(adcode);
+        if (live != null) {
+            return live;
+        }
+
+        WeatherInfo weatherInfo = loader.call();
+        if (weatherInfo.getLives() == null || weatherInfo.getLives().length == 0) {
+            return null;
+        }
+        live = weatherInfo.getLives()[0];  // 只有一个值
+        cache.put(adcode, live);
+        return live;
+    }
+}
@@ -3,19 +3,18 @@ package org.qinian.controller;
 import lombok.RequiredArgsConstructor;
 import org.qinian.domain.Result;
 import org.qinian.domain.dto.weather.WeatherLoopAddDto;
+import org.qinian.registry.RaftWatchRegistry;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Vector;
-
 @RestController
 @RequestMapping("/api/weather-monitor/loop")
 @RequiredArgsConstructor
 public class LoopMainController {
-    private final Vector<WeatherLoopAddDto> threadSafeVector;
+    private final RaftWatchRegistry raftWatchRegistry;
 
     @PostMapping("/add")
     public Result addRaft(@RequestBody WeatherLoopAddDto weatherLoopAddDto) {
-        threadSafeVector.add(weatherLoopAddDto);
+        raftWatchRegistry.put(weatherLoopAddDto);
 
         return Result.success(200, "ok", null);
     }
@@ -27,8 +26,8 @@ public class LoopMainController {
      * @return
      */
     @GetMapping("/delete")
-    public Result deleteRaft(@RequestBody Long id) {
-        threadSafeVector.removeIf(weatherLoopAddDto -> weatherLoopAddDto.getFishRaftId().equals(id));
+    public Result deleteRaft(@RequestParam Long id) {
+        raftWatchRegistry.remove(id);
 
         return Result.success(200, "ok", null);
     }
@@ -5,7 +5,10 @@ import lombok.RequiredArgsConstructor;
 import org.qinian.domain.Result;
 import org.qinian.domain.dto.weather.WeatherAddDto;
 import org.qinian.domain.pojo.WeatherMonitor;
+import org.qinian.domain.vo.WeatherSeriesVo;
+import org.qinian.enums.SeriesStep;
 import org.qinian.service.IWeatherMonitorService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -30,17 +33,27 @@ public class WeatherMonitorController {
     @PostMapping
     public Result createWeatherInfo(@RequestBody WeatherAddDto weatherAddDto) {
         WeatherMonitor weatherMonitor = BeanUtil.copyProperties(weatherAddDto, WeatherMonitor.class);
+        if (weatherAddDto.getLive() != null) {
+            // 实况字段在嵌套的 live 中，需单独复制
+            BeanUtil.copyProperties(weatherAddDto.getLive(), weatherMonitor);
+        }
         weatherMonitor.setCreateTime(LocalDateTime.now());
+        if (weatherMonitor.getReportTime() == null) {
+            weatherMonitor.setReportTime(weatherMonitor.getCreateTime());
+        }
 
-        boolean isSuccess = weatherMonitorService.save(weatherMonitor);
-        if (isSuccess) {
-            // 算法告警
-            weatherMonitorService.alert(weatherMonitor);
-
-            return Result.success(200, "天气实时检测数据创建成功", weatherMonitor);
-        } else {
-            return Result.fail(500, "创建天气实时检测数据失败", null);
+        // 入库并更新小时 / 天 / 月汇总，重复的采样直接忽略
+        if (!weatherMonitorService.record(weatherMonitor)) {
+            return Result.success(200, "该上报时间的天气数据已存在", null);
         }
+
+        // 更新看板最新状态
+        weatherMonitorService.updateState(weatherMonitor);
+
+        // 算法告警
+        weatherMonitorService.alert(weatherMonitor);
+
+        return Result.success(200, "天气实时检测数据创建成功", weatherMonitor);
     }
 
     // 天气实时检测数据查询根据id
@@ -54,6 +67,18 @@ public class WeatherMonitorController {
         }
     }
 
+    // 查询渔排点的天气时间序列，step 为 raw / hour / day / month，缺省时按时间跨度自动选择
+    @GetMapping("/raft/{id}")
+    public Result getWeatherSeries(@PathVariable Long id,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                   @RequestParam(required = false) String step) {
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        SeriesStep seriesStep = step == null ? SeriesStep.auto(from, end) : SeriesStep.of(step);
+        List<WeatherSeriesVo> series = weatherMonitorService.series(id, from, end, seriesStep);
+        return Result.success(200, "天气时间序列获取成功（" + seriesStep.getDesc() + "）", series);
+    }
+
     // 查询所有天气实时检测数据
     @GetMapping
     public Result getAllWeatherInfos() {
@@ -1,8 +1,13 @@
 package org.qinian.dao;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import org.qinian.domain.pojo.WeatherMonitor;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * <p>
  * Mapper 接口
@@ -13,4 +18,9 @@ import org.qinian.domain.pojo.WeatherMonitor;
  */
 public interface WeatherMonitorMapper extends BaseMapper<WeatherMonitor> {
 
+    @Select("select * from weather_monitor where fish_raft_id = #{raftId} " +
+            "and report_time >= #{from} and report_time < #{to} order by report_time")
+    List<WeatherMonitor> selectRange(@Param("raftId") Long raftId,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,49 @@
+package org.qinian.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.qinian.domain.pojo.WeatherRollup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * <p>
+ * 天气数据汇总 Mapper 接口
+ * </p>
+ */
+public interface WeatherRollupMapper extends BaseMapper<WeatherRollup> {
+
+    /**
+     * 把单个样本累加进对应的桶，桶不存在时创建
+     */
+    @Insert("insert into weather_rollup (fish_raft_id, granularity, bucket_start, " +
+            "temp_count, temp_sum, temp_min, temp_max, " +
+            "humidity_count, humidity_sum, humidity_min, humidity_max, " +
+            "wind_count, wind_sum, wind_min, wind_max, update_time) values (" +
+            "#{fishRaftId}, #{granularity}, #{bucketStart}, " +
+            "#{tempCount}, #{tempSum}, #{tempMin}, #{tempMax}, " +
+            "#{humidityCount}, #{humiditySum}, #{humidityMin}, #{humidityMax}, " +
+            "#{windCount}, #{windSum}, #{windMin}, #{windMax}, now()) " +
+            "on duplicate key update " +
+            "temp_count = temp_count + values(temp_count), temp_sum = temp_sum + values(temp_sum), " +
+            "temp_min = coalesce(least(temp_min, values(temp_min)), temp_min, values(temp_min)), " +
+            "temp_max = coalesce(greatest(temp_max, values(temp_max)), temp_max, values(temp_max)), " +
+            "humidity_count = humidity_count + values(humidity_count), humidity_sum = humidity_sum + values(humidity_sum), " +
+            "humidity_min = coalesce(least(humidity_min, values(humidity_min)), humidity_min, values(humidity_min)), " +
+            "humidity_max = coalesce(greatest(humidity_max, values(humidity_max)), humidity_max, values(humidity_max)), " +
+            "wind_count = wind_count + values(wind_count), wind_sum = wind_sum + values(wind_sum), " +
+            "wind_min = coalesce(least(wind_min, values(wind_min)), wind_min, values(wind_min)), " +
+            "wind_max = coalesce(greatest(wind_max, values(wind_max)), wind_max, values(wind_max)), " +
+            "update_time = now()")
+    int accumulate(WeatherRollup sample);
+
+    @Select("select * from weather_rollup where fish_raft_id = #{raftId} and granularity = #{granularity} " +
+            "and bucket_start >= #{from} and bucket_start < #{to} order by bucket_start")
+    List<WeatherRollup> selectRange(@Param("raftId") Long raftId,
+                                    @Param("granularity") String granularity,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,66 @@
+package org.qinian.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.domain.dto.fishRaft.RaftEventDto;
+import org.qinian.domain.dto.weather.WeatherLoopAddDto;
+import org.qinian.registry.RaftWatchRegistry;
+import org.qinian.rule.WeatherRuleEngine;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * 消费渔排点生命周期事件，维护天气监测登记表
+ * </p>
+ * 登记表在每个实例的内存中，因此每个实例使用自己的匿名队列，都收到全部事件；
+ * 停机期间错过的事件由启动时从 Redis 恢复和 RaftWatchSync 增量同步补齐。
+ * 事件至少投递一次且可能乱序，本实例按渔排点记录已处理的最大 eventId，旧事件直接丢弃；
+ * 删除后的迟到事件由登记表的删除墓碑拦下
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RaftEventListener {
+    private final RaftWatchRegistry raftWatchRegistry;
+
+    private final WeatherRuleEngine weatherRuleEngine;
+
+    private final Map<Long, Long> applied = new ConcurrentHashMap<>();  // 渔排点 id -> 已处理的最大 eventId
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue,
+            exchange = @Exchange(name = "raft.topic", type = "topic"),
+            key = "raft.#"
+    ), messageConverter = "jsonToMapMessageConverter")
+    public void listenRaftEvent(RaftEventDto event) {
+        Long raftId = event.getFishRaftId();
+        Long last = applied.get(raftId);
+        if (last != null && last >= event.getEventId()) {
+            log.debug("忽略重复或过期的渔排点事件 {}", event.getEventId());
+            return;
+        }
+
+        if (RaftEventDto.DELETED.equals(event.getType())) {
+            raftWatchRegistry.delete(raftId, event.getEventId());
+            weatherRuleEngine.forget(raftId);
+            // 之后的迟到事件由墓碑拦下
+            applied.remove(raftId);
+            return;
+        }
+        raftWatchRegistry.putUnlessDeleted(List.of(new WeatherLoopAddDto(
+                raftId,
+                event.getLocationId(),
+                event.getLatitude(),
+                event.getLongitude()
+        )));
+        applied.put(raftId, event.getEventId());
+    }
+}
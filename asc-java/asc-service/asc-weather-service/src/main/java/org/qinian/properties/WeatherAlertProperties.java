@@ -0,0 +1,57 @@
+package org.qinian.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.qinian.enums.AlertLevels;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * 天气告警规则，可在 Nacos 的 weather-service.yaml 中覆盖，修改后自动生效
+ * </p>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "asc.weather.alert")
+public class WeatherAlertProperties {
+    private List<Rule> rules = new ArrayList<>(List.of(
+            new Rule("extreme-heat", Metric.TEMPERATURE, List.of(), null, 35.0, null, null, 1.0, AlertLevels.HEAT, "触发极热天气警告"),
+            new Rule("extreme-cold", Metric.TEMPERATURE, List.of(), null, null, -5.0, null, 1.0, AlertLevels.HEAT, "触发极寒天气警告")
+    ));
+
+    public enum Metric {
+        TEMPERATURE,  // 温度（℃）
+        HUMIDITY,  // 湿度（%）
+        WIND  // 风力等级
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rule {
+        private String name;
+
+        private Metric metric;
+
+        private List<Long> rafts = new ArrayList<>();  // 只对这些渔排点生效，为空表示不限
+
+        private String region;  // 只对该行政区生效，如 350200 表示厦门市全部区县，为空表示不限
+
+        private Double above;  // 高于该值告警
+
+        private Double below;  // 低于该值告警
+
+        private Double maxChange;  // 与上一次采样相比变化超过该值告警
+
+        private Double hysteresis = 0.0;  // 回差：越过阈值后需回落超过该值才解除，避免在阈值附近反复告警
+
+        private AlertLevels level = AlertLevels.HEAT;
+
+        private String message;
+    }
+}
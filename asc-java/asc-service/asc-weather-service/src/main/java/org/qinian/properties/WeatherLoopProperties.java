@@ -0,0 +1,37 @@
+package org.qinian.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "asc.weather")
+public class WeatherLoopProperties {
+    // 实况天气按 adcode 缓存时长，需小于轮询周期
+    private Duration cacheTtl = Duration.ofMinutes(50);
+
+    // 高德天气接口
+    private Upstream amap = new Upstream(3, 3, Duration.ofSeconds(5));
+
+    // 百度逆地理编码接口（本地边界未命中时）
+    private Upstream baidu = new Upstream(3, 3, Duration.ofSeconds(5));
+
+    // 保存天气信息（Feign 调用本服务）
+    private Upstream monitor = new Upstream(100, 20, Duration.ofSeconds(5));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Upstream {
+        private double permitsPerSecond;  // 令牌桶速率
+
+        private int maxInFlight;  // 最大并发请求数
+
+        private Duration timeout;  // 单次调用超时
+    }
+}
@@ -0,0 +1,189 @@
+package org.qinian.registry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.domain.dto.weather.WeatherLoopAddDto;
+import org.qinian.geo.AdcodeResolver;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * 天气监测的渔排点登记表
+ * </p>
+ * 按渔排点 id 存储，并按 adcode 建二级索引；增删改 O(1)，遍历为无锁快照。
+ * 每次变更同步写入 Redis hash，重启后从 Redis 恢复。
+ * 删除时在 Redis 中留下墓碑（渔排点 id 不复用），后台同步拉到的已删除渔排点不会被重新登记
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RaftWatchRegistry {
+    private static final String REDIS_KEY = "weather_watch";
+    private static final String DELETED_KEY = "weather_watch_deleted";  // 渔排点 id -> 删除事件 id
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final AdcodeResolver adcodeResolver;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, WatchedRaft> byRaftId = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Long>> byAdcode = new ConcurrentHashMap<>();
+
+    /**
+     * 登记的渔排点，adcode 为 null 表示本地边界未命中，需要远程解析
+     */
+    public record WatchedRaft(WeatherLoopAddDto raft, String adcode) {
+    }
+
+    // 从 Redis 恢复，渔排点服务的数据由 RaftWatchSync 在后台增量同步
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int count = 0;
+        for (Object value : redisTemplate.opsForHash().values(REDIS_KEY)) {
+            index(objectMapper.convertValue(value, WeatherLoopAddDto.class));
+            count++;
+        }
+        log.info("天气监测登记表从 Redis 恢复，共 {} 个渔排点", count);
+    }
+
+    /**
+     * 新增或更新渔排点
+     */
+    public void put(WeatherLoopAddDto raft) {
+        index(raft);
+        redisTemplate.opsForHash().put(REDIS_KEY, String.valueOf(raft.getFishRaftId()), raft);
+    }
+
+    /**
+     * 批量登记后台同步拉取的渔排点，跳过已删除的
+     * <p>
+     * 分页可能在删除之前读取、在删除事件处理之后才登记，因此登记前后各检查一次墓碑；
+     * {@link #delete} 先写墓碑再移除，两者任意交错都不会让已删除的渔排点留在登记表中
+     *
+     * @return 实际登记的个数
+     */
+    public int putUnlessDeleted(List<WeatherLoopAddDto> rafts) {
+        List<WeatherLoopAddDto> alive = withoutDeleted(rafts);
+        alive.forEach(this::put);
+        List<WeatherLoopAddDto> stillAlive = withoutDeleted(alive);
+        if (stillAlive.size() < alive.size()) {
+            Set<Long> keep = new HashSet<>();
+            stillAlive.forEach(raft -> keep.add(raft.getFishRaftId()));
+            alive.stream()
+                    .map(WeatherLoopAddDto::getFishRaftId)
+                    .filter(id -> !keep.contains(id))
+                    .forEach(this::remove);
+        }
+        return stillAlive.size();
+    }
+
+    /**
+     * 渔排点已删除：写入墓碑后移除
+     */
+    public void delete(Long fishRaftId, Long eventId) {
+        redisTemplate.opsForHash().put(DELETED_KEY, String.valueOf(fishRaftId), String.valueOf(eventId));
+        remove(fishRaftId);
+    }
+
+    /**
+     * 删除渔排点
+     *
+     * @return 是否存在
+     */
+    public boolean remove(Long fishRaftId) {
+        WatchedRaft removed = byRaftId.remove(fishRaftId);
+        if (removed != null) {
+            unindex(fishRaftId, removed.adcode());
+        }
+        redisTemplate.opsForHash().delete(REDIS_KEY, String.valueOf(fishRaftId));
+        return removed != null;
+    }
+
+    /**
+     * 远程解析出 adcode 后回填
+     */
+    public void updateAdcode(Long fishRaftId, String adcode) {
+        byRaftId.computeIfPresent(fishRaftId, (id, old) -> {
+            unindex(id, old.adcode());
+            addToAdcode(id, adcode);
+            return new WatchedRaft(old.raft(), adcode);
+        });
+    }
+
+    /**
+     * 当前全部渔排点的快照，遍历期间不阻塞增删
+     */
+    public List<WatchedRaft> snapshot() {
+        return List.copyOf(byRaftId.values());
+    }
+
+    /**
+     * 指定区县下的渔排点 id
+     */
+    public Set<Long> raftIdsOf(String adcode) {
+        Set<Long> ids = byAdcode.get(adcode);
+        return ids == null ? Set.of() : Collections.unmodifiableSet(ids);
+    }
+
+    public int size() {
+        return byRaftId.size();
+    }
+
+    // 去掉有删除墓碑的渔排点
+    private List<WeatherLoopAddDto> withoutDeleted(List<WeatherLoopAddDto> rafts) {
+        if (rafts.isEmpty()) {
+            return rafts;
+        }
+        List<Object> fields = new ArrayList<>(rafts.size());
+        rafts.forEach(raft -> fields.add(String.valueOf(raft.getFishRaftId())));
+        List<Object> tombstones = redisTemplate.opsForHash().multiGet(DELETED_KEY, fields);
+        List<WeatherLoopAddDto> alive = new ArrayList<>(rafts.size());
+        for (int i = 0; i < rafts.size(); i++) {
+            if (tombstones.get(i) == null) {
+                alive.add(rafts.get(i));
+            }
+        }
+        return alive;
+    }
+
+    private void index(WeatherLoopAddDto raft) {
+        String adcode = adcodeResolver.resolveLocal(raft.getLongitude(), raft.getLatitude());
+        byRaftId.compute(raft.getFishRaftId(), (id, old) -> {
+            if (old != null) {
+                unindex(id, old.adcode());
+            }
+            addToAdcode(id, adcode);
+            return new WatchedRaft(raft, adcode);
+        });
+    }
+
+    private void addToAdcode(Long fishRaftId, String adcode) {
+        if (adcode == null) {
+            return;
+        }
+        byAdcode.compute(adcode, (k, ids) -> {
+            Set<Long> set = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            set.add(fishRaftId);
+            return set;
+        });
+    }
+
+    private void unindex(Long fishRaftId, String adcode) {
+        if (adcode == null) {
+            return;
+        }
+        byAdcode.computeIfPresent(adcode, (k, ids) -> {
+            ids.remove(fishRaftId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
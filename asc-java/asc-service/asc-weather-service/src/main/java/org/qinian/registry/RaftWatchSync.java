@@ -0,0 +1,112 @@
+package org.qinian.registry;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.domain.Result;
+import org.qinian.domain.dto.weather.WeatherLoopAddDto;
+import org.qinian.domain.vo.CursorPageVo;
+import org.qinian.domain.vo.GetRaftVo;
+import org.qinian.model.RemoteRaftService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * 后台分页同步渔排点到天气监测登记表
+ * </p>
+ * 以 (updateTime, raftId) 作为变更游标并保存在 Redis，首次运行即全量预热，之后只拉取增量；
+ * updateTime 由应用在事务提交前写入，提交较晚的行可能落在游标之前，因此每轮从游标回退一个重叠窗口重新读取
+ * （登记是幂等的，重复读取无副作用）。渔排点服务不可用时只记录日志，下次从游标处继续。
+ * 删除由渔排点事件（MQ raft.topic）实时处理，不在此同步；已删除的渔排点按墓碑跳过
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RaftWatchSync {
+    private static final String CURSOR_KEY = "weather_watch_cursor";
+    private static final int PAGE_SIZE = 200;
+
+    private final RemoteRaftService remoteRaftService;
+
+    private final RaftWatchRegistry raftWatchRegistry;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${asc.weather.sync-overlap:PT1M}")
+    private Duration overlap;  // 需大于渔排点写事务的最长耗时
+
+    @Scheduled(initialDelayString = "${asc.weather.sync-initial-delay:PT10S}",
+            fixedDelayString = "${asc.weather.sync-interval:PT5M}")
+    public void sync() {
+        Map<Object, Object> cursor = redisTemplate.opsForHash().entries(CURSOR_KEY);
+        String since = (String) cursor.get("since");
+        Long lastId = cursor.get("lastId") == null ? 0L : Long.valueOf(cursor.get("lastId").toString());
+        if (since != null) {
+            // 回退重叠窗口，补上游标推进后才提交的变更
+            since = LocalDateTime.parse(since).minus(overlap).toString();
+            lastId = 0L;
+        }
+
+        int synced = 0;
+        try {
+            boolean hasMore = true;
+            while (hasMore) {
+                Result result = remoteRaftService.getChangedFishRafts(since, lastId, PAGE_SIZE);
+                CursorPageVo<GetRaftVo> page = objectMapper.convertValue(result.getData(),
+                        new TypeReference<CursorPageVo<GetRaftVo>>() {
+                        });
+                List<GetRaftVo> records = page.getRecords();
+                if (records == null || records.isEmpty()) {
+                    break;
+                }
+
+                // 已删除的渔排点（页面读取早于删除事件）不再登记
+                synced += raftWatchRegistry.putUnlessDeleted(records.stream()
+                        .map(raftVo -> new WeatherLoopAddDto(
+                                raftVo.getRaftId(),
+                                raftVo.getLocationId(),
+                                raftVo.getLatitude(),
+                                raftVo.getLongitude()
+                        ))
+                        .toList());
+
+                // 每页处理完即推进游标，中途失败下次从这里继续
+                GetRaftVo last = records.get(records.size() - 1);
+                LocalDateTime updateTime = last.getUpdateTime();
+                since = updateTime == null ? null : updateTime.toString();
+                lastId = last.getRaftId();
+                saveCursor(since, lastId);
+
+                hasMore = Boolean.TRUE.equals(page.getHasMore());
+            }
+        } catch (Exception e) {
+            log.warn("渔排点增量同步中断，已同步 {} 条，下次从游标继续: {}", synced, e.toString());
+            return;
+        }
+
+        if (synced > 0) {
+            log.info("渔排点增量同步完成，本次 {} 条，登记表共 {} 个渔排点", synced, raftWatchRegistry.size());
+        }
+    }
+
+    private void saveCursor(String since, Long lastId) {
+        Map<String, Object> cursor = new HashMap<>();
+        cursor.put("lastId", String.valueOf(lastId));
+        if (since != null) {
+            cursor.put("since", since);
+        }
+        redisTemplate.opsForHash().putAll(CURSOR_KEY, cursor);
+    }
+}
@@ -0,0 +1,295 @@
+package org.qinian.rule;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.domain.pojo.WeatherMonitor;
+import org.qinian.enums.AlertLevels;
+import org.qinian.properties.WeatherAlertProperties;
+import org.qinian.utils.WeatherUtil;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * 天气告警规则引擎
+ * </p>
+ * 规则在启动和规则配置变更时编译为基本类型数组；每个渔排点在本地保存上一次采样和各规则的告警状态，
+ * 评估过程不访问 Redis，未触发告警时不分配对象。
+ * 告警送达后由调用方 {@link #acknowledge} 标记为已告警，送达失败的告警在下一次采样时重新触发；
+ * 规则变更后按规则名沿用告警状态。告警状态只在内存中，服务重启后处于阈值外的渔排点会重新告警一次
+ */
+@Slf4j
+@Component
+public class WeatherRuleEngine {
+    private static final int METRICS = WeatherAlertProperties.Metric.values().length;
+
+    private final WeatherAlertProperties properties;
+
+    private final Map<Long, RaftState> states = new ConcurrentHashMap<>();
+
+    private volatile CompiledRules compiled = CompiledRules.EMPTY;
+
+    public WeatherRuleEngine(WeatherAlertProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 触发的告警
+     */
+    public record Alert(String rule, AlertLevels level, String message) {
+    }
+
+    @PostConstruct
+    public void compile() {
+        compiled = CompiledRules.of(properties.getRules());
+        log.info("天气告警规则已加载，共 {} 条", compiled.size);
+    }
+
+    // Nacos 配置变更后，ConfigurationProperties 已重新绑定；任意配置变更都会触发，只在规则变化时重新编译
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        if (!compiled.sameSource(properties.getRules())) {
+            compile();
+        }
+    }
+
+    /**
+     * 评估一条采样，并更新该渔排点的本地状态
+     *
+     * @return 本次新触发的告警，未触发时为空列表
+     */
+    public List<Alert> evaluate(WeatherMonitor sample) {
+        Long raftId = sample.getFishRaftId();
+        if (raftId == null) {
+            return List.of();
+        }
+        CompiledRules rules = compiled;
+        RaftState state = states.computeIfAbsent(raftId, id -> new RaftState());
+
+        double temperature = sample.getTemperature() == null ? Double.NaN : sample.getTemperature().doubleValue();
+        double humidity = sample.getHumidity() == null ? Double.NaN : sample.getHumidity();
+        int windLevel = WeatherUtil.windLevel(sample.getWindPower());
+        double wind = windLevel < 0 ? Double.NaN : windLevel;
+        String adcode = sample.getAdcode();
+
+        List<Alert> alerts = List.of();
+        synchronized (state) {
+            state.align(rules);
+            for (int i = 0; i < rules.size; i++) {
+                if (!rules.appliesTo(i, raftId, adcode)) {
+                    continue;
+                }
+                double value = switch (rules.metric[i]) {
+                    case 0 -> temperature;
+                    case 1 -> humidity;
+                    default -> wind;
+                };
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                double last = state.last[rules.metric[i]];
+                if (!state.active[i] && rules.breached(i, value, last)) {
+                    // 送达后才标记为已告警
+                    if (alerts.isEmpty()) {
+                        alerts = new ArrayList<>(2);
+                    }
+                    alerts.add(new Alert(rules.name[i], rules.level[i], rules.message[i] + "（当前值 " + value + "）"));
+                } else if (state.active[i] && rules.cleared(i, value, last)) {
+                    state.active[i] = false;
+                }
+            }
+            if (!Double.isNaN(temperature)) {
+                state.last[0] = temperature;
+            }
+            if (!Double.isNaN(humidity)) {
+                state.last[1] = humidity;
+            }
+            if (!Double.isNaN(wind)) {
+                state.last[2] = wind;
+            }
+        }
+        return alerts;
+    }
+
+    /**
+     * 告警已送达，标记为已告警，回到阈值内之前不再重复触发
+     */
+    public void acknowledge(Long raftId, List<Alert> alerts) {
+        RaftState state = states.get(raftId);
+        if (state == null || alerts.isEmpty()) {
+            return;
+        }
+        synchronized (state) {
+            state.align(compiled);
+            for (Alert alert : alerts) {
+                int i = state.rules.indexOf(alert.rule());
+                if (i >= 0) {
+                    state.active[i] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * 渔排点删除后清理本地状态
+     */
+    public void forget(Long raftId) {
+        states.remove(raftId);
+    }
+
+    private static final class RaftState {
+        final double[] last = new double[METRICS];
+
+        boolean[] active = new boolean[0];
+
+        CompiledRules rules = CompiledRules.EMPTY;  // active 按此规则的下标排列
+
+        RaftState() {
+            Arrays.fill(last, Double.NaN);
+        }
+
+        // 规则已变更时按规则名沿用告警状态，删除的规则状态丢弃，新增的规则从未告警开始
+        void align(CompiledRules latest) {
+            if (rules == latest) {
+                return;
+            }
+            boolean[] aligned = new boolean[latest.size];
+            for (int i = 0; i < latest.size; i++) {
+                int old = rules.indexOf(latest.name[i]);
+                aligned[i] = old >= 0 && active[old];
+            }
+            active = aligned;
+            rules = latest;
+        }
+    }
+
+    // 按列存放的规则，NaN 表示未配置
+    private static final class CompiledRules {
+        static final CompiledRules EMPTY = new CompiledRules(List.of(), 0);
+
+        final int size;
+        final List<WeatherAlertProperties.Rule> source;  // 编译时规则配置的副本，用于判断配置是否变化
+        final String[] name;
+        final int[] metric;
+        final long[][] rafts;
+        final String[] regionPrefix;
+        final double[] above;
+        final double[] below;
+        final double[] maxChange;
+        final double[] hysteresis;
+        final AlertLevels[] level;
+        final String[] message;
+
+        private CompiledRules(List<WeatherAlertProperties.Rule> source, int size) {
+            this.size = size;
+            this.source = source;
+            this.name = new String[size];
+            this.metric = new int[size];
+            this.rafts = new long[size][];
+            this.regionPrefix = new String[size];
+            this.above = new double[size];
+            this.below = new double[size];
+            this.maxChange = new double[size];
+            this.hysteresis = new double[size];
+            this.level = new AlertLevels[size];
+            this.message = new String[size];
+        }
+
+        static CompiledRules of(List<WeatherAlertProperties.Rule> source) {
+            List<WeatherAlertProperties.Rule> copy = copy(source);
+            // 规则名用于沿用告警状态和告警去重，必须唯一
+            Set<String> names = new HashSet<>();
+            List<WeatherAlertProperties.Rule> valid = copy.stream()
+                    .filter(rule -> {
+                        boolean ok = rule.getName() != null && !rule.getName().isBlank() && names.add(rule.getName())
+                                && rule.getMetric() != null
+                                && (rule.getAbove() != null || rule.getBelow() != null || rule.getMaxChange() != null);
+                        if (!ok) {
+                            log.warn("忽略无效的天气告警规则: {}", rule);
+                        }
+                        return ok;
+                    })
+                    .toList();
+
+            CompiledRules rules = new CompiledRules(copy, valid.size());
+            for (int i = 0; i < valid.size(); i++) {
+                WeatherAlertProperties.Rule rule = valid.get(i);
+                rules.name[i] = rule.getName();
+                rules.metric[i] = rule.getMetric().ordinal();
+                rules.rafts[i] = rule.getRafts() == null ? new long[0]
+                        : rule.getRafts().stream().mapToLong(Long::longValue).sorted().toArray();
+                rules.regionPrefix[i] = regionPrefix(rule.getRegion());
+                rules.above[i] = rule.getAbove() == null ? Double.NaN : rule.getAbove();
+                rules.below[i] = rule.getBelow() == null ? Double.NaN : rule.getBelow();
+                rules.maxChange[i] = rule.getMaxChange() == null ? Double.NaN : rule.getMaxChange();
+                rules.hysteresis[i] = rule.getHysteresis() == null ? 0 : Math.abs(rule.getHysteresis());
+                rules.level[i] = rule.getLevel() == null ? AlertLevels.HEAT : rule.getLevel();
+                rules.message[i] = rule.getMessage() == null ? "触发天气告警: " + rule.getName() : rule.getMessage();
+            }
+            return rules;
+        }
+
+        boolean sameSource(List<WeatherAlertProperties.Rule> latest) {
+            return source.equals(latest == null ? List.of() : latest);
+        }
+
+        // 规则名对应的下标，没有时为 -1
+        int indexOf(String ruleName) {
+            for (int i = 0; i < size; i++) {
+                if (name[i] != null && name[i].equals(ruleName)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // 配置对象会在刷新时被原地重新绑定，需深拷贝保存
+        private static List<WeatherAlertProperties.Rule> copy(List<WeatherAlertProperties.Rule> source) {
+            if (source == null) {
+                return List.of();
+            }
+            return source.stream()
+                    .map(rule -> new WeatherAlertProperties.Rule(rule.getName(), rule.getMetric(),
+                            rule.getRafts() == null ? null : new ArrayList<>(rule.getRafts()), rule.getRegion(),
+                            rule.getAbove(), rule.getBelow(), rule.getMaxChange(), rule.getHysteresis(),
+                            rule.getLevel(), rule.getMessage()))
+                    .toList();
+        }
+
+        boolean appliesTo(int i, long raftId, String adcode) {
+            if (rafts[i].length > 0 && Arrays.binarySearch(rafts[i], raftId) < 0) {
+                return false;
+            }
+            return regionPrefix[i] == null || (adcode != null && adcode.startsWith(regionPrefix[i]));
+        }
+
+        boolean breached(int i, double value, double last) {
+            return value > above[i]
+                    || value < below[i]
+                    || Math.abs(value - last) > maxChange[i];
+        }
+
+        // 所有已配置的条件都回到阈值内侧（留出回差）才算解除
+        boolean cleared(int i, double value, double last) {
+            return (Double.isNaN(above[i]) || value <= above[i] - hysteresis[i])
+                    && (Double.isNaN(below[i]) || value >= below[i] + hysteresis[i])
+                    && (Double.isNaN(maxChange[i]) || Double.isNaN(last) || Math.abs(value - last) <= maxChange[i] - hysteresis[i]);
+        }
+
+        // 350200 -> 3502，即匹配厦门市下所有区县
+        private static String regionPrefix(String region) {
+            if (region == null || region.isBlank()) {
+                return null;
+            }
+            String prefix = region.trim();
+            while (prefix.length() > 2 && prefix.endsWith("00")) {
+                prefix = prefix.substring(0, prefix.length() - 2);
+            }
+            return prefix;
+        }
+    }
+}
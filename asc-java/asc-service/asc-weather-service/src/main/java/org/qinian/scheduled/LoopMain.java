@@ -1,61 +1,133 @@
 package org.qinian.scheduled;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.qinian.cache.WeatherLiveCache;
 import org.qinian.domain.dto.weather.WeatherAddDto;
 import org.qinian.domain.dto.weather.WeatherLoopAddDto;
 import org.qinian.entity.WeatherInfo;
+import org.qinian.geo.AdcodeResolver;
 import org.qinian.model.RemoteWeatherService;
-import org.qinian.utils.LocationUtil;
+import org.qinian.properties.WeatherLoopProperties;
+import org.qinian.registry.RaftWatchRegistry;
 import org.qinian.utils.WeatherUtil;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.Vector;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 天气监测api有配额！
+ * <p>
+ * 每个渔排点一条流水线：解析 adcode -> 获取天气（同 adcode 共享）-> 保存，
+ * 全部跑在虚拟线程上，各上游独立限速、限并发、超时
  * @author qinian
  */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class LoopMain {
-    private final Vector<WeatherLoopAddDto> threadSafeVector;
+    private final RaftWatchRegistry raftWatchRegistry;
 
     private final RemoteWeatherService remoteWeatherService;
 
+    private final AdcodeResolver adcodeResolver;
+
+    private final WeatherLiveCache weatherLiveCache;
+
+    private final UpstreamLimiter baidu;
+
+    private final UpstreamLimiter amap;
+
+    private final UpstreamLimiter monitor;
+
+    public LoopMain(RaftWatchRegistry raftWatchRegistry,
+                    RemoteWeatherService remoteWeatherService,
+                    AdcodeResolver adcodeResolver,
+                    WeatherLiveCache weatherLiveCache,
+                    WeatherLoopProperties properties) {
+        this.raftWatchRegistry = raftWatchRegistry;
+        this.remoteWeatherService = remoteWeatherService;
+        this.adcodeResolver = adcodeResolver;
+        this.weatherLiveCache = weatherLiveCache;
+        this.baidu = new UpstreamLimiter("百度逆地理编码", properties.getBaidu());
+        this.amap = new UpstreamLimiter("高德天气", properties.getAmap());
+        this.monitor = new UpstreamLimiter("保存天气信息", properties.getMonitor());
+    }
+
 //    @Scheduled(cron = "0 0 10 * * ?")  // 每天早上10点执行一次
 //    @Scheduled(cron = "*0* * * * ?")   // 每分钟执行一次
     @Scheduled(cron = "*00 * * * ?")   // 每小时执行一次
 //    @Scheduled(cron = "* * * * * ?")   // 每秒钟执行一次
-    public void loopMainTask() throws Exception {
-        for (WeatherLoopAddDto weatherLoopAddDto : threadSafeVector) {
-            // 1.获取城市adcode
-            String adcode = LocationUtil.getAdcodeByLocation(
-                    weatherLoopAddDto.getLongitude(),
-                    weatherLoopAddDto.getLatitude());
-
-            // 1.1 adcode 为6位数
-            if (adcode.length() != 6) {
-                continue;
-            }
-
-            // 2.获取adcode对应的天气信息
-            WeatherInfo weatherInfo = WeatherUtil.getWeatherInfo(adcode);
-
-            // 2.1 判断有没有天气信息
-            if (weatherInfo.getLives().length == 0) {
-                continue;
-            }
-
-            // 3.创建天气信息
-            WeatherAddDto weatherAddDto = new WeatherAddDto(
-                    weatherLoopAddDto.getFishRaftId(),
-                    weatherLoopAddDto.getLocationId(),
-                    weatherInfo.getLives()[0]  // 只有一个值
-            );
-
-            // 4.保存数据库
-            remoteWeatherService.createWeatherInfo(weatherAddDto);
+    public void loopMainTask() {
+        long start = System.currentTimeMillis();
+        List<RaftWatchRegistry.WatchedRaft> rafts = raftWatchRegistry.snapshot();
+        // 同一区县的渔排点共用一次天气请求
+        Map<String, CompletableFuture<WeatherInfo.Live>> liveByAdcode = new ConcurrentHashMap<>();
+        AtomicInteger saved = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<?>[] pipelines = rafts.stream()
+                    .map(watchedRaft -> resolveAdcode(watchedRaft, executor)
+                            // 1.1 adcode 为6位数
+                            .thenCompose(adcode -> adcode == null || adcode.length() != 6
+                                    ? CompletableFuture.<WeatherInfo.Live>completedFuture(null)
+                                    : liveByAdcode.computeIfAbsent(adcode, k -> fetchLive(k, executor)))
+                            // 2.1 判断有没有天气信息
+                            .thenCompose(live -> live == null
+                                    ? CompletableFuture.completedFuture(false)
+                                    : save(watchedRaft.raft(), live, executor))
+                            .handle((isSaved, e) -> {
+                                if (e != null) {
+                                    failed.incrementAndGet();
+                                    log.warn("渔排点 {} 天气采集失败: {}", watchedRaft.raft().getFishRaftId(), e.toString());
+                                } else if (isSaved) {
+                                    saved.incrementAndGet();
+                                }
+                                return null;
+                            }))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(pipelines).join();
         }
+
+        log.info("天气轮询完成：渔排点 {} 个，区县 {} 个，保存 {} 条，失败 {} 条，耗时 {} ms",
+                rafts.size(), liveByAdcode.size(), saved.get(), failed.get(), System.currentTimeMillis() - start);
+    }
+
+    // 1.获取城市adcode，登记时本地边界未命中的才走百度接口，解析结果回填登记表
+    private CompletableFuture<String> resolveAdcode(RaftWatchRegistry.WatchedRaft watchedRaft, ExecutorService executor) {
+        if (watchedRaft.adcode() != null) {
+            return CompletableFuture.completedFuture(watchedRaft.adcode());
+        }
+        WeatherLoopAddDto raft = watchedRaft.raft();
+        return baidu.submit(() -> adcodeResolver.resolveRemote(raft.getLongitude(), raft.getLatitude()), executor)
+                .thenApply(adcode -> {
+                    if (adcode != null && adcode.length() == 6) {
+                        raftWatchRegistry.updateAdcode(raft.getFishRaftId(), adcode);
+                    }
+                    return adcode;
+                });
+    }
+
+    // 2.获取adcode对应的天气信息
+    private CompletableFuture<WeatherInfo.Live> fetchLive(String adcode, ExecutorService executor) {
+        return amap.async(() -> weatherLiveCache.get(adcode,
+                () -> amap.call(() -> WeatherUtil.getWeatherInfo(adcode))), executor);
+    }
+
+    // 3.创建天气信息 4.保存数据库
+    private CompletableFuture<Boolean> save(WeatherLoopAddDto weatherLoopAddDto, WeatherInfo.Live live, ExecutorService executor) {
+        WeatherAddDto weatherAddDto = new WeatherAddDto(
+                weatherLoopAddDto.getFishRaftId(),
+                weatherLoopAddDto.getLocationId(),
+                live
+        );
+        return monitor.submit(() -> remoteWeatherService.createWeatherInfo(weatherAddDto), executor)
+                .thenApply(result -> true);
     }
 }
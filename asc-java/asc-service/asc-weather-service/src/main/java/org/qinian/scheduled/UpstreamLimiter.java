@@ -0,0 +1,75 @@
+package org.qinian.scheduled;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.qinian.properties.WeatherLoopProperties;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * 单个上游接口的限流：令牌桶限速 + 信号量限制并发 + 单次调用超时
+ */
+class UpstreamLimiter {
+    private final String name;
+    private final RateLimiter rateLimiter;
+    private final Semaphore inFlight;
+    private final Duration timeout;
+
+    UpstreamLimiter(String name, WeatherLoopProperties.Upstream upstream) {
+        this.name = name;
+        this.rateLimiter = RateLimiter.create(upstream.getPermitsPerSecond());
+        this.inFlight = new Semaphore(upstream.getMaxInFlight());
+        this.timeout = upstream.getTimeout();
+    }
+
+    /**
+     * 同步调用上游：先等并发名额和令牌，再在虚拟线程上执行并计时；
+     * 排队时间不计入超时，超时后中断请求线程，名额在请求真正结束时才归还
+     */
+    <T> T call(Callable<T> call) throws Exception {
+        inFlight.acquire();
+        FutureTask<T> task = new FutureTask<>(call);
+        try {
+            rateLimiter.acquire();
+            Thread.ofVirtual().name(name).start(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+
+        try {
+            return task.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            throw new TimeoutException(name + " 调用超时（" + timeout.toMillis() + " ms）");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * 在 executor 上异步执行 task；task 内部通过 {@link #call} 发起真正的上游请求，命中缓存时不消耗令牌
+     */
+    <T> CompletableFuture<T> async(Callable<T> task, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new CompletionException(name + " 调用失败", e);
+            }
+        }, executor);
+    }
+
+    /**
+     * 异步调用上游，等价于 async(() -> call(call))
+     */
+    <T> CompletableFuture<T> submit(Callable<T> call, Executor executor) {
+        return async(() -> call(call), executor);
+    }
+}
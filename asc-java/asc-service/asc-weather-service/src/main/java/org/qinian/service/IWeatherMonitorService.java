@@ -2,6 +2,11 @@ package org.qinian.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import org.qinian.domain.pojo.WeatherMonitor;
+import org.qinian.domain.vo.WeatherSeriesVo;
+import org.qinian.enums.SeriesStep;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * <p>
@@ -14,4 +19,26 @@ import org.qinian.domain.pojo.WeatherMonitor;
 public interface IWeatherMonitorService extends IService<WeatherMonitor> {
 
     void alert(WeatherMonitor weatherMonitor);
+
+    /**
+     * 保存一条采样并累加进汇总（同一事务）；同一渔排点同一上报时间已有采样时不重复记录
+     *
+     * @return 是否为新采样
+     */
+    boolean record(WeatherMonitor weatherMonitor);
+
+    /**
+     * 将一条采样累加进小时 / 天 / 月汇总
+     */
+    void rollup(WeatherMonitor weatherMonitor);
+
+    /**
+     * 更新渔排点最新状态中的天气部分
+     */
+    void updateState(WeatherMonitor weatherMonitor);
+
+    /**
+     * 查询渔排点在 [from, to) 内的天气时间序列
+     */
+    List<WeatherSeriesVo> series(Long fishRaftId, LocalDateTime from, LocalDateTime to, SeriesStep step);
 }
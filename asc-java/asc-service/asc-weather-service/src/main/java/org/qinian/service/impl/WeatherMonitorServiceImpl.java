@@ -2,17 +2,32 @@ package org.qinian.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.qinian.dao.WeatherMonitorMapper;
+import org.qinian.dao.WeatherRollupMapper;
+import org.qinian.domain.Result;
 import org.qinian.domain.dto.alert.AddAlertInfoDto;
 import org.qinian.domain.pojo.WeatherMonitor;
-import org.qinian.enums.AlertLevels;
+import org.qinian.domain.pojo.WeatherRollup;
+import org.qinian.domain.vo.WeatherSeriesVo;
 import org.qinian.enums.AlertTypes;
+import org.qinian.enums.SeriesStep;
+import org.qinian.exception.BadRequestException;
 import org.qinian.model.RemoteAlertService;
+import org.qinian.rule.WeatherRuleEngine;
 import org.qinian.service.IWeatherMonitorService;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.qinian.state.RaftStateStore;
+import org.qinian.utils.WeatherUtil;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * <p>
@@ -22,50 +37,174 @@ import java.math.BigDecimal;
  * @author qinian
  * @since 2024-07-29
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class WeatherMonitorServiceImpl extends ServiceImpl<WeatherMonitorMapper, WeatherMonitor> implements IWeatherMonitorService {
-    private final RedisTemplate<String, Object> redisTemplate;
+    private static final List<SeriesStep> ROLLUP_STEPS = List.of(SeriesStep.HOUR, SeriesStep.DAY, SeriesStep.MONTH);
+    private static final Duration MAX_RAW_SPAN = Duration.ofDays(7);  // 原始采样最多查询 7 天
 
     private final RemoteAlertService remoteAlertService;
 
+    private final WeatherRuleEngine weatherRuleEngine;
+
+    private final WeatherRollupMapper weatherRollupMapper;
+
+    private final RaftStateStore raftStateStore;
+
     @Override
     public void alert(WeatherMonitor weatherMonitor) {
-        String key = "alert_weather_" + weatherMonitor.getFishRaftId();
-
-        if (Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
-            // 1. 获取该渔排点的历史记录
-            WeatherMonitor lastInfo = (WeatherMonitor) redisTemplate.opsForValue().get(key);
-
-            // 2.天气数据变更警告 （这里仅以温度为例）
-            BigDecimal lowThreshold = new BigDecimal("-5"); // 低温阈值
-            BigDecimal highThreshold = new BigDecimal("35"); // 高温阈值
-
-            assert lastInfo != null;
-            if (lastInfo.getTemperature().compareTo(lowThreshold) < 0) {
-                // 触发极寒天气警告
-                remoteAlertService.createAlertInfo(
-                        new AddAlertInfoDto(
-                                weatherMonitor.getFishRaftId(),
-                                AlertTypes.WEATHER_ALERT,
-                                AlertLevels.HEAT,
-                                "触发极寒天气警告"
-                        )
-                );
-            } else if (lastInfo.getTemperature().compareTo(highThreshold) > 0) {
-                // 触发极热天气警告
-                remoteAlertService.createAlertInfo(
-                        new AddAlertInfoDto(
-                                weatherMonitor.getFishRaftId(),
-                                AlertTypes.WEATHER_ALERT,
-                                AlertLevels.HEAT,
-                                "触发极热天气警告"
-                        )
-                );
+        // 规则在本地评估，只有新触发的告警才产生远程调用，同一采样的多条告警一次提交
+        List<WeatherRuleEngine.Alert> alerts = weatherRuleEngine.evaluate(weatherMonitor);
+        if (alerts.isEmpty()) {
+            return;
+        }
+        Result result;
+        try {
+            result = remoteAlertService.createAlertInfos(alerts.stream()
+                    .map(alert -> new AddAlertInfoDto(
+                            weatherMonitor.getFishRaftId(),
+                            AlertTypes.WEATHER_ALERT,
+                            alert.level(),
+                            alert.message(),
+                            alert.rule()
+                    ))
+                    .toList());
+        } catch (RuntimeException e) {
+            // 采样已入库，告警未标记为已发送，下一次采样仍处于阈值外时重新告警
+            log.warn("渔排点 {} 天气告警提交失败，下次采样重试: {}", weatherMonitor.getFishRaftId(), e.toString());
+            return;
+        }
+        if (result == null || result.getCode() != 200) {
+            log.warn("渔排点 {} 天气告警提交失败，下次采样重试: {}", weatherMonitor.getFishRaftId(),
+                    result == null ? null : result.getMsg());
+            return;
+        }
+        weatherRuleEngine.acknowledge(weatherMonitor.getFishRaftId(), alerts);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean record(WeatherMonitor weatherMonitor) {
+        // 轮询可能重复拉到同一条实况，按 (渔排点, 上报时间) 去重，并发写入由唯一索引兜底
+        boolean exists = lambdaQuery()
+                .eq(WeatherMonitor::getFishRaftId, weatherMonitor.getFishRaftId())
+                .eq(WeatherMonitor::getReportTime, weatherMonitor.getReportTime())
+                .count() > 0;
+        if (exists) {
+            return false;
+        }
+        try {
+            baseMapper.insert(weatherMonitor);
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+        // 采样与汇总同一事务，汇总失败时采样一并回滚，不会出现只入库未汇总
+        rollup(weatherMonitor);
+        return true;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void rollup(WeatherMonitor weatherMonitor) {
+        LocalDateTime time = sampleTime(weatherMonitor);
+        Integer wind = windLevel(weatherMonitor.getWindPower());
+        for (SeriesStep step : ROLLUP_STEPS) {
+            WeatherRollup sample = new WeatherRollup()
+                    .setFishRaftId(weatherMonitor.getFishRaftId())
+                    .setGranularity(step.getValue())
+                    .setBucketStart(step.truncate(time));
+            BigDecimal temperature = weatherMonitor.getTemperature();
+            sample.setTempCount(temperature == null ? 0 : 1)
+                    .setTempSum(temperature == null ? BigDecimal.ZERO : temperature)
+                    .setTempMin(temperature)
+                    .setTempMax(temperature);
+            Integer humidity = weatherMonitor.getHumidity();
+            sample.setHumidityCount(humidity == null ? 0 : 1)
+                    .setHumiditySum(humidity == null ? 0L : humidity)
+                    .setHumidityMin(humidity)
+                    .setHumidityMax(humidity);
+            sample.setWindCount(wind == null ? 0 : 1)
+                    .setWindSum(wind == null ? 0L : wind)
+                    .setWindMin(wind)
+                    .setWindMax(wind);
+            weatherRollupMapper.accumulate(sample);
+        }
+    }
+
+    @Override
+    public void updateState(WeatherMonitor weatherMonitor) {
+        // 看板状态只是投影，写入失败不影响采样入库
+        try {
+            raftStateStore.apply(new RaftStateStore.Update(weatherMonitor.getFishRaftId())
+                    .set(RaftStateStore.WEATHER, weatherMonitor.getWeather())
+                    .set(RaftStateStore.TEMPERATURE, weatherMonitor.getTemperature())
+                    .set(RaftStateStore.HUMIDITY, weatherMonitor.getHumidity())
+                    .set(RaftStateStore.WIND_DIRECTION, weatherMonitor.getWindDirection())
+                    .set(RaftStateStore.WIND_POWER, weatherMonitor.getWindPower())
+                    .set(RaftStateStore.WEATHER_TIME, sampleTime(weatherMonitor)));
+        } catch (DataAccessException e) {
+            log.warn("渔排点 {} 天气状态更新失败: {}", weatherMonitor.getFishRaftId(), e.toString());
+        }
+    }
+
+    @Override
+    public List<WeatherSeriesVo> series(Long fishRaftId, LocalDateTime from, LocalDateTime to, SeriesStep step) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("开始时间必须早于结束时间");
+        }
+        if (step == SeriesStep.RAW) {
+            if (Duration.between(from, to).compareTo(MAX_RAW_SPAN) > 0) {
+                throw new BadRequestException("原始采样最多查询 7 天，请指定 hour / day / month 粒度");
             }
-        } else {
-            // 无该渔排点的历史记录
-            redisTemplate.opsForValue().set(key, weatherMonitor);
+            return baseMapper.selectRange(fishRaftId, from, to).stream()
+                    .map(this::toSeries)
+                    .toList();
         }
+        // 起点对齐到桶边界，使包含 from 的桶也被返回
+        return weatherRollupMapper.selectRange(fishRaftId, step.getValue(), step.truncate(from), to).stream()
+                .map(this::toSeries)
+                .toList();
+    }
+
+    private WeatherSeriesVo toSeries(WeatherMonitor monitor) {
+        Integer wind = windLevel(monitor.getWindPower());
+        return new WeatherSeriesVo(
+                sampleTime(monitor),
+                1,
+                monitor.getTemperature(), monitor.getTemperature(), monitor.getTemperature(),
+                monitor.getHumidity() == null ? null : BigDecimal.valueOf(monitor.getHumidity()),
+                monitor.getHumidity(), monitor.getHumidity(),
+                wind == null ? null : BigDecimal.valueOf(wind), wind, wind
+        );
+    }
+
+    private WeatherSeriesVo toSeries(WeatherRollup rollup) {
+        return new WeatherSeriesVo(
+                rollup.getBucketStart(),
+                Math.max(rollup.getTempCount(), Math.max(rollup.getHumidityCount(), rollup.getWindCount())),
+                average(rollup.getTempSum(), rollup.getTempCount()), rollup.getTempMin(), rollup.getTempMax(),
+                average(BigDecimal.valueOf(rollup.getHumiditySum()), rollup.getHumidityCount()),
+                rollup.getHumidityMin(), rollup.getHumidityMax(),
+                average(BigDecimal.valueOf(rollup.getWindSum()), rollup.getWindCount()),
+                rollup.getWindMin(), rollup.getWindMax()
+        );
+    }
+
+    private static BigDecimal average(BigDecimal sum, Integer count) {
+        if (sum == null || count == null || count == 0) {
+            return null;
+        }
+        return sum.divide(BigDecimal.valueOf(count), 1, RoundingMode.HALF_UP);
+    }
+
+    // 以上报时间归桶，缺失时使用入库时间
+    private static LocalDateTime sampleTime(WeatherMonitor monitor) {
+        return monitor.getReportTime() != null ? monitor.getReportTime() : monitor.getCreateTime();
+    }
+
+    private static Integer windLevel(String windPower) {
+        int level = WeatherUtil.windLevel(windPower);
+        return level < 0 ? null : level;
     }
 }
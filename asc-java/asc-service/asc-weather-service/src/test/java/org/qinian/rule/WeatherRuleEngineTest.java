@@ -0,0 +1,123 @@
+package org.qinian.rule;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qinian.domain.pojo.WeatherMonitor;
+import org.qinian.enums.AlertLevels;
+import org.qinian.properties.WeatherAlertProperties;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 天气规则的触发、解除、送达确认与配置刷新
+ */
+class WeatherRuleEngineTest {
+    private static final long RAFT_ID = 1L;
+
+    private WeatherAlertProperties properties;
+
+    private WeatherRuleEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WeatherAlertProperties();
+        properties.setRules(new ArrayList<>(List.of(
+                rule("extreme-heat", WeatherAlertProperties.Metric.TEMPERATURE, 35.0),
+                rule("strong-wind", WeatherAlertProperties.Metric.WIND, 7.0))));
+        engine = new WeatherRuleEngine(properties);
+        engine.compile();
+    }
+
+    @Test
+    void acknowledgedAlertIsNotRepeatedUntilCleared() {
+        List<WeatherRuleEngine.Alert> alerts = engine.evaluate(sample(36, "3"));
+        assertEquals(1, alerts.size());
+        assertEquals("extreme-heat", alerts.get(0).rule());
+        engine.acknowledge(RAFT_ID, alerts);
+
+        assertTrue(engine.evaluate(sample(37, "3")).isEmpty());
+        // 回差 1：35 仍未解除，34 解除
+        assertTrue(engine.evaluate(sample(35, "3")).isEmpty());
+        assertTrue(engine.evaluate(sample(34, "3")).isEmpty());
+        assertEquals(1, engine.evaluate(sample(36, "3")).size());
+    }
+
+    @Test
+    void undeliveredAlertFiresAgainOnNextSample() {
+        assertEquals(1, engine.evaluate(sample(36, "3")).size());
+        // 未调用 acknowledge：远程告警失败
+        assertEquals(1, engine.evaluate(sample(36, "3")).size());
+    }
+
+    @Test
+    void rulesFiringTogetherAreReportedSeparately() {
+        List<WeatherRuleEngine.Alert> alerts = engine.evaluate(sample(36, "8"));
+        assertEquals(List.of("extreme-heat", "strong-wind"), alerts.stream().map(WeatherRuleEngine.Alert::rule).toList());
+    }
+
+    @Test
+    void unrelatedRefreshKeepsAlertState() {
+        engine.acknowledge(RAFT_ID, engine.evaluate(sample(36, "3")));
+
+        // 其它配置刷新时规则会被重新绑定为新对象，内容未变
+        properties.setRules(new ArrayList<>(List.of(
+                rule("extreme-heat", WeatherAlertProperties.Metric.TEMPERATURE, 35.0),
+                rule("strong-wind", WeatherAlertProperties.Metric.WIND, 7.0))));
+        engine.reload();
+
+        assertTrue(engine.evaluate(sample(36, "3")).isEmpty());
+    }
+
+    @Test
+    void changedRulesKeepStateByName() {
+        engine.acknowledge(RAFT_ID, engine.evaluate(sample(36, "8")));
+
+        // 删除大风规则、调整极热阈值、新增湿度规则
+        properties.setRules(new ArrayList<>(List.of(
+                rule("high-humidity", WeatherAlertProperties.Metric.HUMIDITY, 90.0),
+                rule("extreme-heat", WeatherAlertProperties.Metric.TEMPERATURE, 34.0))));
+        engine.reload();
+
+        List<WeatherRuleEngine.Alert> alerts = engine.evaluate(sample(36, "8").setHumidity(95));
+        assertEquals(List.of("high-humidity"), alerts.stream().map(WeatherRuleEngine.Alert::rule).toList());
+    }
+
+    @Test
+    void invalidAndDuplicateRulesAreIgnored() {
+        WeatherAlertProperties.Rule noThreshold = rule("no-threshold", WeatherAlertProperties.Metric.TEMPERATURE, null);
+        properties.setRules(new ArrayList<>(List.of(
+                rule("extreme-heat", WeatherAlertProperties.Metric.TEMPERATURE, 35.0),
+                rule("extreme-heat", WeatherAlertProperties.Metric.TEMPERATURE, 20.0),
+                rule(null, WeatherAlertProperties.Metric.TEMPERATURE, 20.0),
+                noThreshold)));
+        engine.reload();
+
+        assertTrue(engine.evaluate(sample(30, "3")).isEmpty());
+        assertEquals(1, engine.evaluate(sample(36, "3")).size());
+    }
+
+    @Test
+    void forgetDropsState() {
+        engine.acknowledge(RAFT_ID, engine.evaluate(sample(36, "3")));
+        engine.forget(RAFT_ID);
+
+        assertEquals(1, engine.evaluate(sample(36, "3")).size());
+    }
+
+    private static WeatherMonitor sample(double temperature, String windPower) {
+        return new WeatherMonitor()
+                .setFishRaftId(RAFT_ID)
+                .setTemperature(BigDecimal.valueOf(temperature))
+                .setWindPower(windPower)
+                .setAdcode("350203");
+    }
+
+    private static WeatherAlertProperties.Rule rule(String name, WeatherAlertProperties.Metric metric, Double above) {
+        return new WeatherAlertProperties.Rule(name, metric, List.of(), null, above, null, null, 1.0,
+                AlertLevels.HEAT, null);
+    }
+}
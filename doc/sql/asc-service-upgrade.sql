@@ -0,0 +1,294 @@
+/*
+    业务库增量脚本：在各服务已有业务表的基础上执行，可重复执行
+ */
+
+SET NAMES utf8mb4;
+
+/******************************************/
+/*   数据库 = fishraft_db                   */
+/******************************************/
+USE `fishraft_db`;
+
+-- 渔排点事件发件箱：与渔排点同事务写入，由 fishRaft-service 定时投递到 raft.topic
+CREATE TABLE IF NOT EXISTS `raft_event_outbox`
+(
+    `Id`           bigint      NOT NULL AUTO_INCREMENT COMMENT 'id，同时作为事件 eventId',
+    `fish_raft_id` bigint      NOT NULL COMMENT '渔排点id',
+    `event_type`   varchar(16) NOT NULL COMMENT 'created / updated / deleted',
+    `payload`      mediumtext  NOT NULL COMMENT '事件内容 json（含掩码，可能超过 64KB）',
+    `create_time`  datetime    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `sent_time`    datetime             DEFAULT NULL COMMENT '投递时间，为空表示未投递',
+    PRIMARY KEY (`Id`),
+    KEY `idx_sent_time_id` (`sent_time`, `Id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='渔排点事件发件箱';
+
+-- 事件内容带渔排掩码，text 上限 64KB 不够；已按 text 建过表的加宽
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.columns
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'raft_event_outbox'
+                 AND column_name = 'payload'
+                 AND data_type = 'text') > 0,
+              'ALTER TABLE `raft_event_outbox` MODIFY COLUMN `payload` mediumtext NOT NULL COMMENT ''事件内容 json（含掩码，可能超过 64KB）''',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 渔排掩码改为紧凑编码（见 MaskCodec）单独存放，列表查询不再读取；旧版 mask 列在首次按 id 读取时迁移
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.columns
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'fish_raft_point'
+                 AND column_name = 'mask_data') = 0,
+              'ALTER TABLE `fish_raft_point` ADD COLUMN `mask_data` mediumblob NULL COMMENT ''渔排掩码（紧凑编码）'' AFTER `mask`',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+/******************************************/
+/*   数据库 = weather_db                    */
+/******************************************/
+USE `weather_db`;
+
+-- 天气采样按 (渔排点, 上报时间) 去重：先删除重复采样（保留最早写入的一条），再建唯一索引
+DELETE m1
+FROM `weather_monitor` m1
+         JOIN `weather_monitor` m2
+              ON m1.fish_raft_id = m2.fish_raft_id
+                  AND m1.report_time = m2.report_time
+                  AND m1.Id > m2.Id;
+
+-- 同时供时间序列接口按 (渔排点, 上报时间) 查询
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.statistics
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'weather_monitor'
+                 AND index_name = 'uk_raft_report_time') = 0,
+              'ALTER TABLE `weather_monitor` ADD UNIQUE INDEX `uk_raft_report_time` (`fish_raft_id`, `report_time`)',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 旧的普通索引已被唯一索引覆盖
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.statistics
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'weather_monitor'
+                 AND index_name = 'idx_raft_report_time') > 0,
+              'ALTER TABLE `weather_monitor` DROP INDEX `idx_raft_report_time`',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 天气数据汇总：每条采样写入时增量累加，平均值 = sum / count
+CREATE TABLE IF NOT EXISTS `weather_rollup`
+(
+    `fish_raft_id`   bigint        NOT NULL COMMENT '渔排点id',
+    `granularity`    varchar(8)    NOT NULL COMMENT 'hour / day / month',
+    `bucket_start`   datetime      NOT NULL COMMENT '桶起点',
+    `temp_count`     int           NOT NULL DEFAULT 0 COMMENT '温度样本数',
+    `temp_sum`       decimal(12, 2) NOT NULL DEFAULT 0 COMMENT '温度之和',
+    `temp_min`       decimal(5, 2)          DEFAULT NULL COMMENT '最低温度',
+    `temp_max`       decimal(5, 2)          DEFAULT NULL COMMENT '最高温度',
+    `humidity_count` int           NOT NULL DEFAULT 0 COMMENT '湿度样本数',
+    `humidity_sum`   bigint        NOT NULL DEFAULT 0 COMMENT '湿度之和',
+    `humidity_min`   int                    DEFAULT NULL COMMENT '最低湿度',
+    `humidity_max`   int                    DEFAULT NULL COMMENT '最高湿度',
+    `wind_count`     int           NOT NULL DEFAULT 0 COMMENT '风力样本数',
+    `wind_sum`       bigint        NOT NULL DEFAULT 0 COMMENT '风力等级之和',
+    `wind_min`       int                    DEFAULT NULL COMMENT '最低风力等级',
+    `wind_max`       int                    DEFAULT NULL COMMENT '最高风力等级',
+    `update_time`    datetime      NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`fish_raft_id`, `granularity`, `bucket_start`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='天气数据汇总';
+
+-- 由历史采样重算汇总，REPLACE 覆盖已有桶，可重复执行
+REPLACE INTO `weather_rollup`
+SELECT s.fish_raft_id, s.granularity, s.bucket_start,
+       COUNT(s.temperature), COALESCE(SUM(s.temperature), 0), MIN(s.temperature), MAX(s.temperature),
+       COUNT(s.humidity), COALESCE(SUM(s.humidity), 0), MIN(s.humidity), MAX(s.humidity),
+       COUNT(s.wind), COALESCE(SUM(s.wind), 0), MIN(s.wind), MAX(s.wind),
+       NOW()
+FROM (SELECT m.fish_raft_id, g.granularity,
+             CASE g.granularity
+                 WHEN 'hour' THEN DATE_FORMAT(COALESCE(m.report_time, m.create_time), '%Y-%m-%d %H:00:00')
+                 WHEN 'day' THEN DATE_FORMAT(COALESCE(m.report_time, m.create_time), '%Y-%m-%d 00:00:00')
+                 ELSE DATE_FORMAT(COALESCE(m.report_time, m.create_time), '%Y-%m-01 00:00:00')
+                 END                                                   AS bucket_start,
+             m.temperature,
+             m.humidity,
+             CAST(REGEXP_SUBSTR(m.wind_power, '[0-9]+') AS UNSIGNED) AS wind
+      FROM `weather_monitor` m
+               CROSS JOIN (SELECT 'hour' AS granularity
+                           UNION ALL SELECT 'day'
+                           UNION ALL SELECT 'month') g
+      WHERE m.fish_raft_id IS NOT NULL
+        AND COALESCE(m.report_time, m.create_time) IS NOT NULL) s
+GROUP BY s.fish_raft_id, s.granularity, s.bucket_start;
+
+/******************************************/
+/*   数据库 = alertmonitor_db               */
+/******************************************/
+USE `alertmonitor_db`;
+
+-- 告警分页：按渔排点 + 告警时间倒序（InnoDB 二级索引隐含主键，Id 作为同一时间内的次序）
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.statistics
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'alert_info'
+                 AND index_name = 'idx_raft_alerted_time') = 0,
+              'ALTER TABLE `alert_info` ADD INDEX `idx_raft_alerted_time` (`fish_raft_id`, `alerted_time`)',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 告警分页：按类型 / 等级过滤且不限渔排点
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.statistics
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'alert_info'
+                 AND index_name = 'idx_type_level_alerted_time') = 0,
+              'ALTER TABLE `alert_info` ADD INDEX `idx_type_level_alerted_time` (`alert_type_id`, `alert_level`, `alerted_time`)',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 告警分页：只按时间范围查询
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.statistics
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'alert_info'
+                 AND index_name = 'idx_alerted_time') = 0,
+              'ALTER TABLE `alert_info` ADD INDEX `idx_alerted_time` (`alerted_time`)',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+/******************************************/
+/*   数据库 = algorithm_db                  */
+/******************************************/
+USE `algorithm_db`;
+
+-- 分割结果掩码改为紧凑编码单独存放，旧版 seg_predict_mask 列在首次按 id 读取时迁移
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.columns
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'recognition_info'
+                 AND column_name = 'seg_mask_data') = 0,
+              'ALTER TABLE `recognition_info` ADD COLUMN `seg_mask_data` mediumblob NULL COMMENT ''分割结果掩码（紧凑编码）'' AFTER `seg_predict_mask`',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 算法任务：表即持久化队列，由 algorithm-service 调度器领取并分发给在线的算法实例
+CREATE TABLE IF NOT EXISTS `algorithm_job`
+(
+    `Id`            bigint      NOT NULL AUTO_INCREMENT COMMENT 'id',
+    `job_type`      varchar(32) NOT NULL COMMENT 'raft.add / raft.delete',
+    `fish_raft_id`  bigint      NOT NULL COMMENT '渔排点id',
+    `payload`       mediumtext           DEFAULT NULL COMMENT '发给算法实例的请求体 json（含掩码，可能超过 64KB）',
+    `status`        tinyint     NOT NULL DEFAULT 0 COMMENT '0 等待执行 1 执行中 2 成功 3 失败 4 已取消',
+    `attempts`      int         NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+    `worker_id`     bigint               DEFAULT NULL COMMENT '执行成功的算法实例id，0 为默认地址',
+    `last_error`    varchar(500)         DEFAULT NULL COMMENT '最近一次失败或推迟的原因',
+    `next_run_time` datetime    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最早可执行时间',
+    `create_time`   datetime    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time`   datetime    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`Id`),
+    KEY `idx_status_next_run_time` (`status`, `next_run_time`),
+    KEY `idx_raft_type_status` (`fish_raft_id`, `job_type`, `status`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='算法任务';
+
+-- 请求体带渔排掩码，text 上限 64KB 不够；已按 text 建过表的加宽
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.columns
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'algorithm_job'
+                 AND column_name = 'payload'
+                 AND data_type = 'text') > 0,
+              'ALTER TABLE `algorithm_job` MODIFY COLUMN `payload` mediumtext NULL COMMENT ''发给算法实例的请求体 json（含掩码，可能超过 64KB）''',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+/******************************************/
+/*   数据库 = user_db                       */
+/******************************************/
+USE `user_db`;
+
+-- 密码改为 BCrypt 哈希（60 字符），旧的 AES 密码在用户下次登录时迁移；password 列不足时加宽
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.columns
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'admin'
+                 AND column_name = 'password'
+                 AND character_maximum_length < 100) > 0,
+              'ALTER TABLE `admin` MODIFY COLUMN `password` varchar(100) NOT NULL COMMENT ''密码（BCrypt）''',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.columns
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'fishermen'
+                 AND column_name = 'password'
+                 AND character_maximum_length < 100) > 0,
+              'ALTER TABLE `fishermen` MODIFY COLUMN `password` varchar(100) NOT NULL COMMENT ''密码（BCrypt）''',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.columns
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'fishing_platoon'
+                 AND column_name = 'password'
+                 AND character_maximum_length < 100) > 0,
+              'ALTER TABLE `fishing_platoon` MODIFY COLUMN `password` varchar(100) NOT NULL COMMENT ''密码（BCrypt）''',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 注册查重改为一次查询 + 唯一索引兜底并发注册；已有重复数据需先清理，否则建索引失败
+DROP PROCEDURE IF EXISTS `asc_add_unique_index`;
+DELIMITER $$
+CREATE PROCEDURE `asc_add_unique_index`(IN tbl varchar(64), IN idx varchar(64), IN col varchar(64))
+BEGIN
+    IF (SELECT COUNT(*)
+        FROM information_schema.statistics
+        WHERE table_schema = DATABASE()
+          AND table_name = tbl
+          AND index_name = idx) = 0 THEN
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` ADD UNIQUE INDEX `', idx, '` (`', col, '`)');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END $$
+DELIMITER ;
+
+CALL `asc_add_unique_index`('fishermen', 'uk_username', 'username');
+CALL `asc_add_unique_index`('fishermen', 'uk_email', 'email');
+CALL `asc_add_unique_index`('fishermen', 'uk_phone', 'phone');
+CALL `asc_add_unique_index`('fishing_platoon', 'uk_username', 'username');
+CALL `asc_add_unique_index`('fishing_platoon', 'uk_email', 'email');
+CALL `asc_add_unique_index`('fishing_platoon', 'uk_phone', 'phone');
+CALL `asc_add_unique_index`('fishing_platoon', 'uk_invitation_code', 'invitation_code');
+
+DROP PROCEDURE IF EXISTS `asc_add_unique_index`;
@@ -46,7 +46,7 @@ CREATE TABLE `config_info`  (
 -- ----------------------------
 -- Records of config_info
 -- ----------------------------
-INSERT INTO `config_info` VALUES (1, 'shared-jdbc.yaml', 'DEFAULT_GROUP', 'spring:\n  data:\n    redis:\n      host: localhost\n      port: 6379\n      password: 123456\n  datasource:\n    url: jdbc:mysql://${asc.db.host:localhost}:${asc.db.port:3306}/${asc.db.database}?allowPublicKeyRetrieval=true&useUnicode=true&characterEncoding=UTF8&autoReconnect=true&serverTimezone=Asia/Shanghai\n    driver-class-name: com.mysql.cj.jdbc.Driver\n    username: ${asc.db.un:root}\n    password: ${asc.db.pw:123456}\n\nmybatis-plus:\n  configuration:\n    default-enum-type-handler: com.baomidou.mybatisplus.core.handlers.MybatisEnumTypeHandler\n  global-config:\n    db-config:\n      update-strategy: not_null\n      id-type: auto\n', '86a3ac3a41777ea4a135819652a4233b', '2024-09-08 13:15:57', '2024-09-08 13:15:57', 'nacos', '0:0:0:0:0:0:0:1', '', '', '配置jdbc和mybais-plus。', NULL, NULL, 'yaml', NULL, '');
+INSERT INTO `config_info` VALUES (1, 'shared-jdbc.yaml', 'DEFAULT_GROUP', 'spring:\n  data:\n    redis:\n      host: localhost\n      port: 6379\n      password: 123456\n  datasource:\n    url: jdbc:mysql://${asc.db.host:localhost}:${asc.db.port:3306}/${asc.db.database}?allowPublicKeyRetrieval=true&useUnicode=true&characterEncoding=UTF8&autoReconnect=true&serverTimezone=Asia/Shanghai&rewriteBatchedStatements=true\n    driver-class-name: com.mysql.cj.jdbc.Driver\n    username: ${asc.db.un:root}\n    password: ${asc.db.pw:123456}\n\nmybatis-plus:\n  configuration:\n    default-enum-type-handler: com.baomidou.mybatisplus.core.handlers.MybatisEnumTypeHandler\n  global-config:\n    db-config:\n      update-strategy: not_null\n      id-type: auto\n', '357dd883c36fb67f01e3afc08f30c6d7', '2024-09-08 13:15:57', '2024-09-08 13:15:57', 'nacos', '0:0:0:0:0:0:0:1', '', '', '配置jdbc和mybais-plus。', NULL, NULL, 'yaml', NULL, '');
 INSERT INTO `config_info` VALUES (2, 'shared-log.yaml', 'DEFAULT_GROUP', ' logging:\r\n    level:\r\n        com.hmall: debug\r\n    pattern:\r\n        dateformat: HH:mm:ss:SSS\r\n    file:\r\n        path: \"logs/${spring.application.name}\"', '8f80f2f0597932515c9a5710b1b005eb', '2024-09-08 13:15:57', '2024-09-08 13:15:57', 'nacos', '0:0:0:0:0:0:0:1', '', '', '日志', NULL, NULL, 'yaml', NULL, '');
 INSERT INTO `config_info` VALUES (3, 'shared-swagger.yaml', 'DEFAULT_GROUP', 'knife4j:\n  enable: true\n  openapi: \n    title: ${asc.swagger.title:asc接⼝⽂档}\n    description: ${aschm.swagger.description:asc接⼝⽂档}\n    email: ${asc.swagger.email:1757093754@qq.com}\n\n', '52429304cb9f652741cb1bad257114f1', '2024-09-08 13:15:57', '2024-09-08 13:15:57', 'nacos', '0:0:0:0:0:0:0:1', '', '', 'swagger', NULL, NULL, 'yaml', NULL, '');
 INSERT INTO `config_info` VALUES (4, 'shared-rabbitmq.yaml', 'DEFAULT_GROUP', 'spring:\n  rabbitmq:\n    host: 127.0.0.1 # 你的虚拟机IP\n    port: 5672 # 端⼝\n    virtual-host: / # 虚拟主机\n    username: root # ⽤⼾名\n    password: root # 密码\n  # amqp:\n  #   deserialization:\n  #     trust:\n  #       all: true\n', 'bccc23f39602f4a6c815e1a05bc94ec9', '2024-09-08 13:15:57', '2024-09-08 13:15:57', 'nacos', '0:0:0:0:0:0:0:1', '', '', '', NULL, NULL, 'yaml', NULL, '');